@@ -1,7 +1,6 @@
 package org.hildan.hashcode.utils.examples.drones.model;
 
 import java.util.Arrays;
-import java.util.List;
 
 public class Order {
 
@@ -24,7 +23,7 @@ public class Order {
         return id;
     }
 
-    public void setItems(List<Integer> products) {
+    public void setItems(int[] products) {
         for (int p : products) {
             quantities[p]++;
         }
@@ -1,7 +1,5 @@
 package org.hildan.hashcode.utils.examples.drones.model;
 
-import java.util.List;
-
 public class Warehouse {
 
     public final int row;
@@ -13,10 +11,7 @@ public class Warehouse {
         this.col = col;
     }
 
-    public void setStocks(List<Integer> stocks) {
-        this.stocks = new int[stocks.size()];
-        for (int i = 0; i < stocks.size(); i++) {
-            this.stocks[i] = stocks.get(i);
-        }
+    public void setStocks(int[] stocks) {
+        this.stocks = stocks;
     }
 }
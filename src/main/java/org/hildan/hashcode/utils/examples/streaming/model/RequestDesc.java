@@ -1,10 +0,0 @@
-package org.hildan.hashcode.utils.examples.streaming.model;
-
-public class RequestDesc {
-
-    public int count;
-
-    public int videoId;
-
-    public int endpointId;
-}
@@ -0,0 +1,28 @@
+package org.hildan.hashcode.utils.examples.streaming.model;
+
+import org.hildan.hashcode.utils.parser.Columns;
+
+public class RequestDescs {
+
+    private static final int VIDEO_ID = 0;
+
+    private static final int ENDPOINT_ID = 1;
+
+    private static final int COUNT = 2;
+
+    public final int[] videoIds;
+
+    public final int[] endpointIds;
+
+    public final int[] counts;
+
+    public RequestDescs(Columns columns) {
+        videoIds = columns.intColumn(VIDEO_ID);
+        endpointIds = columns.intColumn(ENDPOINT_ID);
+        counts = columns.intColumn(COUNT);
+    }
+
+    public int size() {
+        return counts.length;
+    }
+}
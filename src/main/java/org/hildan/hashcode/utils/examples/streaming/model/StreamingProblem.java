@@ -19,7 +19,7 @@ public class StreamingProblem {
 
     public Endpoint[] endpoints;
 
-    public RequestDesc[] requestDescs;
+    public RequestDescs requestDescs;
 
     public List<String> solve() {
         return new ArrayList<>();
@@ -0,0 +1,186 @@
+package org.hildan.hashcode.utils.parser;
+
+import java.util.Arrays;
+
+import org.hildan.hashcode.utils.parser.context.Context;
+
+/**
+ * A columnar (struct-of-arrays) representation of a section of numeric records. All records have the same fields, and
+ * the values of each field are stored in a single primitive array (a column), instead of one small object per record.
+ * This saves an object header and a pointer per record, and keeps the values of a field contiguous in memory.
+ */
+public class Columns {
+
+    /**
+     * The primitive type of a column.
+     */
+    public enum Type {
+        INT,
+        LONG,
+        DOUBLE
+    }
+
+    private final int size;
+
+    private final Type[] types;
+
+    private final int[][] intColumns;
+
+    private final long[][] longColumns;
+
+    private final double[][] doubleColumns;
+
+    private Columns(int size, Type[] types) {
+        this.size = size;
+        this.types = types;
+        this.intColumns = new int[types.length][];
+        this.longColumns = new long[types.length][];
+        this.doubleColumns = new double[types.length][];
+        for (int c = 0; c < types.length; c++) {
+            switch (types[c]) {
+            case INT:
+                intColumns[c] = new int[size];
+                break;
+            case LONG:
+                longColumns[c] = new long[size];
+                break;
+            case DOUBLE:
+                doubleColumns[c] = new double[size];
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported column type " + types[c]);
+            }
+        }
+    }
+
+    /**
+     * Reads {@code nRecords} records from the given context. Each record consists of one token per column, in the
+     * order of the given types.
+     *
+     * @param context
+     *         the context to read the records from
+     * @param nRecords
+     *         the number of records to read
+     * @param types
+     *         the type of each field of the records
+     *
+     * @return the columns containing the records that were read
+     * @throws IllegalArgumentException
+     *         if the number of records is negative, or if no types are given
+     * @throws InputParsingException
+     *         if an error occurs while reading the input
+     */
+    static Columns read(Context context, int nRecords, Type... types) throws InputParsingException {
+        if (nRecords < 0) {
+            throw new IllegalArgumentException("The number of records to read cannot be negative");
+        }
+        if (types.length == 0) {
+            throw new IllegalArgumentException("At least one column type must be provided");
+        }
+        Columns columns = new Columns(nRecords, types.clone());
+        int width = types.length;
+        for (int r = 0; r < nRecords; r++) {
+            for (int c = 0; c < width; c++) {
+                switch (columns.types[c]) {
+                case INT:
+                    columns.intColumns[c][r] = context.readInt();
+                    break;
+                case LONG:
+                    columns.longColumns[c][r] = context.readLong();
+                    break;
+                case DOUBLE:
+                    columns.doubleColumns[c][r] = context.readDouble();
+                    break;
+                }
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Gets the number of records stored in these columns.
+     *
+     * @return the number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of columns, which is the number of fields of each record.
+     *
+     * @return the number of columns
+     */
+    public int width() {
+        return types.length;
+    }
+
+    /**
+     * Gets the type of the given column.
+     *
+     * @param column
+     *         the index of the column
+     *
+     * @return the type of the values in the given column
+     */
+    public Type getType(int column) {
+        return types[column];
+    }
+
+    /**
+     * Gets the values of the given int column. The returned array is not a copy.
+     *
+     * @param column
+     *         the index of the column
+     *
+     * @return the values of the given column, indexed by record
+     * @throws IllegalArgumentException
+     *         if the given column is not of type {@link Type#INT}
+     */
+    public int[] intColumn(int column) {
+        checkType(column, Type.INT);
+        return intColumns[column];
+    }
+
+    /**
+     * Gets the values of the given long column. The returned array is not a copy.
+     *
+     * @param column
+     *         the index of the column
+     *
+     * @return the values of the given column, indexed by record
+     * @throws IllegalArgumentException
+     *         if the given column is not of type {@link Type#LONG}
+     */
+    public long[] longColumn(int column) {
+        checkType(column, Type.LONG);
+        return longColumns[column];
+    }
+
+    /**
+     * Gets the values of the given double column. The returned array is not a copy.
+     *
+     * @param column
+     *         the index of the column
+     *
+     * @return the values of the given column, indexed by record
+     * @throws IllegalArgumentException
+     *         if the given column is not of type {@link Type#DOUBLE}
+     */
+    public double[] doubleColumn(int column) {
+        checkType(column, Type.DOUBLE);
+        return doubleColumns[column];
+    }
+
+    private void checkType(int column, Type expectedType) {
+        if (types[column] != expectedType) {
+            String msg = String.format("Column %d is of type %s, not %s", column, types[column], expectedType);
+            throw new IllegalArgumentException(msg);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Columns{size=" + size + ", types=" + Arrays.toString(types) + '}';
+    }
+}
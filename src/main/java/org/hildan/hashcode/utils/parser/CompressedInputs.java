@@ -0,0 +1,343 @@
+package org.hildan.hashcode.utils.parser;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Opens compressed input files as streams of decompressed bytes, so that they can be parsed without decompressing
+ * them to disk first.
+ * <p>
+ * Gzip files are streamed through a {@link GZIPInputStream}. Files in the BGZF format (as produced by {@code bgzip})
+ * store the size of each member in its header, so their members are inflated in parallel instead: the file is still
+ * read sequentially, and only a few members are inflated ahead of the reader.
+ */
+final class CompressedInputs {
+
+    private static final String GZIP_EXTENSION = ".gz";
+
+    private static final String ZIP_EXTENSION = ".zip";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int GZIP_TRAILER_SIZE = 8;
+
+    private static final int FLAG_EXTRA = 4;
+
+    private static final int BLOCK_HEADER_SIZE = 18;
+
+    private static final int BLOCK_EXTRA_LENGTH = 6;
+
+    private static final int MAX_BLOCK_SIZE = 1 << 16;
+
+    private CompressedInputs() {
+    }
+
+    /**
+     * Returns whether the given file is compressed, based on its extension.
+     *
+     * @param filename
+     *         the name of the file to test
+     *
+     * @return true if the file is a gzip or zip file
+     */
+    static boolean isCompressed(String filename) {
+        return filename.endsWith(GZIP_EXTENSION) || filename.endsWith(ZIP_EXTENSION);
+    }
+
+    /**
+     * Opens the given compressed file as a stream of decompressed bytes. For zip files, the first file entry of the
+     * archive is read.
+     *
+     * @param file
+     *         the compressed file to open
+     *
+     * @return a stream of the decompressed content of the file
+     * @throws IOException
+     *         if an error occurs while opening the file
+     */
+    static InputStream open(Path file) throws IOException {
+        String filename = file.getFileName().toString();
+        if (filename.endsWith(ZIP_EXTENSION)) {
+            return openZip(file);
+        }
+        if (filename.endsWith(GZIP_EXTENSION)) {
+            return openGzip(file);
+        }
+        throw new IllegalArgumentException("Unsupported compressed file: " + file);
+    }
+
+    private static InputStream openZip(Path file) throws IOException {
+        ZipInputStream zip = new ZipInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (!entry.isDirectory()) {
+                return zip;
+            }
+        }
+        zip.close();
+        throw new IOException("The zip file '" + file + "' does not contain any file");
+    }
+
+    private static InputStream openGzip(Path file) throws IOException {
+        InputStream source = new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE);
+        try {
+            if (startsWithBlock(source)) {
+                ForkJoinPool pool = ForkJoinPool.commonPool();
+                return new BlockInflatingStream(source, pool, 2 * pool.getParallelism());
+            }
+            return new GZIPInputStream(source, BUFFER_SIZE);
+        } catch (IOException | RuntimeException e) {
+            source.close();
+            throw e;
+        }
+    }
+
+    private static boolean startsWithBlock(InputStream source) throws IOException {
+        byte[] header = new byte[BLOCK_HEADER_SIZE];
+        source.mark(BLOCK_HEADER_SIZE);
+        int n = readFully(source, header, header.length);
+        source.reset();
+        return n == BLOCK_HEADER_SIZE && isBlockHeader(header);
+    }
+
+    /**
+     * Returns whether the given header is the header of a BGZF block, which stores the size of the block in the "BC"
+     * extra subfield.
+     */
+    private static boolean isBlockHeader(byte[] header) {
+        return header[0] == 0x1f && (header[1] & 0xFF) == 0x8b && header[2] == Deflater.DEFLATED
+                && header[3] == FLAG_EXTRA && header[10] == BLOCK_EXTRA_LENGTH && header[11] == 0
+                && header[12] == 'B' && header[13] == 'C' && header[14] == 2 && header[15] == 0;
+    }
+
+    private static int readFully(InputStream source, byte[] bytes, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int n = source.read(bytes, total, length - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Inflates the given BGZF block (without its header).
+     *
+     * @param block
+     *         the compressed data of the block, followed by the gzip trailer
+     *
+     * @return the decompressed bytes of the block
+     * @throws UncheckedIOException
+     *         if the block is corrupted
+     */
+    private static byte[] inflateBlock(byte[] block) {
+        int dataLength = block.length - GZIP_TRAILER_SIZE;
+        ByteBuffer trailer = ByteBuffer.wrap(block, dataLength, GZIP_TRAILER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        long expectedCrc = trailer.getInt() & 0xFFFFFFFFL;
+        int size = trailer.getInt();
+        if (size < 0 || size > MAX_BLOCK_SIZE) {
+            throw corruptedBlock("invalid size " + (size & 0xFFFFFFFFL));
+        }
+        byte[] out = new byte[size];
+        byte[] overflow = new byte[1];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(block, 0, dataLength);
+            int length = 0;
+            while (!inflater.finished()) {
+                int n = length < size ? inflater.inflate(out, length, size - length) : inflater.inflate(overflow);
+                length += n;
+                if (length > size) {
+                    throw corruptedBlock("more data than declared");
+                }
+                if (n == 0 && !inflater.finished() && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw corruptedBlock("truncated data");
+                }
+            }
+            if (length != size || inflater.getRemaining() != 0) {
+                throw corruptedBlock("size mismatch");
+            }
+        } catch (DataFormatException e) {
+            throw corruptedBlock(e.getMessage());
+        } finally {
+            inflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out, 0, size);
+        if (crc.getValue() != expectedCrc) {
+            throw corruptedBlock("CRC mismatch");
+        }
+        return out;
+    }
+
+    private static UncheckedIOException corruptedBlock(String reason) {
+        return new UncheckedIOException(new ZipException("Corrupted gzip block: " + reason));
+    }
+
+    /**
+     * Decodes a BGZF file through a bounded pipeline: the blocks are read sequentially from the file, a few of them
+     * are inflated ahead in parallel, and their contents are handed to the reader in order.
+     * <p>
+     * If a member without the block size is encountered, the rest of the file is decoded sequentially by a
+     * {@link GZIPInputStream}, after the pending blocks.
+     */
+    private static final class BlockInflatingStream extends InputStream {
+
+        private static final byte[] EMPTY = new byte[0];
+
+        private final InputStream source;
+
+        private final Executor executor;
+
+        private final int maxBlocksAhead;
+
+        private final Deque<CompletableFuture<byte[]>> pendingBlocks = new ArrayDeque<>();
+
+        private final byte[] header = new byte[BLOCK_HEADER_SIZE];
+
+        private boolean sourceExhausted;
+
+        private InputStream remainder;
+
+        private byte[] block = EMPTY;
+
+        private int position;
+
+        BlockInflatingStream(InputStream source, Executor executor, int maxBlocksAhead) {
+            this.source = source;
+            this.executor = executor;
+            this.maxBlocksAhead = Math.max(1, maxBlocksAhead);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!nextBlockIfConsumed()) {
+                return remainder == null ? -1 : remainder.read();
+            }
+            return block[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            if (!nextBlockIfConsumed()) {
+                return remainder == null ? -1 : remainder.read(bytes, offset, length);
+            }
+            int n = Math.min(length, block.length - position);
+            System.arraycopy(block, position, bytes, offset, n);
+            position += n;
+            return n;
+        }
+
+        /**
+         * Moves on to the next non-empty block if the current one has been consumed.
+         *
+         * @return false if all blocks have been consumed
+         */
+        private boolean nextBlockIfConsumed() throws IOException {
+            while (position == block.length) {
+                readAhead();
+                CompletableFuture<byte[]> next = pendingBlocks.poll();
+                if (next == null) {
+                    return false;
+                }
+                block = await(next);
+                position = 0;
+            }
+            return true;
+        }
+
+        private void readAhead() throws IOException {
+            while (!sourceExhausted && pendingBlocks.size() < maxBlocksAhead) {
+                byte[] compressed = readBlock();
+                if (compressed == null) {
+                    sourceExhausted = true;
+                } else {
+                    pendingBlocks.add(CompletableFuture.supplyAsync(() -> inflateBlock(compressed), executor));
+                }
+            }
+        }
+
+        /**
+         * Reads the next block from the source.
+         *
+         * @return the block without its header, or null if there is no block left
+         */
+        private byte[] readBlock() throws IOException {
+            source.mark(BLOCK_HEADER_SIZE);
+            int n = readFully(source, header, BLOCK_HEADER_SIZE);
+            if (n == 0) {
+                return null;
+            }
+            if (n < BLOCK_HEADER_SIZE || !isBlockHeader(header)) {
+                source.reset();
+                remainder = new GZIPInputStream(source, BUFFER_SIZE);
+                return null;
+            }
+            int blockSize = ((header[16] & 0xFF) | (header[17] & 0xFF) << 8) + 1;
+            int remainingSize = blockSize - BLOCK_HEADER_SIZE;
+            if (remainingSize < GZIP_TRAILER_SIZE) {
+                throw new ZipException("Corrupted gzip block: invalid block size " + blockSize);
+            }
+            byte[] compressed = new byte[remainingSize];
+            if (readFully(source, compressed, remainingSize) < remainingSize) {
+                throw new EOFException("Unexpected end of gzip block");
+            }
+            return compressed;
+        }
+
+        private static byte[] await(CompletableFuture<byte[]> future) throws IOException {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (CompletableFuture<byte[]> pending : pendingBlocks) {
+                pending.cancel(false);
+            }
+            pendingBlocks.clear();
+            block = EMPTY;
+            position = 0;
+            sourceExhausted = true;
+            try {
+                if (remainder != null) {
+                    remainder.close();
+                }
+            } finally {
+                source.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.hildan.hashcode.utils.parser;
+
+/**
+ * Represents a function that accepts 2 {@code double} arguments and produces a result. This is the
+ * {@code double}-consuming specialization of {@link java.util.function.BiFunction}.
+ *
+ * @param <R>
+ *         the type of the result of the function
+ */
+@FunctionalInterface
+public interface DoubleBiFunction<R> {
+
+    R apply(double a, double b);
+}
@@ -0,0 +1,53 @@
+package org.hildan.hashcode.utils.parser;
+
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleToIntFunction;
+import java.util.function.DoubleToLongFunction;
+import java.util.function.DoubleUnaryOperator;
+
+import org.hildan.hashcode.utils.parser.context.Context;
+
+/**
+ * A {@link Parser} specialized for {@code double} values, which does not box the values it reads unless it is used
+ * as a plain {@code Parser<Double>}.
+ */
+@FunctionalInterface
+public interface DoubleParser extends Parser<Double> {
+
+    double parseDouble(Context context) throws InputParsingException;
+
+    @Override
+    default Double parse(Context context) throws InputParsingException {
+        return parseDouble(context);
+    }
+
+    default DoubleParser mapDouble(DoubleUnaryOperator f) {
+        return ctx -> f.applyAsDouble(parseDouble(ctx));
+    }
+
+    default IntParser mapToInt(DoubleToIntFunction f) {
+        return ctx -> f.applyAsInt(parseDouble(ctx));
+    }
+
+    default LongParser mapToLong(DoubleToLongFunction f) {
+        return ctx -> f.applyAsLong(parseDouble(ctx));
+    }
+
+    default <B> Parser<B> mapToObj(DoubleFunction<B> f) {
+        return ctx -> f.apply(parseDouble(ctx));
+    }
+
+    default <B> Parser<B> flatMapDouble(DoubleFunction<? extends Parser<B>> f) {
+        return ctx -> f.apply(parseDouble(ctx)).parse(ctx);
+    }
+
+    default Parser<double[]> repeatArray(int n) {
+        return ctx -> {
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = parseDouble(ctx);
+            }
+            return values;
+        };
+    }
+}
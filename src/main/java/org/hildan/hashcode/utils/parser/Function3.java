@@ -0,0 +1,20 @@
+package org.hildan.hashcode.utils.parser;
+
+/**
+ * Represents a function that accepts 3 arguments and produces a result. This is the 3-arity specialization of
+ * {@link java.util.function.Function}.
+ *
+ * @param <A>
+ *         the type of the first argument
+ * @param <B>
+ *         the type of the second argument
+ * @param <C>
+ *         the type of the third argument
+ * @param <R>
+ *         the type of the result of the function
+ */
+@FunctionalInterface
+public interface Function3<A, B, C, R> {
+
+    R apply(A a, B b, C c);
+}
@@ -0,0 +1,22 @@
+package org.hildan.hashcode.utils.parser;
+
+/**
+ * Represents a function that accepts 4 arguments and produces a result. This is the 4-arity specialization of
+ * {@link java.util.function.Function}.
+ *
+ * @param <A>
+ *         the type of the first argument
+ * @param <B>
+ *         the type of the second argument
+ * @param <C>
+ *         the type of the third argument
+ * @param <D>
+ *         the type of the fourth argument
+ * @param <R>
+ *         the type of the result of the function
+ */
+@FunctionalInterface
+public interface Function4<A, B, C, D, R> {
+
+    R apply(A a, B b, C c, D d);
+}
@@ -1,13 +1,21 @@
 package org.hildan.hashcode.utils.parser;
 
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.function.Function;
 
+import org.hildan.hashcode.utils.parser.config.CharTokenizer;
 import org.hildan.hashcode.utils.parser.config.Config;
 import org.hildan.hashcode.utils.parser.context.Context;
+import org.hildan.hashcode.utils.parser.context.FastDecodingReader;
+import org.hildan.hashcode.utils.parser.context.MappedFileScanner;
 import org.intellij.lang.annotations.RegExp;
 import org.jetbrains.annotations.NotNull;
 
@@ -40,7 +48,7 @@ public class HCParser<T> {
      * @param rootReader
      *         the reader to use to read the input into an object
      * @param separator
-     *         the separator between elements within an input line
+     *         the separator between elements within an input line, as a regular expression
      */
     public HCParser(@NotNull Function<Context, T> rootReader, @RegExp String separator) {
         config = new Config(separator);
@@ -62,6 +70,14 @@ public class HCParser<T> {
 
     /**
      * Parses the given file to create an instance of T.
+     * <p>
+     * Regular files are memory-mapped and scanned directly at byte level when the configured tokenizer allows it (see
+     * {@link MappedFileScanner}), other files are read through a {@link FastDecodingReader}. Files are decoded with the
+     * charset of the config (UTF-8 by default), with a fast path for ASCII content.
+     * <p>
+     * Files ending with {@code .gz} or {@code .zip} are decompressed on the fly, without writing anything to disk.
+     * Gzip files made of several members are decompressed in parallel. The input of zip files is read from the first
+     * file entry of the archive.
      *
      * @param filename
      *         the path to the file to parse
@@ -69,9 +85,45 @@ public class HCParser<T> {
      * @return the created object representing the input problem
      * @throws FileNotFoundException
      *         if the given file does not exist
+     * @throws InputParsingException
+     *         if an error occurs while reading the input
      */
     public T parseFile(String filename) throws FileNotFoundException {
-        return parse(new FileReader(filename));
+        Path path = Paths.get(filename);
+        if (CompressedInputs.isCompressed(filename)) {
+            return parseCompressedFile(path);
+        }
+        if (!canBeMapped(path)) {
+            return parse(new FastDecodingReader(new FileInputStream(filename), config.getCharset()));
+        }
+        try {
+            CharTokenizer tokenizer = (CharTokenizer) config.getTokenizer();
+            return parse(new Context(new MappedFileScanner(path, tokenizer, config.getCharset()), config));
+        } catch (IOException e) {
+            throw new InputParsingException("An error occurred while mapping the input file '" + filename + "'", e);
+        }
+    }
+
+    private T parseCompressedFile(Path path) throws FileNotFoundException {
+        if (!Files.exists(path)) {
+            throw new FileNotFoundException(path + " (No such file or directory)");
+        }
+        InputStream input;
+        try {
+            input = CompressedInputs.open(path);
+        } catch (IOException e) {
+            throw new InputParsingException("An error occurred while opening the compressed file '" + path + "'", e);
+        }
+        return parse(new FastDecodingReader(input, config.getCharset()));
+    }
+
+    private boolean canBeMapped(Path path) {
+        try {
+            return Files.isRegularFile(path) && Files.size(path) <= Integer.MAX_VALUE
+                    && MappedFileScanner.supports(config.getTokenizer(), config.getCharset());
+        } catch (IOException e) {
+            return false;
+        }
     }
 
     /**
@@ -100,6 +152,10 @@ public class HCParser<T> {
 
     /**
      * Creates an instance of T by reading the input from the given {@link Context}.
+     * <p>
+     * If the root reader leaves lazy sections of the input to be consumed later (for instance via
+     * {@link Parser#stream(int)}), the end-of-input verification and the closing of the reader are deferred until
+     * these sections are drained. If parsing fails, the reader is closed without checking the end of the input.
      *
      * @param context
      *         the {@link Context} from which to read the input to parse
@@ -107,7 +163,18 @@ public class HCParser<T> {
      * @return the created object representing the input problem
      */
     public T parse(Context context) {
-        T result = rootReader.apply(context);
+        T result;
+        try {
+            result = rootReader.apply(context);
+        } catch (RuntimeException | Error e) {
+            // the input is not checked after a failure, but the resources of the reader must still be released
+            try {
+                context.abortReader();
+            } catch (RuntimeException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
         context.closeReader();
         return result;
     }
@@ -0,0 +1,14 @@
+package org.hildan.hashcode.utils.parser;
+
+/**
+ * Represents a function that accepts 2 {@code int} arguments and produces a result. This is the {@code int}-consuming
+ * specialization of {@link java.util.function.BiFunction}.
+ *
+ * @param <R>
+ *         the type of the result of the function
+ */
+@FunctionalInterface
+public interface IntBiFunction<R> {
+
+    R apply(int a, int b);
+}
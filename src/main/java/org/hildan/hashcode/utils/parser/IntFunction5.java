@@ -0,0 +1,14 @@
+package org.hildan.hashcode.utils.parser;
+
+/**
+ * Represents a function that accepts 5 {@code int} arguments and produces a result. This is the {@code int}-consuming
+ * specialization of {@link Function5}.
+ *
+ * @param <R>
+ *         the type of the result of the function
+ */
+@FunctionalInterface
+public interface IntFunction5<R> {
+
+    R apply(int a, int b, int c, int d, int e);
+}
@@ -0,0 +1,16 @@
+package org.hildan.hashcode.utils.parser;
+
+/**
+ * Represents a function that accepts 2 {@code int} arguments and an object argument, and produces a result. This is a
+ * partially {@code int}-consuming specialization of {@link Function3}.
+ *
+ * @param <C>
+ *         the type of the third argument
+ * @param <R>
+ *         the type of the result of the function
+ */
+@FunctionalInterface
+public interface IntIntObjFunction<C, R> {
+
+    R apply(int a, int b, C c);
+}
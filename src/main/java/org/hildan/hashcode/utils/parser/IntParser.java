@@ -0,0 +1,53 @@
+package org.hildan.hashcode.utils.parser;
+
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+
+import org.hildan.hashcode.utils.parser.context.Context;
+
+/**
+ * A {@link Parser} specialized for {@code int} values, which does not box the values it reads unless it is used as
+ * a plain {@code Parser<Integer>}.
+ */
+@FunctionalInterface
+public interface IntParser extends Parser<Integer> {
+
+    int parseInt(Context context) throws InputParsingException;
+
+    @Override
+    default Integer parse(Context context) throws InputParsingException {
+        return parseInt(context);
+    }
+
+    default IntParser mapInt(IntUnaryOperator f) {
+        return ctx -> f.applyAsInt(parseInt(ctx));
+    }
+
+    default LongParser mapToLong(IntToLongFunction f) {
+        return ctx -> f.applyAsLong(parseInt(ctx));
+    }
+
+    default DoubleParser mapToDouble(IntToDoubleFunction f) {
+        return ctx -> f.applyAsDouble(parseInt(ctx));
+    }
+
+    default <B> Parser<B> mapToObj(IntFunction<B> f) {
+        return ctx -> f.apply(parseInt(ctx));
+    }
+
+    default <B> Parser<B> flatMapInt(IntFunction<? extends Parser<B>> f) {
+        return ctx -> f.apply(parseInt(ctx)).parse(ctx);
+    }
+
+    default Parser<int[]> repeatArray(int n) {
+        return ctx -> {
+            int[] values = new int[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = parseInt(ctx);
+            }
+            return values;
+        };
+    }
+}
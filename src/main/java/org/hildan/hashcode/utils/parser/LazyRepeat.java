@@ -0,0 +1,83 @@
+package org.hildan.hashcode.utils.parser;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.hildan.hashcode.utils.parser.context.Context;
+import org.hildan.hashcode.utils.parser.context.IncompleteInputReadException;
+
+/**
+ * A single-pass {@link Iterator} reading a given number of elements from a {@link Context} on demand.
+ *
+ * @param <A>
+ *         the type of elements read
+ */
+class LazyRepeat<A> implements Iterator<A> {
+
+    private final Parser<A> elementParser;
+
+    private final Context context;
+
+    private int remaining;
+
+    private boolean released;
+
+    LazyRepeat(Parser<A> elementParser, Context context, int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of elements to read cannot be negative");
+        }
+        this.elementParser = elementParser;
+        this.context = context;
+        this.remaining = n;
+        this.released = n == 0;
+        if (n > 0) {
+            context.acquireLazySection();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remaining > 0;
+    }
+
+    @Override
+    public A next() throws InputParsingException {
+        if (remaining <= 0) {
+            throw new NoSuchElementException();
+        }
+        A element;
+        try {
+            element = elementParser.parse(context);
+        } catch (RuntimeException | Error e) {
+            // the rest of the section cannot be read anymore, the reader is released without checking the end
+            remaining = 0;
+            released = true;
+            context.abortReader();
+            throw e;
+        }
+        remaining--;
+        if (remaining == 0) {
+            release();
+        }
+        return element;
+    }
+
+    /**
+     * Releases the lazy section, even if it was not drained. If the reader was closed in the meantime, this checks
+     * the end of the input, and thus fails if some elements were not read.
+     *
+     * @throws IncompleteInputReadException
+     *         if the reader is closed and there is still some input left to read
+     */
+    void close() {
+        remaining = 0;
+        release();
+    }
+
+    private void release() {
+        if (!released) {
+            released = true;
+            context.releaseLazySection();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.hildan.hashcode.utils.parser;
+
+import java.util.function.LongFunction;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
+
+import org.hildan.hashcode.utils.parser.context.Context;
+
+/**
+ * A {@link Parser} specialized for {@code long} values, which does not box the values it reads unless it is used as
+ * a plain {@code Parser<Long>}.
+ */
+@FunctionalInterface
+public interface LongParser extends Parser<Long> {
+
+    long parseLong(Context context) throws InputParsingException;
+
+    @Override
+    default Long parse(Context context) throws InputParsingException {
+        return parseLong(context);
+    }
+
+    default LongParser mapLong(LongUnaryOperator f) {
+        return ctx -> f.applyAsLong(parseLong(ctx));
+    }
+
+    default IntParser mapToInt(LongToIntFunction f) {
+        return ctx -> f.applyAsInt(parseLong(ctx));
+    }
+
+    default DoubleParser mapToDouble(LongToDoubleFunction f) {
+        return ctx -> f.applyAsDouble(parseLong(ctx));
+    }
+
+    default <B> Parser<B> mapToObj(LongFunction<B> f) {
+        return ctx -> f.apply(parseLong(ctx));
+    }
+
+    default <B> Parser<B> flatMapLong(LongFunction<? extends Parser<B>> f) {
+        return ctx -> f.apply(parseLong(ctx)).parse(ctx);
+    }
+
+    default Parser<long[]> repeatArray(int n) {
+        return ctx -> {
+            long[] values = new long[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = parseLong(ctx);
+            }
+            return values;
+        };
+    }
+}
@@ -0,0 +1,52 @@
+package org.hildan.hashcode.utils.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import org.hildan.hashcode.utils.parser.context.Context;
+
+/**
+ * Parses a section of records that all span the same number of lines, by splitting it into chunks of lines that are
+ * parsed in parallel.
+ */
+class ParallelRepeat {
+
+    /**
+     * Number of chunks per thread of the pool, to balance the load when some chunks take longer than others.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    static <A> List<A> parse(Parser<A> recordParser, Context context, int nRecords, int linesPerRecord,
+                             ForkJoinPool pool) throws InputParsingException {
+        if (nRecords < 0) {
+            throw new IllegalArgumentException("The number of records to read cannot be negative");
+        }
+        if (linesPerRecord <= 0) {
+            throw new IllegalArgumentException("The number of lines per record must be positive");
+        }
+        int nChunks = Math.max(1, Math.min(nRecords, pool.getParallelism() * CHUNKS_PER_THREAD));
+        List<ForkJoinTask<List<A>>> tasks = new ArrayList<>(nChunks);
+        for (int c = 0; c < nChunks; c++) {
+            int chunkSize = nRecords / nChunks + (c < nRecords % nChunks ? 1 : 0);
+            Context chunkContext = context.detachLines(Math.multiplyExact(chunkSize, linesPerRecord));
+            tasks.add(pool.submit(() -> parseChunk(recordParser, chunkContext, chunkSize)));
+        }
+        List<A> records = new ArrayList<>(nRecords);
+        for (ForkJoinTask<List<A>> task : tasks) {
+            records.addAll(task.join());
+        }
+        return records;
+    }
+
+    private static <A> List<A> parseChunk(Parser<A> recordParser, Context chunkContext, int chunkSize) {
+        List<A> records = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize; i++) {
+            records.add(recordParser.parse(chunkContext));
+        }
+        // ensures the records actually spanned the expected number of lines
+        chunkContext.closeReader();
+        return records;
+    }
+}
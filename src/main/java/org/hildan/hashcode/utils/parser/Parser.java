@@ -1,12 +1,22 @@
 package org.hildan.hashcode.utils.parser;
 
 import org.hildan.hashcode.utils.parser.context.Context;
+import org.hildan.hashcode.utils.parser.offheap.DoubleTable;
+import org.hildan.hashcode.utils.parser.offheap.IntTable;
+import org.hildan.hashcode.utils.parser.offheap.LongTable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public interface Parser<A> extends Function<Context, A> {
     A parse(Context context) throws InputParsingException;
@@ -27,18 +37,270 @@ public interface Parser<A> extends Function<Context, A> {
         return ctx -> f.apply(this.parse(ctx)).parse(ctx);
     }
 
-    Parser<Integer> integer = Context::readInt;
+    IntParser integer = new IntParser() {
+        @Override
+        public int parseInt(Context context) {
+            return context.readInt();
+        }
+
+        @Override
+        public Parser<int[]> repeatArray(int n) {
+            return ctx -> ctx.readIntArray(n);
+        }
+    };
+
+    LongParser lng = new LongParser() {
+        @Override
+        public long parseLong(Context context) {
+            return context.readLong();
+        }
+
+        @Override
+        public Parser<long[]> repeatArray(int n) {
+            return ctx -> ctx.readLongArray(n);
+        }
+    };
+
     Parser<String> string = Context::readString;
-    Parser<Double> doubl = Context::readDouble;
+
+    DoubleParser doubl = new DoubleParser() {
+        @Override
+        public double parseDouble(Context context) {
+            return context.readDouble();
+        }
+
+        @Override
+        public Parser<double[]> repeatArray(int n) {
+            return ctx -> ctx.readDoubleArray(n);
+        }
+    };
+
+    /**
+     * Creates a parser reading the given parsers in sequence, and combining their results with the given function.
+     * Unlike nested {@link #flatMap(Function)} calls, this does not create any intermediate parser at parse time.
+     */
+    static <A, B, R> Parser<R> seq(Parser<A> pa, Parser<B> pb, BiFunction<? super A, ? super B, ? extends R> f) {
+        return ctx -> {
+            A a = pa.parse(ctx);
+            B b = pb.parse(ctx);
+            return f.apply(a, b);
+        };
+    }
+
+    /**
+     * Creates a parser reading the given parsers in sequence, and combining their results with the given function.
+     * Unlike nested {@link #flatMap(Function)} calls, this does not create any intermediate parser at parse time.
+     */
+    static <A, B, C, R> Parser<R> seq(Parser<A> pa, Parser<B> pb, Parser<C> pc,
+                                      Function3<? super A, ? super B, ? super C, ? extends R> f) {
+        return ctx -> {
+            A a = pa.parse(ctx);
+            B b = pb.parse(ctx);
+            C c = pc.parse(ctx);
+            return f.apply(a, b, c);
+        };
+    }
+
+    /**
+     * Creates a parser reading the given parsers in sequence, and combining their results with the given function.
+     * Unlike nested {@link #flatMap(Function)} calls, this does not create any intermediate parser at parse time.
+     */
+    static <A, B, C, D, R> Parser<R> seq(Parser<A> pa, Parser<B> pb, Parser<C> pc, Parser<D> pd,
+                                         Function4<? super A, ? super B, ? super C, ? super D, ? extends R> f) {
+        return ctx -> {
+            A a = pa.parse(ctx);
+            B b = pb.parse(ctx);
+            C c = pc.parse(ctx);
+            D d = pd.parse(ctx);
+            return f.apply(a, b, c, d);
+        };
+    }
+
+    /**
+     * Creates a parser reading the given parsers in sequence, and combining their results with the given function.
+     * Unlike nested {@link #flatMap(Function)} calls, this does not create any intermediate parser at parse time.
+     */
+    static <A, B, C, D, E, R> Parser<R> seq(Parser<A> pa, Parser<B> pb, Parser<C> pc, Parser<D> pd, Parser<E> pe,
+            Function5<? super A, ? super B, ? super C, ? super D, ? super E, ? extends R> f) {
+        return ctx -> {
+            A a = pa.parse(ctx);
+            B b = pb.parse(ctx);
+            C c = pc.parse(ctx);
+            D d = pd.parse(ctx);
+            E e = pe.parse(ctx);
+            return f.apply(a, b, c, d, e);
+        };
+    }
+
+    /**
+     * Creates a parser reading the given {@code int} parsers in sequence, and combining their results with the given
+     * function. Unlike {@link #seq(Parser, Parser, BiFunction)}, the values are never boxed.
+     */
+    static <R> Parser<R> seqInt(IntParser pa, IntParser pb, IntBiFunction<? extends R> f) {
+        return ctx -> {
+            int a = pa.parseInt(ctx);
+            int b = pb.parseInt(ctx);
+            return f.apply(a, b);
+        };
+    }
+
+    /**
+     * Creates a parser reading the given parsers in sequence, and combining their results with the given function.
+     * Unlike {@link #seq(Parser, Parser, Parser, Function3)}, the {@code int} values are never boxed.
+     */
+    static <C, R> Parser<R> seqInt(IntParser pa, IntParser pb, Parser<C> pc,
+                                   IntIntObjFunction<? super C, ? extends R> f) {
+        return ctx -> {
+            int a = pa.parseInt(ctx);
+            int b = pb.parseInt(ctx);
+            C c = pc.parse(ctx);
+            return f.apply(a, b, c);
+        };
+    }
+
+    /**
+     * Creates a parser reading the given {@code int} parsers in sequence, and combining their results with the given
+     * function. Unlike {@link #seq(Parser, Parser, Parser, Parser, Parser, Function5)}, the values are never boxed.
+     */
+    static <R> Parser<R> seqInt(IntParser pa, IntParser pb, IntParser pc, IntParser pd, IntParser pe,
+                                IntFunction5<? extends R> f) {
+        return ctx -> {
+            int a = pa.parseInt(ctx);
+            int b = pb.parseInt(ctx);
+            int c = pc.parseInt(ctx);
+            int d = pd.parseInt(ctx);
+            int e = pe.parseInt(ctx);
+            return f.apply(a, b, c, d, e);
+        };
+    }
+
+    /**
+     * Creates a parser reading the given {@code double} parsers in sequence, and combining their results with the
+     * given function. Unlike {@link #seq(Parser, Parser, BiFunction)}, the values are never boxed.
+     */
+    static <R> Parser<R> seqDouble(DoubleParser pa, DoubleParser pb, DoubleBiFunction<? extends R> f) {
+        return ctx -> {
+            double a = pa.parseDouble(ctx);
+            double b = pb.parseDouble(ctx);
+            return f.apply(a, b);
+        };
+    }
 
     default Parser<List<A>> repeat(Integer n) {
-        return ctx -> IntStream.range(0, n).mapToObj(m -> this.parse(ctx)).collect(Collectors.toList());
+        return ctx -> {
+            List<A> elements = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                elements.add(parse(ctx));
+            }
+            return elements;
+        };
     }
 
     default Parser<A[]> repeat(Integer n, A[] as) {
         return repeat(n).map(l -> l.toArray(as));
     }
 
+    /**
+     * Creates a parser reading n elements with this parser, directly into an array created with the given function.
+     */
+    default Parser<A[]> repeat(int n, IntFunction<A[]> newArray) {
+        return ctx -> {
+            A[] elements = newArray.apply(n);
+            for (int i = 0; i < n; i++) {
+                elements[i] = parse(ctx);
+            }
+            return elements;
+        };
+    }
+
+    /**
+     * Creates a parser identical to this one, which records its measurements under the given name when parse metrics
+     * are enabled (see {@link org.hildan.hashcode.utils.parser.metrics.ParseMetrics ParseMetrics}). When metrics are
+     * disabled, the only overhead is a null check.
+     */
+    default Parser<A> named(String name) {
+        return ctx -> ctx.measure(name, this);
+    }
+
+    default Parser<List<A>> repeatParallel(int n, int linesPerRecord) {
+        return repeatParallel(n, linesPerRecord, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a parser reading n records with this parser, in parallel on the given pool. The next {@code n *
+     * linesPerRecord} lines are split into chunks, which are parsed independently and concatenated in order.
+     * <p>
+     * Each record must span exactly {@code linesPerRecord} lines, and the records must not depend on each other, nor
+     * modify the context variables. Errors are still reported with the line numbers of the whole input.
+     */
+    default Parser<List<A>> repeatParallel(int n, int linesPerRecord, ForkJoinPool pool) {
+        return ctx -> ParallelRepeat.parse(this, ctx, n, linesPerRecord, pool);
+    }
+
+    /**
+     * Creates a parser that does not read anything immediately, but returns a single-pass iterator reading n elements
+     * with this parser on demand. Such lazy section must be the last part of the input read by the root parser.
+     * <p>
+     * The end of the input is only checked (and the reader closed) once the iterator is drained. If an element fails
+     * to be parsed, the reader is closed without checking the end of the input.
+     */
+    default Parser<Iterator<A>> iterate(int n) {
+        return ctx -> new LazyRepeat<>(this, ctx, n);
+    }
+
+    /**
+     * Creates a parser that does not read anything immediately, but returns a single-pass sequential stream reading n
+     * elements with this parser on demand. Such lazy section must be the last part of the input read by the root
+     * parser.
+     * <p>
+     * The end of the input is only checked (and the reader closed) once the stream is drained, or when it is closed.
+     */
+    default Parser<Stream<A>> stream(int n) {
+        return ctx -> {
+            LazyRepeat<A> iterator = new LazyRepeat<>(this, ctx, n);
+            Spliterator<A> spliterator = Spliterators.spliterator(iterator, n, Spliterator.ORDERED);
+            return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+        };
+    }
+
+    /**
+     * Creates a parser reading n records of numeric fields into {@link Columns}, one primitive array per field. Each
+     * record consists of one token per field, in the order of the given types.
+     */
+    static Parser<Columns> columns(int n, Columns.Type... types) {
+        return ctx -> Columns.read(ctx, n, types);
+    }
+
+    /**
+     * Creates a parser reading n records of {@code width} int fields into {@link Columns}.
+     */
+    static Parser<Columns> intColumns(int n, int width) {
+        Columns.Type[] types = new Columns.Type[width];
+        Arrays.fill(types, Columns.Type.INT);
+        return ctx -> Columns.read(ctx, n, types);
+    }
+
+    /**
+     * Creates a parser reading a table of ints of the given dimensions into off-heap memory.
+     */
+    static Parser<IntTable> intTable(long rows, int cols) {
+        return ctx -> ctx.readIntTable(rows, cols);
+    }
+
+    /**
+     * Creates a parser reading a table of longs of the given dimensions into off-heap memory.
+     */
+    static Parser<LongTable> longTable(long rows, int cols) {
+        return ctx -> ctx.readLongTable(rows, cols);
+    }
+
+    /**
+     * Creates a parser reading a table of doubles of the given dimensions into off-heap memory.
+     */
+    static Parser<DoubleTable> doubleTable(long rows, int cols) {
+        return ctx -> ctx.readDoubleTable(rows, cols);
+    }
+
     static Parser<int[]> mapToIntArray(Parser<List<Integer>> p) {
         return p.map(l -> l.stream().mapToInt(x -> x).toArray());
     }
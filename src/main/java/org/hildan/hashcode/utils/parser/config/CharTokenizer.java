@@ -0,0 +1,84 @@
+package org.hildan.hashcode.utils.parser.config;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Tokenizer} that splits lines on any of a given set of ASCII characters, without using regular
+ * expressions.
+ * <p>
+ * Because its separators are plain ASCII characters, this tokenizer also allows byte-level scanners to split the
+ * input without decoding it into strings first.
+ */
+public final class CharTokenizer implements Tokenizer {
+
+    static final int ASCII_SIZE = 128;
+
+    private static final String REGEX_META_CHARS = ".$|()[]{}^?*+\\";
+
+    private static final String[] NO_TOKENS = new String[0];
+
+    static final CharTokenizer WHITESPACE = new CharTokenizer(" \t\n\u000B\f\r");
+
+    private final boolean[] separators = new boolean[ASCII_SIZE];
+
+    /**
+     * Creates a new {@code CharTokenizer} splitting lines on any of the given characters.
+     *
+     * @param separatorChars
+     *         the characters that separate tokens, which must all be ASCII characters
+     *
+     * @throws IllegalArgumentException
+     *         if one of the given characters is not an ASCII character
+     */
+    public CharTokenizer(@NotNull String separatorChars) {
+        for (int i = 0; i < separatorChars.length(); i++) {
+            char c = separatorChars.charAt(i);
+            if (c >= ASCII_SIZE) {
+                throw new IllegalArgumentException("Only ASCII separators are supported, got '" + c + "'");
+            }
+            separators[c] = true;
+        }
+    }
+
+    static boolean isRegexMetaChar(char c) {
+        return REGEX_META_CHARS.indexOf(c) >= 0;
+    }
+
+    /**
+     * Returns whether the given character is a separator for this tokenizer. Non-ASCII characters are never
+     * separators.
+     *
+     * @param c
+     *         the character to test
+     *
+     * @return true if the given character separates tokens
+     */
+    public boolean isSeparator(int c) {
+        return c >= 0 && c < ASCII_SIZE && separators[c];
+    }
+
+    @NotNull
+    @Override
+    public String[] tokenize(@NotNull String line) {
+        if (line.isEmpty()) {
+            return NO_TOKENS;
+        }
+        int nTokens = 1;
+        for (int i = 0; i < line.length(); i++) {
+            if (isSeparator(line.charAt(i))) {
+                nTokens++;
+            }
+        }
+        String[] tokens = new String[nTokens];
+        int tokenStart = 0;
+        int t = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (isSeparator(line.charAt(i))) {
+                tokens[t++] = line.substring(tokenStart, i);
+                tokenStart = i + 1;
+            }
+        }
+        tokens[t] = line.substring(tokenStart);
+        return tokens;
+    }
+}
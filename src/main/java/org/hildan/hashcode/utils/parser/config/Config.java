@@ -1,6 +1,12 @@
 package org.hildan.hashcode.utils.parser.config;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.hildan.hashcode.utils.parser.metrics.ParseMetrics;
 import org.intellij.lang.annotations.RegExp;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Encapsulates the configuration that defines the readers' behaviour.
@@ -10,34 +16,179 @@ public class Config {
     @RegExp
     private static final String DEFAULT_SEPARATOR = "\\s";
 
+    private final Tokenizer tokenizer;
+
     @RegExp
     private final String separator;
 
+    private final EndOfInputCheck endOfInputCheck;
+
+    private final boolean prefetching;
+
+    private final Charset charset;
+
+    private final ParseMetrics metrics;
+
     /**
-     * Creates a new config with the default separator {@value #DEFAULT_SEPARATOR}.
+     * Creates a new config splitting lines on whitespace characters (see {@link Tokenizer#whitespace()}).
      */
     public Config() {
-        this.separator = DEFAULT_SEPARATOR;
+        this(Tokenizer.whitespace(), DEFAULT_SEPARATOR);
     }
 
     /**
-     * Creates a new config with the given separator.
+     * Creates a new config with the given separator. Common separators such as {@code \s} or single characters are
+     * handled without regular expressions (see {@link Tokenizer#fromSeparator(String)}).
      *
      * @param separator
-     *         the separator between elements in an input line
+     *         the separator between elements in an input line, as a regular expression
      */
     public Config(@RegExp String separator) {
+        this(Tokenizer.fromSeparator(separator), separator);
+    }
+
+    /**
+     * Creates a new config with the given tokenizer.
+     *
+     * @param tokenizer
+     *         the tokenizer defining how to split an input line into elements
+     */
+    public Config(@NotNull Tokenizer tokenizer) {
+        this(tokenizer, null);
+    }
+
+    private Config(@NotNull Tokenizer tokenizer, @Nullable String separator) {
+        this(tokenizer, separator, EndOfInputCheck.STRICT, false, StandardCharsets.UTF_8, null);
+    }
+
+    private Config(@NotNull Tokenizer tokenizer, @Nullable String separator, @NotNull EndOfInputCheck endOfInputCheck,
+                   boolean prefetching, @NotNull Charset charset, @Nullable ParseMetrics metrics) {
+        this.tokenizer = tokenizer;
         this.separator = separator;
+        this.endOfInputCheck = endOfInputCheck;
+        this.prefetching = prefetching;
+        this.charset = charset;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the tokenizer used to split a single line of the input into elements.
+     *
+     * @return the tokenizer to use on each input line
+     */
+    @NotNull
+    public Tokenizer getTokenizer() {
+        return tokenizer;
     }
 
     /**
      * Gets the separator between values within a single line of the input. The value is a regular expression, so that
      * it can directly be used in {@link String#split(String)} for instance.
      *
-     * @return the separator as a regular expression
+     * @return the separator as a regular expression, or null if this config was created with a custom tokenizer
+     * @deprecated
+     *         lines are split by the {@link #getTokenizer() tokenizer} of this config, use it instead
      */
+    @Deprecated
+    @Nullable
     @RegExp
     public String getSeparator() {
         return separator;
     }
+
+    /**
+     * Gets how the end of the input is verified once the parsing is over.
+     *
+     * @return the verification to perform on the end of the input
+     */
+    @NotNull
+    public EndOfInputCheck getEndOfInputCheck() {
+        return endOfInputCheck;
+    }
+
+    /**
+     * Creates a copy of this config using the given verification of the end of the input. Relaxing this check is
+     * useful when only a prefix of a big input is actually parsed.
+     *
+     * @param endOfInputCheck
+     *         the verification to perform on the end of the input
+     *
+     * @return a new config with the given end-of-input verification
+     */
+    @NotNull
+    public Config withEndOfInputCheck(@NotNull EndOfInputCheck endOfInputCheck) {
+        return new Config(tokenizer, separator, endOfInputCheck, prefetching, charset, metrics);
+    }
+
+    /**
+     * Gets whether readers are read ahead on a dedicated I/O thread.
+     *
+     * @return true if the input is prefetched
+     */
+    public boolean isPrefetching() {
+        return prefetching;
+    }
+
+    /**
+     * Creates a copy of this config enabling or disabling input prefetching. When enabled, the input readers are
+     * wrapped in a {@link org.hildan.hashcode.utils.parser.context.PrefetchingReader PrefetchingReader}, so that
+     * reading and decoding the input overlaps with parsing. This is mostly useful for slow storage. Memory-mapped
+     * files are not affected.
+     *
+     * @param prefetching
+     *         true to read the input ahead on a dedicated I/O thread
+     *
+     * @return a new config with the given prefetching setting
+     */
+    @NotNull
+    public Config withPrefetching(boolean prefetching) {
+        return new Config(tokenizer, separator, endOfInputCheck, prefetching, charset, metrics);
+    }
+
+    /**
+     * Gets the charset used to decode input files. Defaults to UTF-8, regardless of the platform's default charset.
+     *
+     * @return the charset of the input files
+     */
+    @NotNull
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Creates a copy of this config decoding input files with the given charset.
+     *
+     * @param charset
+     *         the charset of the input files
+     *
+     * @return a new config with the given charset
+     */
+    @NotNull
+    public Config withCharset(@NotNull Charset charset) {
+        return new Config(tokenizer, separator, endOfInputCheck, prefetching, charset, metrics);
+    }
+
+    /**
+     * Gets the metrics collecting measurements of the named parsers.
+     *
+     * @return the metrics to record measurements into, or null if metrics are disabled
+     */
+    @Nullable
+    public ParseMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Creates a copy of this config recording measurements of the named parsers (see
+     * {@link org.hildan.hashcode.utils.parser.Parser#named(String) Parser.named()}) into the given metrics.
+     *
+     * @param metrics
+     *         the metrics to record measurements into, or null to disable metrics
+     *
+     * @return a new config with the given metrics
+     */
+    @NotNull
+    public Config withMetrics(@Nullable ParseMetrics metrics) {
+        return new Config(tokenizer, separator, endOfInputCheck, prefetching, charset, metrics);
+    }
 }
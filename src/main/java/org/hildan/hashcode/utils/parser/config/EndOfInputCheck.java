@@ -0,0 +1,24 @@
+package org.hildan.hashcode.utils.parser.config;
+
+/**
+ * Defines how thoroughly the end of the input is verified when the parsing is over.
+ */
+public enum EndOfInputCheck {
+
+    /**
+     * The whole remaining input is read, and the number of non-blank lines left is reported if any. This is the
+     * default.
+     */
+    STRICT,
+
+    /**
+     * The remaining input is only read up to the first non-whitespace character, if any. The error then does not
+     * report the number of lines left, but the rest of the input is never read.
+     */
+    CHEAP,
+
+    /**
+     * The remaining input is not verified at all.
+     */
+    OFF
+}
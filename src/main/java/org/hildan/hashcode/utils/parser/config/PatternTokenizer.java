@@ -0,0 +1,28 @@
+package org.hildan.hashcode.utils.parser.config;
+
+import java.util.regex.Pattern;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Tokenizer} that splits lines on a precompiled regular expression.
+ */
+class PatternTokenizer implements Tokenizer {
+
+    private static final String[] NO_TOKENS = new String[0];
+
+    private final Pattern separator;
+
+    PatternTokenizer(Pattern separator) {
+        this.separator = separator;
+    }
+
+    @NotNull
+    @Override
+    public String[] tokenize(@NotNull String line) {
+        if (line.isEmpty()) {
+            return NO_TOKENS;
+        }
+        return separator.split(line, -1);
+    }
+}
@@ -0,0 +1,92 @@
+package org.hildan.hashcode.utils.parser.config;
+
+import java.util.regex.Pattern;
+
+import org.intellij.lang.annotations.RegExp;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@code Tokenizer} defines how a single line of input is split into tokens.
+ * <p>
+ * This interface can be implemented to plug in a custom splitting strategy, but the built-in implementations should
+ * cover most cases: {@link #whitespace()} and {@link #singleChar(char)} split lines without any regular expression,
+ * and {@link #regex(String)} handles arbitrary separators with a pattern compiled once.
+ */
+@FunctionalInterface
+public interface Tokenizer {
+
+    /**
+     * Splits the given line into tokens. Like {@link String#split(String, int) String.split(separator, -1)}, 2
+     * consecutive separators yield an empty token, and so do leading and trailing separators. An empty line yields
+     * no tokens at all.
+     *
+     * @param line
+     *         the line to split, without line terminator
+     *
+     * @return the tokens of the given line
+     */
+    @NotNull
+    String[] tokenize(@NotNull String line);
+
+    /**
+     * Gets a tokenizer that splits lines on any single ASCII whitespace character. This is equivalent to the regex
+     * {@code \s}, but does not involve any regular expression.
+     *
+     * @return a tokenizer splitting lines on whitespace characters
+     */
+    static CharTokenizer whitespace() {
+        return CharTokenizer.WHITESPACE;
+    }
+
+    /**
+     * Gets a tokenizer that splits lines on the given separator character.
+     *
+     * @param separator
+     *         the character separating tokens within a line
+     *
+     * @return a tokenizer splitting lines on the given character
+     */
+    static Tokenizer singleChar(char separator) {
+        if (separator < CharTokenizer.ASCII_SIZE) {
+            return new CharTokenizer(String.valueOf(separator));
+        }
+        return regex(Pattern.quote(String.valueOf(separator)));
+    }
+
+    /**
+     * Gets a tokenizer that splits lines on the given regular expression. The pattern is compiled once, when calling
+     * this method.
+     *
+     * @param separator
+     *         a regular expression matching the separators between tokens within a line
+     *
+     * @return a tokenizer splitting lines on the given regex
+     */
+    static Tokenizer regex(@RegExp String separator) {
+        return new PatternTokenizer(Pattern.compile(separator));
+    }
+
+    /**
+     * Gets the most efficient tokenizer that splits lines on the given regular expression. The whitespace class
+     * {@code \s} and single (possibly escaped) characters are handled without regular expressions, while other
+     * separators fall back to {@link #regex(String)}.
+     *
+     * @param separator
+     *         a regular expression matching the separators between tokens within a line
+     *
+     * @return a tokenizer splitting lines on the given regex
+     */
+    static Tokenizer fromSeparator(@RegExp String separator) {
+        if ("\\s".equals(separator)) {
+            return whitespace();
+        }
+        if (separator.length() == 1 && !CharTokenizer.isRegexMetaChar(separator.charAt(0))) {
+            return singleChar(separator.charAt(0));
+        }
+        boolean escapedChar = separator.length() == 2 && separator.charAt(0) == '\\';
+        if (escapedChar && CharTokenizer.isRegexMetaChar(separator.charAt(1))) {
+            return singleChar(separator.charAt(1));
+        }
+        return regex(separator);
+    }
+}
@@ -1,22 +1,53 @@
 package org.hildan.hashcode.utils.parser.context;
 
 import java.io.Reader;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.stream.IntStream;
+import java.util.function.Function;
 
 import org.hildan.hashcode.utils.parser.InputParsingException;
 import org.hildan.hashcode.utils.parser.config.Config;
+import org.hildan.hashcode.utils.parser.config.EndOfInputCheck;
+import org.hildan.hashcode.utils.parser.metrics.ParseMetrics;
+import org.hildan.hashcode.utils.parser.offheap.DoubleTable;
+import org.hildan.hashcode.utils.parser.offheap.IntTable;
+import org.hildan.hashcode.utils.parser.offheap.LongTable;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents the current parsing context. It provides methods to access the input data and the context variables.
  */
 public class Context {
 
+    private static final int TABLE_READ_BUFFER_SIZE = 4096;
+
+    private static final int[] NO_INT_VALUES = new int[0];
+
+    private static final boolean[] NO_INT_FLAGS = new boolean[0];
+
     private final Map<String, String> variables;
 
-    private final LineNumberScanner scanner;
+    private int[] intValues = NO_INT_VALUES;
+
+    private boolean[] intDefined = NO_INT_FLAGS;
+
+    private final InputScanner scanner;
+
+    private final EndOfInputCheck endOfInputCheck;
+
+    @Nullable
+    private final ParseMetrics metrics;
+
+    @Nullable
+    private final CountingScanner counter;
+
+    private int pendingLazySections;
+
+    private boolean closeRequested;
+
+    private boolean aborted;
 
     /**
      * Creates a new parsing context using the given {@link Reader} to access the input.
@@ -27,12 +58,43 @@ public class Context {
      *         the config defining how the parser should behave
      */
     public Context(Reader reader, Config config) {
+        this(new LineNumberScanner(config.isPrefetching() ? new PrefetchingReader(reader) : reader,
+                config.getTokenizer()), config);
+    }
+
+    /**
+     * Creates a new parsing context using the given {@link InputScanner} to access the input.
+     *
+     * @param scanner
+     *         the scanner to use to read the input
+     */
+    public Context(InputScanner scanner) {
+        this(scanner, EndOfInputCheck.STRICT, null);
+    }
+
+    /**
+     * Creates a new parsing context using the given {@link InputScanner} to access the input. The tokenizer of the
+     * given config is ignored, as the scanner already splits the input into tokens.
+     *
+     * @param scanner
+     *         the scanner to use to read the input
+     * @param config
+     *         the config defining how the parser should behave
+     */
+    public Context(InputScanner scanner, Config config) {
+        this(scanner, config.getEndOfInputCheck(), config.getMetrics());
+    }
+
+    private Context(InputScanner scanner, EndOfInputCheck endOfInputCheck, @Nullable ParseMetrics metrics) {
         this.variables = new HashMap<>();
-        this.scanner = new LineNumberScanner(reader, config.getSeparator());
+        this.counter = metrics == null ? null : new CountingScanner(scanner);
+        this.scanner = counter == null ? scanner : counter;
+        this.endOfInputCheck = endOfInputCheck;
+        this.metrics = metrics;
     }
 
     /**
-     * Skips the next n tokens of input.
+     * Skips the next n tokens of input. This is equivalent to {@link #skipTokens(int)}.
      *
      * @param n
      *         the number of tokens to skip (0 makes this method a noop)
@@ -43,10 +105,46 @@ public class Context {
      *         if an error occurs while reading the input
      */
     public void skip(int n) throws InputParsingException {
+        skipTokens(n);
+    }
+
+    /**
+     * Skips the next n tokens of input, without creating any string when the underlying scanner supports it. The
+     * skipped tokens may span multiple lines, and line numbers are still counted correctly.
+     *
+     * @param n
+     *         the number of tokens to skip (0 makes this method a noop)
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if an error occurs while reading the input
+     */
+    public void skipTokens(int n) throws InputParsingException {
         if (n < 0) {
             throw new IllegalArgumentException("The number of elements to skip cannot be negative");
         }
-        IntStream.range(0, n).forEach(i -> scanner.nextString());
+        scanner.skipTokens(n);
+    }
+
+    /**
+     * Skips the next n lines of input, without tokenizing them. The current line must have been completely consumed.
+     *
+     * @param n
+     *         the number of lines to skip (0 makes this method a noop)
+     *
+     * @throws IncompleteLineReadException
+     *         if the current line was not completely consumed
+     * @throws NoMoreLinesToReadException
+     *         if there are fewer than {@code n} lines left to read
+     * @throws InputParsingException
+     *         if an error occurs while reading the input
+     */
+    public void skipLines(int n) throws InputParsingException {
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of lines to skip cannot be negative");
+        }
+        scanner.skipLines(n);
     }
 
     /**
@@ -78,6 +176,20 @@ public class Context {
         return scanner.nextInt();
     }
 
+    /**
+     * Scans the next token of the input as a long.
+     *
+     * @return the long scanned from the input
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as a long, or if an IO error occurs
+     */
+    public long readLong() throws InputParsingException {
+        return scanner.nextLong();
+    }
+
     /**
      * Scans the next token of the input as a double.
      *
@@ -92,6 +204,248 @@ public class Context {
         return scanner.nextDouble();
     }
 
+    /**
+     * Scans the next n tokens of the input as ints.
+     *
+     * @param n
+     *         the number of values to read
+     *
+     * @return a new array containing the n ints scanned from the input
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as ints, or if an IO error occurs
+     */
+    public int[] readIntArray(int n) throws InputParsingException {
+        int[] values = new int[checkedLength(n)];
+        scanner.nextInts(values, 0, n);
+        return values;
+    }
+
+    /**
+     * Scans the next n tokens of the input as longs.
+     *
+     * @param n
+     *         the number of values to read
+     *
+     * @return a new array containing the n longs scanned from the input
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as longs, or if an IO error occurs
+     */
+    public long[] readLongArray(int n) throws InputParsingException {
+        long[] values = new long[checkedLength(n)];
+        scanner.nextLongs(values, 0, n);
+        return values;
+    }
+
+    /**
+     * Scans the next n tokens of the input as doubles.
+     *
+     * @param n
+     *         the number of values to read
+     *
+     * @return a new array containing the n doubles scanned from the input
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as doubles, or if an IO error occurs
+     */
+    public double[] readDoubleArray(int n) throws InputParsingException {
+        double[] values = new double[checkedLength(n)];
+        scanner.nextDoubles(values, 0, n);
+        return values;
+    }
+
+    /**
+     * Scans the next {@code rows * cols} tokens of the input as ints, row by row.
+     *
+     * @param rows
+     *         the number of rows to read
+     * @param cols
+     *         the number of values in each row
+     *
+     * @return a new matrix of ints, indexed by row first
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as ints, or if an IO error occurs
+     */
+    public int[][] readIntMatrix(int rows, int cols) throws InputParsingException {
+        int[][] matrix = new int[checkedLength(rows)][checkedLength(cols)];
+        for (int[] row : matrix) {
+            scanner.nextInts(row, 0, cols);
+        }
+        return matrix;
+    }
+
+    /**
+     * Scans the next {@code length} tokens of the input as ints, and stores them in the given array.
+     *
+     * @param dst
+     *         the array to store the values into
+     * @param offset
+     *         the index in the array of the first value to store
+     * @param length
+     *         the number of values to read
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the given offset and length do not fit in the given array
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as ints, or if an IO error occurs
+     */
+    public void readInto(int[] dst, int offset, int length) throws InputParsingException {
+        checkBounds(dst.length, offset, length);
+        scanner.nextInts(dst, offset, length);
+    }
+
+    /**
+     * Scans the next {@code length} tokens of the input as longs, and stores them in the given array.
+     *
+     * @param dst
+     *         the array to store the values into
+     * @param offset
+     *         the index in the array of the first value to store
+     * @param length
+     *         the number of values to read
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the given offset and length do not fit in the given array
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as longs, or if an IO error occurs
+     */
+    public void readInto(long[] dst, int offset, int length) throws InputParsingException {
+        checkBounds(dst.length, offset, length);
+        scanner.nextLongs(dst, offset, length);
+    }
+
+    /**
+     * Scans the next {@code length} tokens of the input as doubles, and stores them in the given array.
+     *
+     * @param dst
+     *         the array to store the values into
+     * @param offset
+     *         the index in the array of the first value to store
+     * @param length
+     *         the number of values to read
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the given offset and length do not fit in the given array
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as doubles, or if an IO error occurs
+     */
+    public void readInto(double[] dst, int offset, int length) throws InputParsingException {
+        checkBounds(dst.length, offset, length);
+        scanner.nextDoubles(dst, offset, length);
+    }
+
+    /**
+     * Reads a table of ints of the given dimensions, stored off-heap. The elements are read row by row.
+     *
+     * @param rows
+     *         the number of rows to read
+     * @param cols
+     *         the number of elements in each row
+     *
+     * @return the table of ints that were read
+     * @throws IllegalArgumentException
+     *         if one of the dimensions is negative
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as ints
+     */
+    public IntTable readIntTable(long rows, int cols) throws InputParsingException {
+        IntTable table = new IntTable(rows, cols);
+        int[] buffer = new int[(int) Math.min(table.size(), TABLE_READ_BUFFER_SIZE)];
+        for (long index = 0; index < table.size(); index += buffer.length) {
+            int n = (int) Math.min(buffer.length, table.size() - index);
+            scanner.nextInts(buffer, 0, n);
+            table.set(index, buffer, 0, n);
+        }
+        return table;
+    }
+
+    /**
+     * Reads a table of longs of the given dimensions, stored off-heap. The elements are read row by row.
+     *
+     * @param rows
+     *         the number of rows to read
+     * @param cols
+     *         the number of elements in each row
+     *
+     * @return the table of longs that were read
+     * @throws IllegalArgumentException
+     *         if one of the dimensions is negative
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as longs
+     */
+    public LongTable readLongTable(long rows, int cols) throws InputParsingException {
+        LongTable table = new LongTable(rows, cols);
+        long[] buffer = new long[(int) Math.min(table.size(), TABLE_READ_BUFFER_SIZE)];
+        for (long index = 0; index < table.size(); index += buffer.length) {
+            int n = (int) Math.min(buffer.length, table.size() - index);
+            scanner.nextLongs(buffer, 0, n);
+            table.set(index, buffer, 0, n);
+        }
+        return table;
+    }
+
+    /**
+     * Reads a table of doubles of the given dimensions, stored off-heap. The elements are read row by row.
+     *
+     * @param rows
+     *         the number of rows to read
+     * @param cols
+     *         the number of elements in each row
+     *
+     * @return the table of doubles that were read
+     * @throws IllegalArgumentException
+     *         if one of the dimensions is negative
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as doubles
+     */
+    public DoubleTable readDoubleTable(long rows, int cols) throws InputParsingException {
+        DoubleTable table = new DoubleTable(rows, cols);
+        double[] buffer = new double[(int) Math.min(table.size(), TABLE_READ_BUFFER_SIZE)];
+        for (long index = 0; index < table.size(); index += buffer.length) {
+            int n = (int) Math.min(buffer.length, table.size() - index);
+            scanner.nextDoubles(buffer, 0, n);
+            table.set(index, buffer, 0, n);
+        }
+        return table;
+    }
+
+    private static int checkedLength(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of elements to read cannot be negative");
+        }
+        return n;
+    }
+
+    private static void checkBounds(int arrayLength, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Cannot read %d elements at offset %d in an array of size %d", length, offset,
+                            arrayLength));
+        }
+    }
+
     /**
      * Reads and returns the next line of input as an array of string tokens.
      *
@@ -128,14 +482,148 @@ public class Context {
         return value;
     }
 
+    /**
+     * Scans the next token of the input as an int and stores the value into the given variable.
+     *
+     * @param var
+     *         the variable to write
+     *
+     * @return the int scanned from the input
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as an int
+     */
+    public int readIntoVariable(IntVar var) throws InputParsingException {
+        int value = scanner.nextInt();
+        set(var, value);
+        return value;
+    }
+
+    /**
+     * Consumes the next {@code nLines} lines of input, and returns a new independent context reading exactly these
+     * lines. The new context starts with a copy of the variables of this context, and reports errors with the line
+     * numbers of the whole input. It can be used from another thread.
+     *
+     * @param nLines
+     *         the number of lines to detach from this context
+     *
+     * @return a new context reading the detached lines
+     *
+     * @throws IncompleteLineReadException
+     *         if the current line was not completely consumed
+     * @throws NoMoreLinesToReadException
+     *         if there are fewer than {@code nLines} lines left to read
+     * @throws InputParsingException
+     *         if an error occurs while reading the input
+     */
+    public Context detachLines(int nLines) throws InputParsingException {
+        // detached contexts keep the strict check, which ensures records span the expected number of lines
+        Context detached = new Context(scanner.detachLines(checkedLength(nLines)), EndOfInputCheck.STRICT, metrics);
+        detached.variables.putAll(variables);
+        detached.intValues = intValues.clone();
+        detached.intDefined = intDefined.clone();
+        return detached;
+    }
+
+    /**
+     * Runs the given parser on this context, and records its measurements under the given name if metrics are
+     * enabled (see {@link Config#withMetrics(ParseMetrics)}). When metrics are disabled, this simply runs the parser.
+     *
+     * @param name
+     *         the name to record the measurements under
+     * @param parser
+     *         the parser to run
+     * @param <A>
+     *         the type of value returned by the parser
+     *
+     * @return the value returned by the parser
+     */
+    public <A> A measure(@NotNull String name, @NotNull Function<Context, A> parser) {
+        if (metrics == null) {
+            return parser.apply(this);
+        }
+        int startLine = scanner.getLineNumber();
+        long startTokens = counter.getTokenCount();
+        long startPosition = scanner.getInputPosition();
+        long startAllocated = ParseMetrics.currentThreadAllocatedBytes();
+        long startTime = System.nanoTime();
+        try {
+            return parser.apply(this);
+        } finally {
+            long nanos = System.nanoTime() - startTime;
+            long allocated = startAllocated < 0 ? -1 : ParseMetrics.currentThreadAllocatedBytes() - startAllocated;
+            long bytes = startPosition < 0 ? -1 : scanner.getInputPosition() - startPosition;
+            metrics.record(name, scanner.getLineNumber() - startLine, counter.getTokenCount() - startTokens, bytes,
+                    nanos, allocated);
+        }
+    }
+
     /**
      * Releases potential resources used by the reader. Should be called when parsing is over.
+     * <p>
+     * If some sections of the input are still pending to be read lazily (see {@link #acquireLazySection()}), closing
+     * the reader is deferred until the last of them is released.
      *
      * @throws IncompleteInputReadException
-     *         if there is still some input left to read
+     *         if there is still some input left to read, as verified by the {@link EndOfInputCheck} of the config
      */
     public void closeReader() {
-        scanner.close();
+        if (aborted) {
+            return; // the reader is already closed
+        }
+        if (pendingLazySections > 0) {
+            closeRequested = true;
+            return;
+        }
+        scanner.close(endOfInputCheck);
+    }
+
+    /**
+     * Releases potential resources used by the reader after a parsing failure. The end of the input is not checked,
+     * and pending lazy sections are not waited for.
+     */
+    public void abortReader() {
+        if (aborted) {
+            return;
+        }
+        aborted = true;
+        pendingLazySections = 0;
+        closeRequested = false;
+        scanner.close(EndOfInputCheck.OFF);
+    }
+
+    /**
+     * Declares that a section of the input is going to be read lazily, possibly after the root parser has returned.
+     * Until the section is released via {@link #releaseLazySection()}, {@link #closeReader()} does not actually close
+     * the reader.
+     */
+    public void acquireLazySection() {
+        pendingLazySections++;
+    }
+
+    /**
+     * Declares that a section previously acquired via {@link #acquireLazySection()} has been read completely. If
+     * {@link #closeReader()} was called in the meantime, and no other lazy section is pending, the reader is closed.
+     *
+     * @throws IllegalStateException
+     *         if no lazy section is pending
+     * @throws IncompleteInputReadException
+     *         if the reader is closed and there is still some input left to read
+     */
+    public void releaseLazySection() {
+        if (aborted) {
+            return; // the reader is already closed
+        }
+        if (pendingLazySections <= 0) {
+            throw new IllegalStateException("No lazy section to release");
+        }
+        pendingLazySections--;
+        if (pendingLazySections == 0 && closeRequested) {
+            closeRequested = false;
+            scanner.close(endOfInputCheck);
+        }
     }
 
     /**
@@ -165,10 +653,14 @@ public class Context {
      */
     public String getVariable(String key) throws UndefinedVariableException {
         String value = variables.get(key);
-        if (value == null) {
-            throw new UndefinedVariableException(key);
+        if (value != null) {
+            return value;
         }
-        return value;
+        IntVar var = IntVar.find(key);
+        if (var != null && isDefined(var)) {
+            return String.valueOf(intValues[var.getIndex()]);
+        }
+        throw new UndefinedVariableException(key);
     }
 
     /**
@@ -185,7 +677,14 @@ public class Context {
      *         if the variable value cannot be converted to an int
      */
     public int getVariableAsInt(String key) throws InputParsingException {
-        String size = getVariable(key);
+        IntVar var = IntVar.find(key);
+        if (var != null) {
+            return get(var);
+        }
+        return parseIntVariable(key, getVariable(key));
+    }
+
+    private static int parseIntVariable(String key, String size) throws InputParsingException {
         try {
             return Integer.parseInt(size);
         } catch (NumberFormatException e) {
@@ -203,5 +702,79 @@ public class Context {
      */
     public void setVariable(String key, String value) {
         variables.put(key, value);
+        IntVar var = IntVar.find(key);
+        if (var != null && var.getIndex() < intDefined.length) {
+            intDefined[var.getIndex()] = false;
+        }
+    }
+
+    /**
+     * Gets the handle of the int variable with the given name. Handles are meant to be resolved once, and then used
+     * for every access via {@link #get(IntVar)} and {@link #set(IntVar, int)}, which do not involve any hashing nor
+     * parsing.
+     *
+     * @param name
+     *         the name of the variable
+     *
+     * @return the handle of the variable with the given name
+     */
+    public IntVar intVar(String name) {
+        return IntVar.of(name);
+    }
+
+    /**
+     * Gets the value of the given int variable. If the variable was set as a string via {@link #setVariable(String,
+     * String)}, it is converted once and then cached as an int.
+     *
+     * @param var
+     *         the variable to access
+     *
+     * @return the value of the given variable
+     *
+     * @throws UndefinedVariableException
+     *         if the variable has not been set
+     * @throws InputParsingException
+     *         if the variable was set as a string that cannot be converted to an int
+     */
+    public int get(IntVar var) throws InputParsingException {
+        int index = var.getIndex();
+        if (index < intDefined.length && intDefined[index]) {
+            return intValues[index];
+        }
+        String value = variables.get(var.getName());
+        if (value == null) {
+            throw new UndefinedVariableException(var.getName());
+        }
+        int intValue = parseIntVariable(var.getName(), value);
+        // the string value is kept, so that it is still returned as is by getVariable()
+        storeInt(index, intValue);
+        return intValue;
+    }
+
+    /**
+     * Sets the given int variable to the given value. The variable remains accessible by name via the string API.
+     *
+     * @param var
+     *         the variable to create or update
+     * @param value
+     *         the value to set the variable to
+     */
+    public void set(IntVar var, int value) {
+        storeInt(var.getIndex(), value);
+        variables.remove(var.getName());
+    }
+
+    private void storeInt(int index, int value) {
+        if (index >= intDefined.length) {
+            int newLength = Math.max(index + 1, intDefined.length * 2);
+            intValues = Arrays.copyOf(intValues, newLength);
+            intDefined = Arrays.copyOf(intDefined, newLength);
+        }
+        intValues[index] = value;
+        intDefined[index] = true;
+    }
+
+    private boolean isDefined(IntVar var) {
+        return var.getIndex() < intDefined.length && intDefined[var.getIndex()];
     }
 }
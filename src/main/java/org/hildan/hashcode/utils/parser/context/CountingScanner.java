@@ -0,0 +1,122 @@
+package org.hildan.hashcode.utils.parser.context;
+
+import org.hildan.hashcode.utils.parser.InputParsingException;
+import org.hildan.hashcode.utils.parser.config.EndOfInputCheck;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link InputScanner} decorator counting the tokens read from the underlying scanner. It is only installed when
+ * parse metrics are enabled, so that counting costs nothing otherwise.
+ */
+class CountingScanner implements InputScanner {
+
+    private final InputScanner scanner;
+
+    private long tokenCount;
+
+    CountingScanner(InputScanner scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * @return the number of tokens read so far
+     */
+    long getTokenCount() {
+        return tokenCount;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return scanner.getLineNumber();
+    }
+
+    @Nullable
+    @Override
+    public String getCurrentLine() {
+        return scanner.getCurrentLine();
+    }
+
+    @Override
+    public long getInputPosition() {
+        return scanner.getInputPosition();
+    }
+
+    @Override
+    public String nextString() throws InputParsingException {
+        String value = scanner.nextString();
+        tokenCount++;
+        return value;
+    }
+
+    @Override
+    public int nextInt() throws InputParsingException {
+        int value = scanner.nextInt();
+        tokenCount++;
+        return value;
+    }
+
+    @Override
+    public long nextLong() throws InputParsingException {
+        long value = scanner.nextLong();
+        tokenCount++;
+        return value;
+    }
+
+    @Override
+    public double nextDouble() throws InputParsingException {
+        double value = scanner.nextDouble();
+        tokenCount++;
+        return value;
+    }
+
+    @Override
+    public void nextInts(int[] dst, int offset, int length) throws InputParsingException {
+        scanner.nextInts(dst, offset, length);
+        tokenCount += length;
+    }
+
+    @Override
+    public void nextLongs(long[] dst, int offset, int length) throws InputParsingException {
+        scanner.nextLongs(dst, offset, length);
+        tokenCount += length;
+    }
+
+    @Override
+    public void nextDoubles(double[] dst, int offset, int length) throws InputParsingException {
+        scanner.nextDoubles(dst, offset, length);
+        tokenCount += length;
+    }
+
+    @Override
+    public void skipTokens(int n) throws InputParsingException {
+        scanner.skipTokens(n);
+        tokenCount += n;
+    }
+
+    @Override
+    public void skipLines(int n) throws InputParsingException {
+        scanner.skipLines(n);
+    }
+
+    @Override
+    public String nextLine() throws InputParsingException {
+        return scanner.nextLine();
+    }
+
+    @Override
+    public String[] nextLineTokens() throws InputParsingException {
+        String[] tokens = scanner.nextLineTokens();
+        tokenCount += tokens.length;
+        return tokens;
+    }
+
+    @Override
+    public InputScanner detachLines(int nLines) throws InputParsingException {
+        return scanner.detachLines(nLines);
+    }
+
+    @Override
+    public void close(EndOfInputCheck check) throws InputParsingException {
+        scanner.close(check);
+    }
+}
@@ -0,0 +1,199 @@
+package org.hildan.hashcode.utils.parser.context;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Reader} decoding an {@link InputStream} with a fast path for ASCII input. As long as the input is made of
+ * ASCII bytes, chars are obtained by simply widening the bytes, without going through a {@link CharsetDecoder}.
+ * Non-ASCII sequences are decoded by a regular decoder for the charset, so the decoded text is always the same as
+ * with an {@link java.io.InputStreamReader InputStreamReader} (malformed input is replaced, not reported).
+ * <p>
+ * This fast path applies to charsets that encode ASCII characters as single ASCII bytes, such as UTF-8 or
+ * ISO-8859-1. For ISO-8859-1, all bytes are simply widened. Other charsets always go through the decoder.
+ */
+public class FastDecodingReader extends Reader {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream input;
+
+    private final CharsetDecoder decoder;
+
+    private final boolean asciiCompatible;
+
+    private final boolean latin1;
+
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+
+    private int bytesPosition;
+
+    private int bytesLimit;
+
+    private final char[] decodedChars = new char[BUFFER_SIZE];
+
+    private int decodedPosition;
+
+    private int decodedLimit;
+
+    private boolean endOfInput;
+
+    private boolean flushed;
+
+    /**
+     * Creates a new {@code FastDecodingReader} decoding the given stream with the given charset.
+     *
+     * @param input
+     *         the stream to read bytes from
+     * @param charset
+     *         the charset to decode the bytes with
+     */
+    public FastDecodingReader(@NotNull InputStream input, @NotNull Charset charset) {
+        this.input = input;
+        this.decoder = charset.newDecoder()
+                              .onMalformedInput(CodingErrorAction.REPLACE)
+                              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.asciiCompatible = isAsciiCompatible(charset);
+        this.latin1 = StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    /**
+     * Returns whether the given charset encodes ASCII characters as single ASCII bytes, and never uses ASCII bytes
+     * in the encoding of non-ASCII characters. Inputs in such charsets can be tokenized directly at byte level.
+     *
+     * @param charset
+     *         the charset to test
+     *
+     * @return true if the given charset is known to be ASCII-compatible
+     */
+    public static boolean isAsciiCompatible(@NotNull Charset charset) {
+        return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset)
+                || StandardCharsets.ISO_8859_1.equals(charset);
+    }
+
+    @Override
+    public int read(@NotNull char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        while (decodedPosition == decodedLimit) {
+            if (bytesPosition == bytesLimit && !fillBytes()) {
+                if (flushed) {
+                    return -1;
+                }
+                flushDecoder();
+                continue;
+            }
+            if (asciiCompatible) {
+                int n = widen(cbuf, off, len);
+                if (n > 0) {
+                    return n;
+                }
+            }
+            decode();
+        }
+        int n = Math.min(len, decodedLimit - decodedPosition);
+        System.arraycopy(decodedChars, decodedPosition, cbuf, off, n);
+        decodedPosition += n;
+        return n;
+    }
+
+    private int widen(char[] cbuf, int off, int len) {
+        int start = bytesPosition;
+        int end = start + Math.min(len, bytesLimit - start);
+        int i = start;
+        if (latin1) {
+            for (; i < end; i++) {
+                cbuf[off++] = (char) (bytes[i] & 0xFF);
+            }
+        } else {
+            // non-ASCII bytes are negative, and are left to the decoder
+            for (byte b; i < end && (b = bytes[i]) >= 0; i++) {
+                cbuf[off++] = (char) b;
+            }
+        }
+        bytesPosition = i;
+        return i - start;
+    }
+
+    private void decode() throws IOException {
+        if (!asciiCompatible) {
+            decode(bytesLimit, endOfInput);
+            if (decodedLimit == 0 && !endOfInput) {
+                fillBytes();
+            }
+            return;
+        }
+        // only the non-ASCII sequence is decoded, so that the fast path resumes right after it
+        int start = bytesPosition;
+        int end = start;
+        while (end < bytesLimit && bytes[end] < 0) {
+            end++;
+        }
+        decode(end, false);
+        if (bytesPosition > start) {
+            return;
+        }
+        if (end < bytesLimit) {
+            // the sequence is incomplete, including the next ASCII byte makes the decoder replace it
+            decode(end + 1, false);
+        } else if (endOfInput) {
+            decode(end, true);
+        } else {
+            // the sequence may be cut by the end of the buffer
+            fillBytes();
+        }
+    }
+
+    private void decode(int end, boolean endOfInput) {
+        ByteBuffer in = ByteBuffer.wrap(bytes, bytesPosition, end - bytesPosition);
+        CharBuffer out = CharBuffer.wrap(decodedChars);
+        decoder.decode(in, out, endOfInput);
+        bytesPosition = in.position();
+        decodedPosition = 0;
+        decodedLimit = out.position();
+    }
+
+    private boolean fillBytes() throws IOException {
+        if (endOfInput) {
+            return bytesPosition < bytesLimit;
+        }
+        int remaining = bytesLimit - bytesPosition;
+        System.arraycopy(bytes, bytesPosition, bytes, 0, remaining);
+        bytesPosition = 0;
+        bytesLimit = remaining;
+        int n = input.read(bytes, remaining, bytes.length - remaining);
+        if (n < 0) {
+            endOfInput = true;
+        } else {
+            bytesLimit += n;
+        }
+        return bytesPosition < bytesLimit;
+    }
+
+    private void flushDecoder() {
+        // no decoder of the standard charsets holds chars back, this is just to honor the CharsetDecoder contract
+        decode(bytesLimit, true);
+        CharBuffer out = CharBuffer.wrap(decodedChars, decodedLimit, decodedChars.length - decodedLimit);
+        decoder.flush(out);
+        decodedLimit = out.position();
+        flushed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
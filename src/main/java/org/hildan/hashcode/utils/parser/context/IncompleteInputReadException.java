@@ -10,4 +10,8 @@ public class IncompleteInputReadException extends InputParsingException {
     public IncompleteInputReadException(int nbLinesLeft) {
         super(String.format("The end of the input was not consumed, %s lines remaining", nbLinesLeft));
     }
+
+    public IncompleteInputReadException() {
+        super("The end of the input was not consumed");
+    }
 }
@@ -0,0 +1,274 @@
+package org.hildan.hashcode.utils.parser.context;
+
+import java.io.Closeable;
+
+import org.hildan.hashcode.utils.parser.InputParsingException;
+import org.hildan.hashcode.utils.parser.config.EndOfInputCheck;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A source of tokens that is aware of the line numbers and throws exceptions that contain this useful piece of
+ * information. This is the abstraction the {@link Context} reads its input from.
+ */
+public interface InputScanner extends Closeable {
+
+    /**
+     * Gets the line number of the last token read. If no token has been read yet, the line number is 0. Then the
+     * line numbering is 1-based.
+     * <p>
+     * Note that this method does not move the scanner or consume any input.
+     *
+     * @return the line number of the last token seen
+     */
+    int getLineNumber();
+
+    /**
+     * Gets the full line containing the last token read. If no token has been read yet, the current line is null.
+     * Even if the last token read is in the middle of the line, the full line is returned from beginning to end.
+     * <p>
+     * Note that this method does not move the scanner or consume any input.
+     *
+     * @return the current line as a string
+     */
+    @Nullable
+    String getCurrentLine();
+
+    /**
+     * Gets the amount of input consumed so far, in bytes for byte-level scanners, or in chars for scanners reading
+     * chars. This is only meant for measurements, and implementations may only update it line by line.
+     * <p>
+     * Note that this method does not move the scanner or consume any input.
+     *
+     * @return the amount of input consumed so far, or -1 if this scanner does not keep track of it
+     */
+    default long getInputPosition() {
+        return -1;
+    }
+
+    /**
+     * Scans the next token of the input as a string.
+     *
+     * @return the string scanned from the input
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if an error occurs while reading the input
+     */
+    String nextString() throws InputParsingException;
+
+    /**
+     * Scans the next token of the input as an int.
+     *
+     * @return the int scanned from the input
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as an int
+     */
+    int nextInt() throws InputParsingException;
+
+    /**
+     * Scans the next token of the input as a long.
+     *
+     * @return the long scanned from the input
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as a long
+     */
+    long nextLong() throws InputParsingException;
+
+    /**
+     * Scans the next token of the input as a double.
+     *
+     * @return the double scanned from the input
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as a double
+     */
+    double nextDouble() throws InputParsingException;
+
+    /**
+     * Scans the next {@code length} tokens of the input as ints, and stores them in the given array. Implementations
+     * should override this method to read all tokens in a single tight loop.
+     *
+     * @param dst
+     *         the array to store the values into
+     * @param offset
+     *         the index in the array of the first value to store
+     * @param length
+     *         the number of values to read
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as ints
+     */
+    default void nextInts(int[] dst, int offset, int length) throws InputParsingException {
+        for (int i = offset; i < offset + length; i++) {
+            dst[i] = nextInt();
+        }
+    }
+
+    /**
+     * Scans the next {@code length} tokens of the input as longs, and stores them in the given array. Implementations
+     * should override this method to read all tokens in a single tight loop.
+     *
+     * @param dst
+     *         the array to store the values into
+     * @param offset
+     *         the index in the array of the first value to store
+     * @param length
+     *         the number of values to read
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as longs
+     */
+    default void nextLongs(long[] dst, int offset, int length) throws InputParsingException {
+        for (int i = offset; i < offset + length; i++) {
+            dst[i] = nextLong();
+        }
+    }
+
+    /**
+     * Scans the next {@code length} tokens of the input as doubles, and stores them in the given array.
+     * Implementations should override this method to read all tokens in a single tight loop.
+     *
+     * @param dst
+     *         the array to store the values into
+     * @param offset
+     *         the index in the array of the first value to store
+     * @param length
+     *         the number of values to read
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as doubles
+     */
+    default void nextDoubles(double[] dst, int offset, int length) throws InputParsingException {
+        for (int i = offset; i < offset + length; i++) {
+            dst[i] = nextDouble();
+        }
+    }
+
+    /**
+     * Skips the next {@code n} tokens of the input. Implementations should override this method to avoid creating
+     * the skipped tokens.
+     *
+     * @param n
+     *         the number of tokens to skip
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if an error occurs while reading the input
+     */
+    default void skipTokens(int n) throws InputParsingException {
+        for (int i = 0; i < n; i++) {
+            nextString();
+        }
+    }
+
+    /**
+     * Skips the next {@code n} lines of the input. Implementations should override this method to avoid creating
+     * the skipped lines.
+     *
+     * @param n
+     *         the number of lines to skip
+     *
+     * @throws IncompleteLineReadException
+     *         if the current line was not completely consumed
+     * @throws NoMoreLinesToReadException
+     *         if there are fewer than {@code n} lines left to read
+     * @throws InputParsingException
+     *         if an error occurs while reading the input
+     */
+    default void skipLines(int n) throws InputParsingException {
+        for (int i = 0; i < n; i++) {
+            nextLine();
+        }
+    }
+
+    /**
+     * Reads and returns the next line of input.
+     *
+     * @return the next line of input
+     *
+     * @throws IncompleteLineReadException
+     *         if the previous line was not completely consumed
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if an error occurs while reading the input
+     */
+    String nextLine() throws InputParsingException;
+
+    /**
+     * Reads and returns the next line of input as an array of string tokens.
+     *
+     * @return the next line of input
+     *
+     * @throws IncompleteLineReadException
+     *         if the previous line was not completely consumed
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if an error occurs while reading the input
+     */
+    String[] nextLineTokens() throws InputParsingException;
+
+    /**
+     * Consumes the next {@code nLines} lines of input, and returns a new independent scanner reading exactly these
+     * lines. The line numbers of the returned scanner continue from the current line number of this scanner, so that
+     * errors are still reported with the line numbers of the whole input. The returned scanner does not share any
+     * mutable state with this one, and can therefore be used from another thread.
+     *
+     * @param nLines
+     *         the number of lines to detach from this scanner
+     *
+     * @return a new scanner reading the detached lines
+     *
+     * @throws IncompleteLineReadException
+     *         if the current line was not completely consumed
+     * @throws NoMoreLinesToReadException
+     *         if there are fewer than {@code nLines} lines left to read
+     * @throws InputParsingException
+     *         if an error occurs while reading the input
+     */
+    InputScanner detachLines(int nLines) throws InputParsingException;
+
+    /**
+     * Consumes the end of the input and releases the underlying resources. This is equivalent to
+     * {@code close(EndOfInputCheck.STRICT)}.
+     *
+     * @throws IncompleteInputReadException
+     *         if there is still some input left to read
+     * @throws InputParsingException
+     *         if an error occurs while consuming the end of the input
+     */
+    @Override
+    default void close() throws InputParsingException {
+        close(EndOfInputCheck.STRICT);
+    }
+
+    /**
+     * Verifies the end of the input as defined by the given check, and releases the underlying resources.
+     *
+     * @param check
+     *         defines how much of the remaining input is read to verify that it is blank
+     *
+     * @throws IncompleteInputReadException
+     *         if there is still some input left to read
+     * @throws InputParsingException
+     *         if an error occurs while consuming the end of the input
+     */
+    void close(EndOfInputCheck check) throws InputParsingException;
+}
@@ -0,0 +1,73 @@
+package org.hildan.hashcode.utils.parser.context;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A pre-resolved handle on an int context variable. Each variable name is associated with a unique slot index, so
+ * that a {@link Context} can store int variables in a primitive array, and access them without hashing or parsing.
+ * <p>
+ * Handles are usually obtained once, via {@link Context#intVar(String)} or {@link #of(String)}, and then reused for
+ * every access.
+ */
+public final class IntVar {
+
+    private static final ConcurrentMap<String, IntVar> registry = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger nextIndex = new AtomicInteger();
+
+    private final String name;
+
+    private final int index;
+
+    private IntVar(@NotNull String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * Gets the handle of the int variable with the given name. The same handle is always returned for the same name.
+     *
+     * @param name
+     *         the name of the variable
+     *
+     * @return the handle of the variable with the given name
+     */
+    @NotNull
+    public static IntVar of(@NotNull String name) {
+        IntVar var = registry.get(name);
+        if (var == null) {
+            var = registry.computeIfAbsent(name, n -> new IntVar(n, nextIndex.getAndIncrement()));
+        }
+        return var;
+    }
+
+    /**
+     * Gets the handle of the int variable with the given name, if it was already created.
+     */
+    @Nullable
+    static IntVar find(@NotNull String name) {
+        return registry.get(name);
+    }
+
+    /**
+     * @return the name of this variable
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "IntVar{" + name + '}';
+    }
+}
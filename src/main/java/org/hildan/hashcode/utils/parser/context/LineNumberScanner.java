@@ -1,22 +1,27 @@
 package org.hildan.hashcode.utils.parser.context;
 
-import java.io.Closeable;
 import java.io.IOException;
 import java.io.LineNumberReader;
 import java.io.Reader;
+import java.io.StringReader;
 import java.util.Arrays;
 
 import org.hildan.hashcode.utils.parser.InputParsingException;
+import org.hildan.hashcode.utils.parser.config.EndOfInputCheck;
+import org.hildan.hashcode.utils.parser.config.Tokenizer;
+import org.intellij.lang.annotations.RegExp;
 import org.jetbrains.annotations.Nullable;
 
 /**
  * A scanner that is aware of the line numbers and throws exceptions that contain this useful piece of information.
  */
-public class LineNumberScanner implements Closeable, AutoCloseable {
+public class LineNumberScanner implements InputScanner {
+
+    private static final String[] NO_TOKENS = new String[0];
 
     private final LineNumberReader reader;
 
-    private final String delimiter;
+    private final Tokenizer tokenizer;
 
     private String currentLineRaw;
 
@@ -24,18 +29,36 @@ public class LineNumberScanner implements Closeable, AutoCloseable {
 
     private int nextTokenIndex;
 
+    private long charsRead;
+
     /**
      * Creates a new {@code LineNumberScanner} using the given reader as underlying source.
      *
      * @param reader
      *         the reader to read the data from
      * @param delimiter
-     *         the delimiter to use to identify separate tokens
+     *         the delimiter to use to identify separate tokens, as a regular expression
      */
-    public LineNumberScanner(Reader reader, String delimiter) {
+    public LineNumberScanner(Reader reader, @RegExp String delimiter) {
+        this(reader, Tokenizer.fromSeparator(delimiter));
+    }
+
+    /**
+     * Creates a new {@code LineNumberScanner} using the given reader as underlying source.
+     *
+     * @param reader
+     *         the reader to read the data from
+     * @param tokenizer
+     *         the tokenizer to use to split each line into tokens
+     */
+    public LineNumberScanner(Reader reader, Tokenizer tokenizer) {
+        this(reader, tokenizer, 0);
+    }
+
+    private LineNumberScanner(Reader reader, Tokenizer tokenizer, int initialLineNumber) {
         this.reader = new LineNumberReader(reader);
-        this.reader.setLineNumber(0);
-        this.delimiter = delimiter;
+        this.reader.setLineNumber(initialLineNumber);
+        this.tokenizer = tokenizer;
     }
 
     /**
@@ -63,6 +86,11 @@ public class LineNumberScanner implements Closeable, AutoCloseable {
         return currentLineRaw;
     }
 
+    @Override
+    public long getInputPosition() {
+        return charsRead;
+    }
+
     /**
      * Scans the next token of the input as a string.
      *
@@ -99,6 +127,25 @@ public class LineNumberScanner implements Closeable, AutoCloseable {
         }
     }
 
+    /**
+     * Scans the next token of the input as a long.
+     *
+     * @return the long scanned from the input
+     *
+     * @throws NoMoreLinesToReadException
+     *         if there is no more lines to read
+     * @throws InputParsingException
+     *         if the input could not be parsed as a long
+     */
+    public long nextLong() throws InputParsingException {
+        String value = nextString();
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new InputParsingException(getLineNumber(), "expected long, got '" + value + "'", e);
+        }
+    }
+
     /**
      * Scans the next token of the input as a double.
      *
@@ -118,6 +165,66 @@ public class LineNumberScanner implements Closeable, AutoCloseable {
         }
     }
 
+    @Override
+    public void nextInts(int[] dst, int offset, int length) throws InputParsingException {
+        int i = offset;
+        int end = offset + length;
+        while (i < end) {
+            while (!hasMoreTokenInCurrentLine()) {
+                fetchNextLine();
+            }
+            int lastIndex = Math.min(currentLine.length, nextTokenIndex + end - i);
+            try {
+                for (; nextTokenIndex < lastIndex; nextTokenIndex++) {
+                    dst[i++] = Integer.parseInt(currentLine[nextTokenIndex]);
+                }
+            } catch (NumberFormatException e) {
+                String value = currentLine[nextTokenIndex++];
+                throw new InputParsingException(getLineNumber(), "expected int, got '" + value + "'", e);
+            }
+        }
+    }
+
+    @Override
+    public void nextLongs(long[] dst, int offset, int length) throws InputParsingException {
+        int i = offset;
+        int end = offset + length;
+        while (i < end) {
+            while (!hasMoreTokenInCurrentLine()) {
+                fetchNextLine();
+            }
+            int lastIndex = Math.min(currentLine.length, nextTokenIndex + end - i);
+            try {
+                for (; nextTokenIndex < lastIndex; nextTokenIndex++) {
+                    dst[i++] = Long.parseLong(currentLine[nextTokenIndex]);
+                }
+            } catch (NumberFormatException e) {
+                String value = currentLine[nextTokenIndex++];
+                throw new InputParsingException(getLineNumber(), "expected long, got '" + value + "'", e);
+            }
+        }
+    }
+
+    @Override
+    public void nextDoubles(double[] dst, int offset, int length) throws InputParsingException {
+        int i = offset;
+        int end = offset + length;
+        while (i < end) {
+            while (!hasMoreTokenInCurrentLine()) {
+                fetchNextLine();
+            }
+            int lastIndex = Math.min(currentLine.length, nextTokenIndex + end - i);
+            try {
+                for (; nextTokenIndex < lastIndex; nextTokenIndex++) {
+                    dst[i++] = Double.parseDouble(currentLine[nextTokenIndex]);
+                }
+            } catch (NumberFormatException e) {
+                String value = currentLine[nextTokenIndex++];
+                throw new InputParsingException(getLineNumber(), "expected double, got '" + value + "'", e);
+            }
+        }
+    }
+
     /**
      * Reads and returns the next line of input.
      *
@@ -156,6 +263,79 @@ public class LineNumberScanner implements Closeable, AutoCloseable {
         return currentLine;
     }
 
+    @Override
+    public void skipTokens(int n) throws InputParsingException {
+        int remaining = n;
+        while (remaining > 0) {
+            while (!hasMoreTokenInCurrentLine()) {
+                fetchNextLine();
+            }
+            int skipped = Math.min(remaining, currentLine.length - nextTokenIndex);
+            nextTokenIndex += skipped;
+            remaining -= skipped;
+        }
+    }
+
+    @Override
+    public void skipLines(int n) throws InputParsingException {
+        if (n <= 0) {
+            return;
+        }
+        if (hasMoreTokenInCurrentLine()) {
+            throw new IncompleteLineReadException(getLineNumber(), remainingInputOnCurrentLine());
+        }
+        try {
+            for (int i = 1; i < n; i++) {
+                skipLineChars();
+            }
+            // the last line is kept as current line
+            currentLineRaw = reader.readLine();
+            if (currentLineRaw == null) {
+                throw new NoMoreLinesToReadException();
+            }
+            charsRead += currentLineRaw.length() + 1;
+            currentLine = NO_TOKENS;
+            nextTokenIndex = 0;
+        } catch (IOException e) {
+            throw new InputParsingException("An error occurred while reading the input", e);
+        }
+    }
+
+    private void skipLineChars() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            throw new NoMoreLinesToReadException();
+        }
+        // the reader collapses any line terminator into a single '\n'
+        while (c != '\n' && c != -1) {
+            c = reader.read();
+            charsRead++;
+        }
+        charsRead++;
+    }
+
+    @Override
+    public InputScanner detachLines(int nLines) throws InputParsingException {
+        if (hasMoreTokenInCurrentLine()) {
+            throw new IncompleteLineReadException(getLineNumber(), remainingInputOnCurrentLine());
+        }
+        int initialLineNumber = getLineNumber();
+        StringBuilder detachedLines = new StringBuilder();
+        try {
+            for (int i = 0; i < nLines; i++) {
+                String line = reader.readLine();
+                if (line == null) {
+                    throw new NoMoreLinesToReadException();
+                }
+                detachedLines.append(line).append('\n');
+                charsRead += line.length() + 1;
+            }
+        } catch (IOException e) {
+            throw new InputParsingException("An error occurred while reading the input", e);
+        }
+        return new LineNumberScanner(new StringReader(detachedLines.toString()), tokenizer, initialLineNumber);
+    }
+
     private boolean hasMoreTokenInCurrentLine() {
         return currentLine != null && nextTokenIndex < currentLine.length;
     }
@@ -169,7 +349,8 @@ public class LineNumberScanner implements Closeable, AutoCloseable {
             if (currentLineRaw == null) {
                 throw new NoMoreLinesToReadException();
             }
-            currentLine = currentLineRaw.isEmpty() ? new String[0] : currentLineRaw.split(delimiter, -1);
+            currentLine = currentLineRaw.isEmpty() ? NO_TOKENS : tokenizer.tokenize(currentLineRaw);
+            charsRead += currentLineRaw.length() + 1;
             nextTokenIndex = 0;
         } catch (IOException e) {
             throw new InputParsingException("An error occurred while reading the input", e);
@@ -185,11 +366,15 @@ public class LineNumberScanner implements Closeable, AutoCloseable {
     }
 
     @Override
-    public void close() {
+    public void close(EndOfInputCheck check) {
         try {
-            int nbLinesLeft = consumeAndCountRemainingLines();
-            if (nbLinesLeft > 0) {
-                throw new IncompleteInputReadException(nbLinesLeft);
+            if (check == EndOfInputCheck.STRICT) {
+                int nbLinesLeft = consumeAndCountRemainingLines();
+                if (nbLinesLeft > 0) {
+                    throw new IncompleteInputReadException(nbLinesLeft);
+                }
+            } else if (check == EndOfInputCheck.CHEAP && hasNonBlankCharLeft()) {
+                throw new IncompleteInputReadException();
             }
         } catch (IOException e) {
             throw new InputParsingException("An error occurred while consuming the end of the input", e);
@@ -209,6 +394,17 @@ public class LineNumberScanner implements Closeable, AutoCloseable {
         return nbLinesLeft;
     }
 
+    private boolean hasNonBlankCharLeft() throws IOException {
+        int c;
+        while ((c = reader.read()) != -1) {
+            // same definition as String.trim()
+            if (c > ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void safeClose() {
         try {
             reader.close();
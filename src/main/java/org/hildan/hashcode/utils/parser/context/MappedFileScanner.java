@@ -0,0 +1,571 @@
+package org.hildan.hashcode.utils.parser.context;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.hildan.hashcode.utils.parser.InputParsingException;
+import org.hildan.hashcode.utils.parser.config.CharTokenizer;
+import org.hildan.hashcode.utils.parser.config.EndOfInputCheck;
+import org.hildan.hashcode.utils.parser.config.Tokenizer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An {@link InputScanner} that reads its input directly as bytes, usually from a memory-mapped file. Numbers are
+ * parsed straight from the bytes, so that no {@link String} is created per line or per number token. Strings are
+ * only created when explicitly requested, or when an error message needs them.
+ * <p>
+ * The input must use an ASCII-compatible encoding (see {@link FastDecodingReader#isAsciiCompatible(Charset)}), and
+ * tokens must be delimited by ASCII characters, as defined by a {@link CharTokenizer}. Tokens are delimited exactly
+ * like {@link LineNumberScanner} does with the same tokenizer, so both scanners can be used interchangeably.
+ */
+public class MappedFileScanner implements InputScanner {
+
+    private static final int NO_MORE_TOKENS = -1;
+
+    private static final long MAX_INT_MAGNITUDE = -(long) Integer.MIN_VALUE;
+
+    private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+
+    private static final int MAX_FAST_PATH_SIGNIFICANT_DIGITS = 18;
+
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final ByteBuffer buffer;
+
+    private final int limit;
+
+    private final CharTokenizer tokenizer;
+
+    private final Charset charset;
+
+    private final int start;
+
+    private int nextLineStart;
+
+    private int lineStart = NO_MORE_TOKENS;
+
+    private int lineEnd;
+
+    private int lineNumber;
+
+    private String currentLineRaw;
+
+    private int nextTokenStart = NO_MORE_TOKENS;
+
+    private int tokenStart;
+
+    private int tokenEnd;
+
+    /**
+     * Creates a new {@code MappedFileScanner} reading the given file through a read-only memory mapping.
+     *
+     * @param file
+     *         the file to read the data from
+     * @param tokenizer
+     *         the tokenizer defining the separators between tokens within a line
+     *
+     * @throws IOException
+     *         if the file cannot be opened or mapped
+     * @throws IllegalArgumentException
+     *         if the file is too big to be mapped at once
+     */
+    public MappedFileScanner(@NotNull Path file, @NotNull CharTokenizer tokenizer) throws IOException {
+        this(map(file), tokenizer);
+    }
+
+    /**
+     * Creates a new {@code MappedFileScanner} reading the given file through a read-only memory mapping.
+     *
+     * @param file
+     *         the file to read the data from
+     * @param tokenizer
+     *         the tokenizer defining the separators between tokens within a line
+     * @param charset
+     *         the ASCII-compatible charset used to decode string tokens and lines
+     *
+     * @throws IOException
+     *         if the file cannot be opened or mapped
+     * @throws IllegalArgumentException
+     *         if the file is too big to be mapped at once, or if the charset is not ASCII-compatible
+     */
+    public MappedFileScanner(@NotNull Path file, @NotNull CharTokenizer tokenizer, @NotNull Charset charset)
+            throws IOException {
+        this(map(file), tokenizer, charset);
+    }
+
+    /**
+     * Creates a new {@code MappedFileScanner} reading the given buffer from its current position to its limit. The
+     * position of the given buffer is not modified.
+     *
+     * @param buffer
+     *         the buffer to read the data from
+     * @param tokenizer
+     *         the tokenizer defining the separators between tokens within a line
+     */
+    public MappedFileScanner(@NotNull ByteBuffer buffer, @NotNull CharTokenizer tokenizer) {
+        this(buffer, tokenizer, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a new {@code MappedFileScanner} reading the given buffer from its current position to its limit. The
+     * position of the given buffer is not modified.
+     *
+     * @param buffer
+     *         the buffer to read the data from
+     * @param tokenizer
+     *         the tokenizer defining the separators between tokens within a line
+     * @param charset
+     *         the ASCII-compatible charset used to decode string tokens and lines
+     *
+     * @throws IllegalArgumentException
+     *         if the charset is not ASCII-compatible
+     */
+    public MappedFileScanner(@NotNull ByteBuffer buffer, @NotNull CharTokenizer tokenizer, @NotNull Charset charset) {
+        this(buffer, buffer.position(), buffer.limit(), tokenizer, checkAsciiCompatible(charset), 0);
+    }
+
+    private MappedFileScanner(ByteBuffer buffer, int start, int limit, CharTokenizer tokenizer, Charset charset,
+                              int lineNumber) {
+        this.buffer = buffer;
+        this.limit = limit;
+        this.start = start;
+        this.nextLineStart = start;
+        this.tokenizer = tokenizer;
+        this.charset = charset;
+        this.lineNumber = lineNumber;
+    }
+
+    private static Charset checkAsciiCompatible(Charset charset) {
+        if (!FastDecodingReader.isAsciiCompatible(charset)) {
+            throw new IllegalArgumentException("The charset " + charset + " cannot be scanned at byte level");
+        }
+        return charset;
+    }
+
+    private static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("The file '" + file + "' is too big to be mapped at once");
+            }
+            return channel.map(MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    /**
+     * Returns whether the given tokenizer can be used at byte level by this scanner, which is the case of all
+     * {@link CharTokenizer}s.
+     *
+     * @param tokenizer
+     *         the tokenizer to test
+     *
+     * @return true if this scanner can be used with the given tokenizer
+     */
+    public static boolean supports(@NotNull Tokenizer tokenizer) {
+        return tokenizer instanceof CharTokenizer;
+    }
+
+    /**
+     * Returns whether the given tokenizer and charset can be used at byte level by this scanner.
+     *
+     * @param tokenizer
+     *         the tokenizer to test
+     * @param charset
+     *         the charset to test
+     *
+     * @return true if this scanner can be used with the given tokenizer and charset
+     */
+    public static boolean supports(@NotNull Tokenizer tokenizer, @NotNull Charset charset) {
+        return supports(tokenizer) && FastDecodingReader.isAsciiCompatible(charset);
+    }
+
+    @Override
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public long getInputPosition() {
+        return (nextTokenStart == NO_MORE_TOKENS ? nextLineStart : nextTokenStart) - start;
+    }
+
+    @Nullable
+    @Override
+    public String getCurrentLine() {
+        if (lineStart == NO_MORE_TOKENS) {
+            return null;
+        }
+        if (currentLineRaw == null) {
+            currentLineRaw = decode(lineStart, lineEnd);
+        }
+        return currentLineRaw;
+    }
+
+    @Override
+    public String nextString() throws InputParsingException {
+        findNextToken();
+        return decode(tokenStart, tokenEnd);
+    }
+
+    @Override
+    public int nextInt() throws InputParsingException {
+        findNextToken();
+        return parseIntToken();
+    }
+
+    @Override
+    public void nextInts(int[] dst, int offset, int length) throws InputParsingException {
+        for (int i = offset; i < offset + length; i++) {
+            findNextToken();
+            dst[i] = parseIntToken();
+        }
+    }
+
+    private int parseIntToken() throws InputParsingException {
+        int i = tokenStart;
+        boolean negative = false;
+        if (i < tokenEnd && isSign(buffer.get(i))) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == tokenEnd) {
+            return parseIntSlowPath();
+        }
+        long magnitude = 0;
+        for (; i < tokenEnd; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return parseIntSlowPath();
+            }
+            magnitude = magnitude * 10 + digit;
+            if (magnitude > MAX_INT_MAGNITUDE) {
+                return parseIntSlowPath();
+            }
+        }
+        long value = negative ? -magnitude : magnitude;
+        if (value > Integer.MAX_VALUE) {
+            return parseIntSlowPath();
+        }
+        return (int) value;
+    }
+
+    @Override
+    public long nextLong() throws InputParsingException {
+        findNextToken();
+        return parseLongToken();
+    }
+
+    @Override
+    public void nextLongs(long[] dst, int offset, int length) throws InputParsingException {
+        for (int i = offset; i < offset + length; i++) {
+            findNextToken();
+            dst[i] = parseLongToken();
+        }
+    }
+
+    private long parseLongToken() throws InputParsingException {
+        int i = tokenStart;
+        boolean negative = false;
+        if (i < tokenEnd && isSign(buffer.get(i))) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == tokenEnd) {
+            return parseLongSlowPath();
+        }
+        long magnitude = 0;
+        for (; i < tokenEnd; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9 || magnitude > (Long.MAX_VALUE - digit) / 10) {
+                // the slow path also takes care of Long.MIN_VALUE
+                return parseLongSlowPath();
+            }
+            magnitude = magnitude * 10 + digit;
+        }
+        return negative ? -magnitude : magnitude;
+    }
+
+    @Override
+    public double nextDouble() throws InputParsingException {
+        findNextToken();
+        return parseDoubleToken();
+    }
+
+    @Override
+    public void nextDoubles(double[] dst, int offset, int length) throws InputParsingException {
+        for (int i = offset; i < offset + length; i++) {
+            findNextToken();
+            dst[i] = parseDoubleToken();
+        }
+    }
+
+    private double parseDoubleToken() throws InputParsingException {
+        int i = tokenStart;
+        boolean negative = false;
+        if (i < tokenEnd && isSign(buffer.get(i))) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significantDigits = 0;
+        int exponent = 0;
+        boolean hasDigits = false;
+        boolean inFraction = false;
+        for (; i < tokenEnd; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' && !inFraction) {
+                inFraction = true;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9) {
+                break;
+            }
+            hasDigits = true;
+            if (mantissa != 0 || digit != 0) {
+                if (++significantDigits > MAX_FAST_PATH_SIGNIFICANT_DIGITS) {
+                    return parseDoubleSlowPath();
+                }
+            }
+            mantissa = mantissa * 10 + digit;
+            if (inFraction) {
+                exponent--;
+            }
+        }
+        if (!hasDigits) {
+            return parseDoubleSlowPath();
+        }
+        if (i < tokenEnd) {
+            byte b = buffer.get(i++);
+            if (b != 'e' && b != 'E' || i == tokenEnd) {
+                return parseDoubleSlowPath();
+            }
+            boolean negativeExponent = false;
+            if (isSign(buffer.get(i))) {
+                negativeExponent = buffer.get(i) == '-';
+                i++;
+            }
+            if (i == tokenEnd) {
+                return parseDoubleSlowPath();
+            }
+            int explicitExponent = 0;
+            for (; i < tokenEnd; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9 || explicitExponent > EXACT_POWERS_OF_TEN.length * 10) {
+                    return parseDoubleSlowPath();
+                }
+                explicitExponent = explicitExponent * 10 + digit;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (mantissa > MAX_EXACT_DOUBLE_MANTISSA || Math.abs(exponent) >= EXACT_POWERS_OF_TEN.length) {
+            return parseDoubleSlowPath();
+        }
+        // both the mantissa and the power of ten are exact doubles, so a single operation rounds correctly
+        double value = exponent >= 0
+                ? mantissa * EXACT_POWERS_OF_TEN[exponent]
+                : mantissa / EXACT_POWERS_OF_TEN[-exponent];
+        return negative ? -value : value;
+    }
+
+    private int parseIntSlowPath() throws InputParsingException {
+        String value = decode(tokenStart, tokenEnd);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new InputParsingException(getLineNumber(), "expected int, got '" + value + "'", e);
+        }
+    }
+
+    private long parseLongSlowPath() throws InputParsingException {
+        String value = decode(tokenStart, tokenEnd);
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new InputParsingException(getLineNumber(), "expected long, got '" + value + "'", e);
+        }
+    }
+
+    private double parseDoubleSlowPath() throws InputParsingException {
+        String value = decode(tokenStart, tokenEnd);
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new InputParsingException(getLineNumber(), "expected double, got '" + value + "'", e);
+        }
+    }
+
+    private static boolean isSign(byte b) {
+        return b == '-' || b == '+';
+    }
+
+    @Override
+    public String nextLine() throws InputParsingException {
+        fetchNextLine();
+        // mark current line as consumed
+        nextTokenStart = NO_MORE_TOKENS;
+        return getCurrentLine();
+    }
+
+    @Override
+    public String[] nextLineTokens() throws InputParsingException {
+        fetchNextLine();
+        if (nextTokenStart == NO_MORE_TOKENS) {
+            return new String[0];
+        }
+        int nTokens = 1;
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (isSeparator(buffer.get(i))) {
+                nTokens++;
+            }
+        }
+        String[] tokens = new String[nTokens];
+        for (int t = 0; t < nTokens; t++) {
+            tokens[t] = nextString();
+        }
+        return tokens;
+    }
+
+    @Override
+    public void skipTokens(int n) throws InputParsingException {
+        for (int i = 0; i < n; i++) {
+            findNextToken();
+        }
+    }
+
+    @Override
+    public void skipLines(int n) throws InputParsingException {
+        for (int i = 0; i < n; i++) {
+            fetchNextLine();
+            // mark current line as consumed
+            nextTokenStart = NO_MORE_TOKENS;
+        }
+    }
+
+    @Override
+    public InputScanner detachLines(int nLines) throws InputParsingException {
+        if (nextTokenStart != NO_MORE_TOKENS) {
+            throw new IncompleteLineReadException(getLineNumber(), decode(nextTokenStart, lineEnd));
+        }
+        int end = nextLineStart;
+        for (int i = 0; i < nLines; i++) {
+            if (end >= limit) {
+                throw new NoMoreLinesToReadException();
+            }
+            end = skipLineTerminator(findLineEnd(end));
+        }
+        end = Math.min(end, limit);
+        // absolute reads do not modify the shared buffer, so it is safe to read it from multiple threads
+        InputScanner detached = new MappedFileScanner(buffer, nextLineStart, end, tokenizer, charset, lineNumber);
+        nextLineStart = end;
+        lineNumber += nLines;
+        return detached;
+    }
+
+    private void findNextToken() throws InputParsingException {
+        while (nextTokenStart == NO_MORE_TOKENS) {
+            fetchNextLine();
+        }
+        int end = nextTokenStart;
+        while (end < lineEnd && !isSeparator(buffer.get(end))) {
+            end++;
+        }
+        tokenStart = nextTokenStart;
+        tokenEnd = end;
+        nextTokenStart = end < lineEnd ? end + 1 : NO_MORE_TOKENS;
+    }
+
+    private boolean isSeparator(byte b) {
+        // non-ASCII bytes are negative, and are never separators
+        return tokenizer.isSeparator(b);
+    }
+
+    private void fetchNextLine() throws InputParsingException {
+        if (nextTokenStart != NO_MORE_TOKENS) {
+            throw new IncompleteLineReadException(getLineNumber(), decode(nextTokenStart, lineEnd));
+        }
+        if (nextLineStart >= limit) {
+            throw new NoMoreLinesToReadException();
+        }
+        lineStart = nextLineStart;
+        lineEnd = findLineEnd(lineStart);
+        nextLineStart = skipLineTerminator(lineEnd);
+        lineNumber++;
+        currentLineRaw = null;
+        nextTokenStart = lineEnd > lineStart ? lineStart : NO_MORE_TOKENS;
+    }
+
+    private int findLineEnd(int from) {
+        int end = from;
+        while (end < limit) {
+            byte b = buffer.get(end);
+            if (b == '\n' || b == '\r') {
+                break;
+            }
+            end++;
+        }
+        return end;
+    }
+
+    private int skipLineTerminator(int lineEnd) {
+        if (lineEnd + 1 < limit && buffer.get(lineEnd) == '\r' && buffer.get(lineEnd + 1) == '\n') {
+            return lineEnd + 2;
+        }
+        return lineEnd + 1;
+    }
+
+    private String decode(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, charset);
+    }
+
+    @Override
+    public void close(EndOfInputCheck check) throws InputParsingException {
+        if (check == EndOfInputCheck.OFF) {
+            return;
+        }
+        if (check == EndOfInputCheck.CHEAP) {
+            // the rest of the input is only scanned up to the first non-blank byte, if any
+            if (!isBlank(nextLineStart, limit)) {
+                throw new IncompleteInputReadException();
+            }
+            nextLineStart = limit;
+            return;
+        }
+        int nbLinesLeft = 0;
+        while (nextLineStart < limit) {
+            int end = findLineEnd(nextLineStart);
+            if (!isBlank(nextLineStart, end)) {
+                nbLinesLeft++;
+            }
+            nextLineStart = skipLineTerminator(end);
+        }
+        if (nbLinesLeft > 0) {
+            throw new IncompleteInputReadException(nbLinesLeft);
+        }
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            // same definition as String.trim()
+            if ((buffer.get(i) & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
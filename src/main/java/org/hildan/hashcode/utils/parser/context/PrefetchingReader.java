@@ -0,0 +1,247 @@
+package org.hildan.hashcode.utils.parser.context;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.concurrent.locks.LockSupport;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Reader} that reads (and decodes) its source on a dedicated I/O thread, while the consumer processes the
+ * chunks that have already been read. This overlaps I/O latency with parsing, which is mostly useful for slow
+ * storage such as network-mounted disks.
+ * <p>
+ * Chunks are recycled: filled chunks are handed off to the consumer through a bounded lock-free queue, and given back
+ * to the I/O thread through another one once consumed. This reader must be used from a single thread, like most
+ * readers are.
+ */
+public class PrefetchingReader extends Reader {
+
+    /**
+     * The default number of chars read at once by the I/O thread.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+    /**
+     * The default number of chunks that can be read ahead of the consumer (including the chunk being consumed).
+     */
+    public static final int DEFAULT_CHUNK_COUNT = 4;
+
+    private final Reader source;
+
+    private final SpscQueue<Chunk> filledChunks;
+
+    private final SpscQueue<Chunk> freeChunks;
+
+    private final Thread ioThread;
+
+    private volatile Thread waitingConsumer;
+
+    private volatile boolean closed;
+
+    private Chunk currentChunk;
+
+    private int position;
+
+    private boolean endReached;
+
+    /**
+     * Creates a new {@code PrefetchingReader} reading the given source with the default chunk size and count.
+     *
+     * @param source
+     *         the reader to read ahead of the consumer
+     */
+    public PrefetchingReader(@NotNull Reader source) {
+        this(source, DEFAULT_CHUNK_SIZE, DEFAULT_CHUNK_COUNT);
+    }
+
+    /**
+     * Creates a new {@code PrefetchingReader} reading the given source.
+     *
+     * @param source
+     *         the reader to read ahead of the consumer
+     * @param chunkSize
+     *         the number of chars read at once by the I/O thread
+     * @param chunkCount
+     *         the number of chunks that can be read ahead of the consumer, at least 2 so that the I/O thread can
+     *         read a chunk while the consumer processes another one
+     */
+    public PrefetchingReader(@NotNull Reader source, int chunkSize, int chunkCount) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("The chunk size must be positive, got " + chunkSize);
+        }
+        if (chunkCount < 2) {
+            throw new IllegalArgumentException("At least 2 chunks are necessary, got " + chunkCount);
+        }
+        this.source = source;
+        this.filledChunks = new SpscQueue<>(chunkCount);
+        this.freeChunks = new SpscQueue<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            freeChunks.offer(new Chunk(new char[chunkSize]));
+        }
+        this.ioThread = new Thread(this::prefetch, "input-prefetcher");
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+    }
+
+    private void prefetch() {
+        try {
+            while (!closed) {
+                Chunk chunk = freeChunks.poll();
+                if (chunk == null) {
+                    // the consumer unparks this thread whenever it frees a chunk or closes the reader
+                    LockSupport.park(this);
+                    continue;
+                }
+                chunk.length = fill(chunk.chars);
+                publish(chunk);
+                if (chunk.length < 0) {
+                    return;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!closed) {
+                publish(Chunk.failed(e));
+            }
+        }
+    }
+
+    private int fill(char[] chars) throws IOException {
+        int n = 0;
+        while (n < chars.length) {
+            int read = source.read(chars, n, chars.length - n);
+            if (read < 0) {
+                return n == 0 ? -1 : n;
+            }
+            n += read;
+        }
+        return n;
+    }
+
+    private void publish(Chunk chunk) {
+        while (!filledChunks.offer(chunk)) {
+            // only an error chunk can find the queue full, as it is not one of the recycled chunks
+            if (closed) {
+                return;
+            }
+            LockSupport.park(this);
+        }
+        Thread consumer = waitingConsumer;
+        if (consumer != null) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureData()) {
+            return -1;
+        }
+        return currentChunk.chars[position++];
+    }
+
+    @Override
+    public int read(@NotNull char[] cbuf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > cbuf.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureData()) {
+            return -1;
+        }
+        int n = Math.min(len, currentChunk.length - position);
+        System.arraycopy(currentChunk.chars, position, cbuf, off, n);
+        position += n;
+        return n;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        ensureOpen();
+        return currentChunk != null && position < currentChunk.length;
+    }
+
+    private boolean ensureData() throws IOException {
+        ensureOpen();
+        while (currentChunk == null || position >= currentChunk.length) {
+            if (endReached) {
+                return false;
+            }
+            if (currentChunk != null) {
+                freeChunks.offer(currentChunk);
+                LockSupport.unpark(ioThread);
+                currentChunk = null;
+            }
+            Chunk chunk = takeFilledChunk();
+            if (chunk.error != null) {
+                endReached = true;
+                throw new IOException("An error occurred while reading ahead", chunk.error);
+            }
+            if (chunk.length < 0) {
+                endReached = true;
+                return false;
+            }
+            currentChunk = chunk;
+            position = 0;
+        }
+        return true;
+    }
+
+    private Chunk takeFilledChunk() throws InterruptedIOException {
+        Chunk chunk = filledChunks.poll();
+        if (chunk != null) {
+            return chunk;
+        }
+        waitingConsumer = Thread.currentThread();
+        try {
+            // the I/O thread unparks the waiting consumer after each chunk it publishes
+            while ((chunk = filledChunks.poll()) == null) {
+                LockSupport.park(this);
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedIOException("Interrupted while waiting for the input");
+                }
+            }
+            return chunk;
+        } finally {
+            waitingConsumer = null;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Reader closed");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(ioThread);
+        source.close();
+    }
+
+    private static class Chunk {
+
+        private final char[] chars;
+
+        private int length;
+
+        private Exception error;
+
+        Chunk(char[] chars) {
+            this.chars = chars;
+        }
+
+        static Chunk failed(Exception error) {
+            Chunk chunk = new Chunk(new char[0]);
+            chunk.error = error;
+            return chunk;
+        }
+    }
+}
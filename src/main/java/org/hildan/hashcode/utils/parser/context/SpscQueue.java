@@ -0,0 +1,79 @@
+package org.hildan.hashcode.utils.parser.context;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded lock-free queue for exactly one producer thread and one consumer thread.
+ * <p>
+ * Each index is only ever written by a single thread, so no compare-and-set is needed: the producer publishes an
+ * element by writing its slot and then its index, and the consumer frees a slot by clearing it and then writing its
+ * index.
+ *
+ * @param <E>
+ *         the type of elements in this queue
+ */
+class SpscQueue<E> {
+
+    private final Object[] slots;
+
+    private final int mask;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+
+    private final AtomicLong consumerIndex = new AtomicLong();
+
+    /**
+     * Creates a new queue able to hold at least the given number of elements.
+     *
+     * @param capacity
+     *         the minimum capacity of the queue, rounded up to a power of 2
+     */
+    SpscQueue(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("The capacity must be between 1 and 2^30, got " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Object[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds the given element at the tail of the queue, if there is room for it. Must only be called by the producer.
+     *
+     * @param element
+     *         the element to add
+     *
+     * @return true if the element was added, false if the queue is full
+     */
+    boolean offer(E element) {
+        long index = producerIndex.get();
+        if (index - consumerIndex.get() == slots.length) {
+            return false;
+        }
+        slots[(int) index & mask] = element;
+        // a full volatile write, so that a producer checking for a parked consumer right after cannot miss it
+        producerIndex.set(index + 1);
+        return true;
+    }
+
+    /**
+     * Removes the element at the head of the queue, if any. Must only be called by the consumer.
+     *
+     * @return the removed element, or null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long index = consumerIndex.get();
+        if (index == producerIndex.get()) {
+            return null;
+        }
+        int slot = (int) index & mask;
+        E element = (E) slots[slot];
+        slots[slot] = null;
+        consumerIndex.lazySet(index + 1);
+        return element;
+    }
+}
@@ -0,0 +1,28 @@
+package org.hildan.hashcode.utils.parser.gen;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Defines the number of elements to read into an array parameter or field of a model with a generated parser (see
+ * {@link GenerateParser}). Exactly one of {@link #value()} and {@link #var()} must be provided.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.PARAMETER, ElementType.FIELD})
+public @interface Count {
+
+    /**
+     * The name of an {@code int} parameter or field read before the annotated element, containing the number of
+     * elements to read.
+     */
+    String value() default "";
+
+    /**
+     * The name of a context variable containing the number of elements to read.
+     */
+    String var() default "";
+}
@@ -0,0 +1,22 @@
+package org.hildan.hashcode.utils.parser.gen;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Takes the value of an {@code int}, {@code long} or {@code String} parameter or field from the given context
+ * variable, instead of reading it from the input, in a generated parser (see {@link GenerateParser}).
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.PARAMETER, ElementType.FIELD})
+public @interface FromVar {
+
+    /**
+     * The name of the context variable to read.
+     */
+    String value();
+}
@@ -0,0 +1,31 @@
+package org.hildan.hashcode.utils.parser.gen;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Requests the generation of a {@link org.hildan.hashcode.utils.parser.Parser} for a model class, at compile time.
+ * The generated parser is a plain Java class named after the model class with the {@code Parser} suffix (for instance
+ * {@code OrderParser} for {@code Order}), in the same package, and exposing a singleton {@code INSTANCE}. It uses
+ * neither lambdas nor reflection, and does not box primitive values.
+ * <p>
+ * This annotation can be used in 2 ways:
+ * <ul>
+ * <li>on a constructor: the parameters of the constructor are read in order from the input, and then passed to the
+ * constructor</li>
+ * <li>on a class: the class is instantiated via its no-arg constructor, and then its non-static, non-final,
+ * non-transient fields are read in declaration order from the input, except the ones annotated with {@link Skip}</li>
+ * </ul>
+ * Each element (constructor parameter or field) can be of type {@code int}, {@code long}, {@code double}, {@code
+ * String}, a model class that also has a generated parser, or an array of any of these types. The length of arrays
+ * must be provided via {@link Count}. Elements can also be stored into or read from context variables via {@link Var}
+ * and {@link FromVar}.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.TYPE, ElementType.CONSTRUCTOR})
+public @interface GenerateParser {
+}
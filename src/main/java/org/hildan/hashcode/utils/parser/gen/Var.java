@@ -0,0 +1,23 @@
+package org.hildan.hashcode.utils.parser.gen;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Stores the value of an {@code int}, {@code long} or {@code String} parameter or field into the given context
+ * variable, once it is read by a generated parser (see {@link GenerateParser}). The variable can then be used by the
+ * parsers of nested models, via {@link FromVar} or {@link Count#var()}.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target({ElementType.PARAMETER, ElementType.FIELD})
+public @interface Var {
+
+    /**
+     * The name of the context variable to set.
+     */
+    String value();
+}
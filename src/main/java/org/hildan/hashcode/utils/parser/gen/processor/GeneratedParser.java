@@ -0,0 +1,33 @@
+package org.hildan.hashcode.utils.parser.gen.processor;
+
+import javax.lang.model.element.TypeElement;
+
+/**
+ * The source code of a generated parser, along with the model it was generated for.
+ */
+class GeneratedParser {
+
+    private final TypeElement model;
+
+    private final String qualifiedName;
+
+    private final String source;
+
+    GeneratedParser(TypeElement model, String qualifiedName, String source) {
+        this.model = model;
+        this.qualifiedName = qualifiedName;
+        this.source = source;
+    }
+
+    TypeElement getModel() {
+        return model;
+    }
+
+    String getQualifiedName() {
+        return qualifiedName;
+    }
+
+    String getSource() {
+        return source;
+    }
+}
@@ -0,0 +1,20 @@
+package org.hildan.hashcode.utils.parser.gen.processor;
+
+import javax.lang.model.element.Element;
+
+/**
+ * An exception thrown when a parser cannot be generated, reported as a compilation error on the given element.
+ */
+class GenerationException extends Exception {
+
+    private final transient Element element;
+
+    GenerationException(Element element, String message) {
+        super(message);
+        this.element = element;
+    }
+
+    Element getElement() {
+        return element;
+    }
+}
@@ -0,0 +1,416 @@
+package org.hildan.hashcode.utils.parser.gen.processor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+
+import org.hildan.hashcode.utils.parser.gen.Count;
+import org.hildan.hashcode.utils.parser.gen.FromVar;
+import org.hildan.hashcode.utils.parser.gen.GenerateParser;
+import org.hildan.hashcode.utils.parser.gen.Skip;
+import org.hildan.hashcode.utils.parser.gen.Var;
+
+/**
+ * Generates the source code of the parser of a model class, from the annotations on its constructor or fields.
+ */
+class ParserGenerator {
+
+    private static final String PARSER_SUFFIX = "Parser";
+
+    private static final String PARSER_TYPE = "org.hildan.hashcode.utils.parser.Parser";
+
+    private static final String CONTEXT_TYPE = "org.hildan.hashcode.utils.parser.context.Context";
+
+    private static final String INT_VAR_TYPE = "org.hildan.hashcode.utils.parser.context.IntVar";
+
+    private static final String CONTEXT = "context";
+
+    private static final String INDENT = "        ";
+
+    private final Elements elements;
+
+    private final Types types;
+
+    private final TypeMirror stringType;
+
+    private final TypeMirror runtimeExceptionType;
+
+    private final TypeMirror errorType;
+
+    /**
+     * The names of the constants holding the {@code IntVar}s used by the parser being generated, by variable name.
+     */
+    private final Map<String, String> intVarConstants = new LinkedHashMap<>();
+
+    ParserGenerator(Elements elements, Types types) {
+        this.elements = elements;
+        this.types = types;
+        this.stringType = elements.getTypeElement(String.class.getCanonicalName()).asType();
+        this.runtimeExceptionType = elements.getTypeElement(RuntimeException.class.getCanonicalName()).asType();
+        this.errorType = elements.getTypeElement(Error.class.getCanonicalName()).asType();
+    }
+
+    /**
+     * Generates a parser reading the parameters of the given constructor, and calling it.
+     */
+    GeneratedParser generateFromConstructor(ExecutableElement constructor) throws GenerationException {
+        intVarConstants.clear();
+        TypeElement model = (TypeElement) constructor.getEnclosingElement();
+        checkInstantiable(model);
+        checkAccessible(constructor);
+        if (model.getAnnotation(GenerateParser.class) != null) {
+            throw new GenerationException(constructor,
+                    "@GenerateParser cannot be used on both a class and one of its constructors");
+        }
+        for (TypeMirror thrownType : constructor.getThrownTypes()) {
+            if (!types.isSubtype(thrownType, runtimeExceptionType) && !types.isSubtype(thrownType, errorType)) {
+                throw new GenerationException(constructor,
+                        "Constructors with generated parsers cannot throw checked exceptions");
+            }
+        }
+        List<Item> items = new ArrayList<>();
+        for (VariableElement param : constructor.getParameters()) {
+            if (param.getSimpleName().contentEquals(CONTEXT)) {
+                throw new GenerationException(param, "The name '" + CONTEXT + "' is reserved in generated parsers");
+            }
+            items.add(new Item(param, param.getSimpleName().toString()));
+        }
+        Set<String> reservedNames = namesOf(items);
+        StringBuilder body = new StringBuilder();
+        appendReads(body, items, reservedNames);
+
+        List<String> args = new ArrayList<>();
+        for (Item item : items) {
+            args.add(item.target);
+        }
+        body.append(INDENT).append("return new ").append(typeName(model.asType())).append('(');
+        body.append(String.join(", ", args)).append(");\n");
+        return createParser(model, body);
+    }
+
+    /**
+     * Generates a parser instantiating the given class with its no-arg constructor, and then reading its fields.
+     */
+    GeneratedParser generateFromFields(TypeElement model) throws GenerationException {
+        intVarConstants.clear();
+        checkInstantiable(model);
+        ExecutableElement noArgConstructor = null;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(model.getEnclosedElements())) {
+            if (constructor.getAnnotation(GenerateParser.class) != null) {
+                throw new GenerationException(constructor,
+                        "@GenerateParser cannot be used on both a class and one of its constructors");
+            }
+            if (constructor.getParameters().isEmpty()) {
+                noArgConstructor = constructor;
+            }
+        }
+        if (noArgConstructor == null) {
+            throw new GenerationException(model, "Classes annotated with @GenerateParser need a no-arg constructor");
+        }
+        checkAccessible(noArgConstructor);
+
+        List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(model.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL)
+                    || modifiers.contains(Modifier.TRANSIENT) || field.getAnnotation(Skip.class) != null) {
+                continue;
+            }
+            checkAccessible(field);
+            fields.add(field);
+        }
+        Set<String> reservedNames = new HashSet<>();
+        reservedNames.add(CONTEXT);
+        String result = uniqueName("result", reservedNames);
+        List<Item> items = new ArrayList<>();
+        for (VariableElement field : fields) {
+            items.add(new Item(field, result + "." + field.getSimpleName()));
+        }
+        String modelType = typeName(model.asType());
+        StringBuilder body = new StringBuilder();
+        body.append(INDENT).append(modelType).append(' ').append(result).append(" = new ").append(modelType);
+        body.append("();\n");
+        appendReads(body, items, reservedNames);
+        body.append(INDENT).append("return ").append(result).append(";\n");
+        return createParser(model, body);
+    }
+
+    private GeneratedParser createParser(TypeElement model, StringBuilder body) {
+        PackageElement pkg = elements.getPackageOf(model);
+        String parserName = parserSimpleName(model);
+        String qualifiedName = pkg.isUnnamed() ? parserName : pkg.getQualifiedName() + "." + parserName;
+        String modelType = typeName(model.asType());
+        String visibility = model.getModifiers().contains(Modifier.PUBLIC) ? "public " : "";
+
+        StringBuilder src = new StringBuilder();
+        if (!pkg.isUnnamed()) {
+            src.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+        }
+        src.append("/**\n");
+        src.append(" * Parser for {@link ").append(modelType).append("}, generated from its annotations.\n");
+        src.append(" */\n");
+        src.append(visibility).append("final class ").append(parserName);
+        src.append(" implements ").append(PARSER_TYPE).append('<').append(modelType).append("> {\n\n");
+        src.append("    public static final ").append(parserName).append(" INSTANCE = new ").append(parserName);
+        src.append("();\n\n");
+        for (Map.Entry<String, String> intVar : intVarConstants.entrySet()) {
+            src.append("    private static final ").append(INT_VAR_TYPE).append(' ').append(intVar.getValue());
+            src.append(" = ").append(INT_VAR_TYPE).append(".of(").append(literal(intVar.getKey())).append(");\n\n");
+        }
+        src.append("    private ").append(parserName).append("() {\n    }\n\n");
+        src.append("    @Override\n");
+        src.append("    public ").append(modelType).append(" parse(").append(CONTEXT_TYPE).append(' ');
+        src.append(CONTEXT).append(") {\n");
+        src.append(body);
+        src.append("    }\n");
+        src.append("}\n");
+        return new GeneratedParser(model, qualifiedName, src.toString());
+    }
+
+    private void appendReads(StringBuilder body, List<Item> items, Set<String> reservedNames) throws
+            GenerationException {
+        Map<String, Item> previousItems = new HashMap<>();
+        for (Item item : items) {
+            appendRead(body, item, previousItems, reservedNames);
+            previousItems.put(item.name, item);
+        }
+    }
+
+    private void appendRead(StringBuilder body, Item item, Map<String, Item> previousItems, Set<String> reservedNames)
+            throws GenerationException {
+        boolean isLocal = !item.target.contains(".");
+        String declaration = isLocal ? typeName(item.type) + " " : "";
+        FromVar fromVar = item.element.getAnnotation(FromVar.class);
+        if (fromVar != null) {
+            String varExpr = readVariable(item, fromVar.value());
+            body.append(INDENT).append(declaration).append(item.target).append(" = ").append(varExpr).append(";\n");
+        } else if (item.type.getKind() == TypeKind.ARRAY) {
+            appendArrayRead(body, item, declaration, countExpression(item, previousItems), reservedNames);
+        } else {
+            String readExpr = readExpression(item.element, item.type);
+            body.append(INDENT).append(declaration).append(item.target).append(" = ").append(readExpr).append(";\n");
+        }
+        Var var = item.element.getAnnotation(Var.class);
+        if (var != null) {
+            checkVariableType(item);
+            if (item.type.getKind() == TypeKind.INT) {
+                body.append(INDENT).append(CONTEXT).append(".set(").append(intVarConstant(var.value()));
+                body.append(", ").append(item.target).append(");\n");
+            } else {
+                body.append(INDENT).append(CONTEXT).append(".setVariable(").append(literal(var.value()));
+                body.append(", String.valueOf(").append(item.target).append("));\n");
+            }
+        }
+    }
+
+    private void appendArrayRead(StringBuilder body, Item item, String declaration, String count,
+                                 Set<String> reservedNames) throws GenerationException {
+        TypeMirror componentType = ((ArrayType) item.type).getComponentType();
+        String prefix = INDENT + declaration + item.target + " = ";
+        switch (componentType.getKind()) {
+        case INT:
+            body.append(prefix).append(CONTEXT).append(".readIntArray(").append(count).append(");\n");
+            return;
+        case LONG:
+            body.append(prefix).append(CONTEXT).append(".readLongArray(").append(count).append(");\n");
+            return;
+        case DOUBLE:
+            body.append(prefix).append(CONTEXT).append(".readDoubleArray(").append(count).append(");\n");
+            return;
+        default:
+            String readExpr = readExpression(item.element, componentType);
+            String index = uniqueName("i", reservedNames);
+            body.append(prefix).append("new ").append(typeName(componentType)).append('[').append(count);
+            body.append("];\n");
+            body.append(INDENT).append("for (int ").append(index).append(" = 0; ").append(index).append(" < ");
+            body.append(item.target).append(".length; ").append(index).append("++) {\n");
+            body.append(INDENT).append("    ").append(item.target).append('[').append(index).append("] = ");
+            body.append(readExpr).append(";\n");
+            body.append(INDENT).append("}\n");
+        }
+    }
+
+    private String readExpression(Element element, TypeMirror type) throws GenerationException {
+        switch (type.getKind()) {
+        case INT:
+            return CONTEXT + ".readInt()";
+        case LONG:
+            return CONTEXT + ".readLong()";
+        case DOUBLE:
+            return CONTEXT + ".readDouble()";
+        case DECLARED:
+            if (types.isSameType(type, stringType)) {
+                return CONTEXT + ".readString()";
+            }
+            TypeElement typeElement = (TypeElement) ((DeclaredType) type).asElement();
+            if (hasGeneratedParser(typeElement)) {
+                return parserQualifiedName(typeElement) + ".INSTANCE.parse(" + CONTEXT + ")";
+            }
+            throw new GenerationException(element,
+                    "Type " + type + " has no generated parser, please annotate it with @GenerateParser");
+        default:
+            throw new GenerationException(element, "Unsupported type " + type + " for generated parsers");
+        }
+    }
+
+    private String readVariable(Item item, String varName) throws GenerationException {
+        String name = literal(varName);
+        switch (item.type.getKind()) {
+        case INT:
+            return CONTEXT + ".get(" + intVarConstant(varName) + ")";
+        case LONG:
+            return "Long.parseLong(" + CONTEXT + ".getVariable(" + name + "))";
+        default:
+            break;
+        }
+        if (types.isSameType(item.type, stringType)) {
+            return CONTEXT + ".getVariable(" + name + ")";
+        }
+        throw new GenerationException(item.element, "@FromVar can only be used on int, long or String elements");
+    }
+
+    private void checkVariableType(Item item) throws GenerationException {
+        TypeKind kind = item.type.getKind();
+        if (kind != TypeKind.INT && kind != TypeKind.LONG && !types.isSameType(item.type, stringType)) {
+            throw new GenerationException(item.element, "@Var can only be used on int, long or String elements");
+        }
+    }
+
+    private String countExpression(Item item, Map<String, Item> previousItems) throws GenerationException {
+        Count count = item.element.getAnnotation(Count.class);
+        if (count == null || count.value().isEmpty() == count.var().isEmpty()) {
+            throw new GenerationException(item.element,
+                    "Arrays need a @Count annotation, with exactly one of 'value' or 'var'");
+        }
+        if (!count.var().isEmpty()) {
+            return CONTEXT + ".get(" + intVarConstant(count.var()) + ")";
+        }
+        Item countItem = previousItems.get(count.value());
+        if (countItem == null || countItem.type.getKind() != TypeKind.INT) {
+            throw new GenerationException(item.element,
+                    "@Count must refer to an int element read before this one, got '" + count.value() + "'");
+        }
+        return countItem.target;
+    }
+
+    private static boolean hasGeneratedParser(TypeElement type) {
+        if (type.getAnnotation(GenerateParser.class) != null) {
+            return true;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getAnnotation(GenerateParser.class) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void checkInstantiable(TypeElement model) throws GenerationException {
+        if (model.getKind() != ElementKind.CLASS || model.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new GenerationException(model, "Generated parsers can only create concrete classes");
+        }
+        if (model.getNestingKind() == NestingKind.MEMBER && !model.getModifiers().contains(Modifier.STATIC)) {
+            throw new GenerationException(model, "Generated parsers cannot create inner classes, make it static");
+        }
+        if (model.getNestingKind() == NestingKind.LOCAL || model.getNestingKind() == NestingKind.ANONYMOUS) {
+            throw new GenerationException(model, "Generated parsers cannot create local or anonymous classes");
+        }
+        checkAccessible(model);
+    }
+
+    private static void checkAccessible(Element element) throws GenerationException {
+        if (element.getModifiers().contains(Modifier.PRIVATE)) {
+            throw new GenerationException(element, "Elements used by generated parsers cannot be private");
+        }
+    }
+
+    private static String parserSimpleName(TypeElement model) {
+        StringBuilder name = new StringBuilder(model.getSimpleName());
+        Element enclosing = model.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.append(PARSER_SUFFIX).toString();
+    }
+
+    private String parserQualifiedName(TypeElement model) {
+        PackageElement pkg = elements.getPackageOf(model);
+        String simpleName = parserSimpleName(model);
+        return pkg.isUnnamed() ? simpleName : pkg.getQualifiedName() + "." + simpleName;
+    }
+
+    private String typeName(TypeMirror type) {
+        return types.erasure(type).toString();
+    }
+
+    private String intVarConstant(String varName) {
+        return intVarConstants.computeIfAbsent(varName, n -> "INT_VAR_" + intVarConstants.size());
+    }
+
+    private String literal(String value) {
+        return elements.getConstantExpression(value);
+    }
+
+    private static Set<String> namesOf(List<Item> items) {
+        Set<String> names = new HashSet<>();
+        names.add(CONTEXT);
+        for (Item item : items) {
+            names.add(item.name);
+        }
+        return names;
+    }
+
+    private static String uniqueName(String base, Set<String> reservedNames) {
+        String name = base;
+        for (int i = 2; reservedNames.contains(name); i++) {
+            name = base + i;
+        }
+        reservedNames.add(name);
+        return name;
+    }
+
+    /**
+     * An element to read from the input: a constructor parameter or a field.
+     */
+    private static class Item {
+
+        final VariableElement element;
+
+        final String name;
+
+        final TypeMirror type;
+
+        /**
+         * The expression to assign the value to: the name of a local variable or a qualified field.
+         */
+        final String target;
+
+        Item(VariableElement element, String target) {
+            this.element = element;
+            this.name = element.getSimpleName().toString();
+            this.type = element.asType();
+            this.target = target;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.hildan.hashcode.utils.parser.gen.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.JavaFileObject;
+
+import org.hildan.hashcode.utils.parser.gen.GenerateParser;
+
+/**
+ * An annotation processor generating the parsers requested via {@link GenerateParser}. It is registered as a service,
+ * so that it runs automatically when this library is on the compilation classpath.
+ */
+public class ParserProcessor extends AbstractProcessor {
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(GenerateParser.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        ParserGenerator generator = new ParserGenerator(processingEnv.getElementUtils(),
+                processingEnv.getTypeUtils());
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateParser.class)) {
+            try {
+                GeneratedParser parser = generate(generator, element);
+                write(parser);
+            } catch (GenerationException e) {
+                processingEnv.getMessager().printMessage(Kind.ERROR, e.getMessage(), e.getElement());
+            }
+        }
+        return true;
+    }
+
+    private static GeneratedParser generate(ParserGenerator generator, Element element) throws GenerationException {
+        if (element.getKind() == ElementKind.CONSTRUCTOR) {
+            return generator.generateFromConstructor((ExecutableElement) element);
+        }
+        if (element.getKind() == ElementKind.CLASS) {
+            return generator.generateFromFields((TypeElement) element);
+        }
+        throw new GenerationException(element, "@GenerateParser can only be used on classes and constructors");
+    }
+
+    private void write(GeneratedParser parser) throws GenerationException {
+        try {
+            JavaFileObject file = processingEnv.getFiler()
+                                               .createSourceFile(parser.getQualifiedName(), parser.getModel());
+            try (Writer writer = file.openWriter()) {
+                writer.write(parser.getSource());
+            }
+        } catch (IOException e) {
+            throw new GenerationException(parser.getModel(),
+                    "Could not write generated parser " + parser.getQualifiedName() + ": " + e.getMessage());
+        }
+    }
+}
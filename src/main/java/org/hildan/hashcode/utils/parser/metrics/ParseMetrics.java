@@ -0,0 +1,172 @@
+package org.hildan.hashcode.utils.parser.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Collects measurements of named parsers (see {@link org.hildan.hashcode.utils.parser.Parser#named(String)
+ * Parser.named()}): lines, tokens and bytes read, elapsed time and allocations. Metrics are opt-in via
+ * {@link org.hildan.hashcode.utils.parser.config.Config#withMetrics(ParseMetrics) Config.withMetrics()}. When they
+ * are disabled, named parsers only cost a null check.
+ * <p>
+ * A {@code ParseMetrics} instance can be shared by several parsing threads, and accumulates the measurements of all
+ * the parsings it is used for, until {@link #reset()} is called.
+ */
+public class ParseMetrics {
+
+    @Nullable
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = findAllocationSupportingBean();
+
+    private final ConcurrentMap<String, Accumulator> accumulators = new ConcurrentHashMap<>();
+
+    @Nullable
+    private static com.sun.management.ThreadMXBean findAllocationSupportingBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                    return sunBean;
+                }
+            }
+        } catch (LinkageError | RuntimeException e) {
+            // not a HotSpot-based JVM, allocations are simply not measured
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of bytes allocated so far by the current thread.
+     *
+     * @return the number of allocated bytes, or -1 if the JVM does not support this measurement
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREAD_BEAN == null ? -1 : THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Records one run of the parser with the given name.
+     *
+     * @param name
+     *         the name of the parser
+     * @param lines
+     *         the number of lines reached during the run
+     * @param tokens
+     *         the number of tokens read during the run
+     * @param bytes
+     *         the number of bytes consumed during the run, or -1 if unknown
+     * @param nanos
+     *         the duration of the run, in nanoseconds
+     * @param allocatedBytes
+     *         the number of bytes allocated during the run, or -1 if unknown
+     */
+    public void record(@NotNull String name, long lines, long tokens, long bytes, long nanos, long allocatedBytes) {
+        Accumulator acc = accumulators.computeIfAbsent(name, n -> new Accumulator());
+        acc.invocations.increment();
+        acc.lines.add(lines);
+        acc.tokens.add(tokens);
+        acc.nanos.add(nanos);
+        if (bytes < 0) {
+            acc.bytesUnknown = true;
+        } else {
+            acc.bytes.add(bytes);
+        }
+        if (allocatedBytes < 0) {
+            acc.allocationsUnknown = true;
+        } else {
+            acc.allocatedBytes.add(allocatedBytes);
+        }
+    }
+
+    /**
+     * Gets the stats of the parser with the given name.
+     *
+     * @param name
+     *         the name of the parser
+     *
+     * @return the stats of the given parser, or null if it was never run
+     */
+    @Nullable
+    public ParserStats getStats(@NotNull String name) {
+        Accumulator acc = accumulators.get(name);
+        return acc == null ? null : acc.toStats(name);
+    }
+
+    /**
+     * Gets the stats of all the parsers that were run, the most time-consuming first.
+     *
+     * @return the stats of all the measured parsers
+     */
+    @NotNull
+    public List<ParserStats> getStats() {
+        List<ParserStats> stats = new ArrayList<>(accumulators.size());
+        for (Map.Entry<String, Accumulator> e : accumulators.entrySet()) {
+            stats.add(e.getValue().toStats(e.getKey()));
+        }
+        stats.sort(Comparator.comparingLong(ParserStats::getNanos).reversed());
+        return stats;
+    }
+
+    /**
+     * Discards all the measurements recorded so far.
+     */
+    public void reset() {
+        accumulators.clear();
+    }
+
+    /**
+     * Creates a human-readable report of the stats of all the parsers that were run, the most time-consuming first.
+     *
+     * @return a report with one line per named parser
+     */
+    @NotNull
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-30s %8s %12s %12s %14s %12s %14s %14s%n", "parser", "calls", "time (ms)", "lines",
+                "lines/s", "tokens", "tokens/s", "allocated"));
+        for (ParserStats s : getStats()) {
+            sb.append(String.format("%-30s %8d %12.3f %12d %14.0f %12d %14.0f %14d%n", s.getName(), s.getInvocations(),
+                    s.getNanos() / 1e6, s.getLines(), s.getLinesPerSecond(), s.getTokens(), s.getTokensPerSecond(),
+                    s.getAllocatedBytes()));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return report();
+    }
+
+    private static class Accumulator {
+
+        private final LongAdder invocations = new LongAdder();
+
+        private final LongAdder lines = new LongAdder();
+
+        private final LongAdder tokens = new LongAdder();
+
+        private final LongAdder bytes = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        private volatile boolean bytesUnknown;
+
+        private volatile boolean allocationsUnknown;
+
+        ParserStats toStats(String name) {
+            return new ParserStats(name, invocations.sum(), lines.sum(), tokens.sum(),
+                    bytesUnknown ? -1 : bytes.sum(), nanos.sum(), allocationsUnknown ? -1 : allocatedBytes.sum());
+        }
+    }
+}
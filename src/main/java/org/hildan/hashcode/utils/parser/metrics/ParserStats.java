@@ -0,0 +1,120 @@
+package org.hildan.hashcode.utils.parser.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * The aggregated measurements of a named parser. All values are inclusive: a parser's stats include what its nested
+ * parsers read and spent.
+ */
+public class ParserStats {
+
+    private final String name;
+
+    private final long invocations;
+
+    private final long lines;
+
+    private final long tokens;
+
+    private final long bytes;
+
+    private final long nanos;
+
+    private final long allocatedBytes;
+
+    ParserStats(String name, long invocations, long lines, long tokens, long bytes, long nanos, long allocatedBytes) {
+        this.name = name;
+        this.invocations = invocations;
+        this.lines = lines;
+        this.tokens = tokens;
+        this.bytes = bytes;
+        this.nanos = nanos;
+        this.allocatedBytes = allocatedBytes;
+    }
+
+    /**
+     * @return the name of the measured parser
+     */
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the number of times the parser was run
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * @return the number of input lines reached by the parser
+     */
+    public long getLines() {
+        return lines;
+    }
+
+    /**
+     * @return the number of tokens read by the parser
+     */
+    public long getTokens() {
+        return tokens;
+    }
+
+    /**
+     * @return the number of bytes (or chars, for reader-based inputs) consumed by the parser, or -1 if the input
+     * does not report its position
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the total time spent in the parser, in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return the number of bytes allocated by the parsing thread while running the parser, or -1 if the JVM does not
+     * support allocation measurement
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return the number of lines read per second
+     */
+    public double getLinesPerSecond() {
+        return perSecond(lines);
+    }
+
+    /**
+     * @return the number of tokens read per second
+     */
+    public double getTokensPerSecond() {
+        return perSecond(tokens);
+    }
+
+    /**
+     * @return the number of bytes read per second, or -1 if the input does not report its position
+     */
+    public double getBytesPerSecond() {
+        return bytes < 0 ? -1 : perSecond(bytes);
+    }
+
+    private double perSecond(long count) {
+        return nanos == 0 ? 0 : count * (double) TimeUnit.SECONDS.toNanos(1) / nanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d calls, %.3f ms, %d lines (%.0f/s), %d tokens (%.0f/s), %d bytes, %d allocated",
+                name, invocations, nanos / 1e6, lines, getLinesPerSecond(), tokens, getTokensPerSecond(), bytes,
+                allocatedBytes);
+    }
+}
@@ -0,0 +1,44 @@
+package org.hildan.hashcode.utils.parser.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Allocates the direct buffers backing the off-heap tables. A single direct buffer cannot exceed 2GB, so big tables
+ * are split into chunks of a fixed power-of-two number of elements.
+ */
+final class DirectChunks {
+
+    private DirectChunks() {
+    }
+
+    static long checkedSize(long rows, int cols) {
+        if (rows < 0 || cols < 0) {
+            throw new IllegalArgumentException("The dimensions of a table cannot be negative");
+        }
+        return Math.multiplyExact(rows, cols);
+    }
+
+    static ByteBuffer[] allocate(long size, int chunkShift, int elementBytes) {
+        long chunkSize = 1L << chunkShift;
+        int nChunks = Math.toIntExact((size + chunkSize - 1) >>> chunkShift);
+        ByteBuffer[] chunks = new ByteBuffer[nChunks];
+        for (int c = 0; c < nChunks; c++) {
+            long nElements = Math.min(chunkSize, size - c * chunkSize);
+            chunks[c] = ByteBuffer.allocateDirect((int) nElements * elementBytes).order(ByteOrder.nativeOrder());
+        }
+        return chunks;
+    }
+
+    static void checkRange(long size, long index, int offset, int length, int arrayLength) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Range [%d, %d) out of bounds for array of length %d", offset, offset + length,
+                            arrayLength));
+        }
+        if (index < 0 || index > size - length) {
+            throw new IndexOutOfBoundsException(
+                    String.format("Range [%d, %d) out of bounds for table of size %d", index, index + length, size));
+        }
+    }
+}
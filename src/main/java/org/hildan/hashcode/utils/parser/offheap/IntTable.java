@@ -0,0 +1,193 @@
+package org.hildan.hashcode.utils.parser.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * A read-mostly table of ints stored outside of the garbage-collected heap, in direct buffers. This is meant for huge
+ * input data that is read once and then only accessed by index, so that it does not weigh on garbage collections.
+ * <p>
+ * The table has a number of rows and columns, and its elements are also accessible via a flat index {@code row *
+ * cols() + col}. The table may contain more than {@link Integer#MAX_VALUE} elements. Its memory is released when the
+ * table is garbage collected, and counts towards the JVM's {@code -XX:MaxDirectMemorySize} limit.
+ * <p>
+ * Concurrent reads are safe, but writes must be published to other threads by the usual means.
+ */
+public final class IntTable {
+
+    private static final int CHUNK_SHIFT = 28;
+
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+
+    private final long rows;
+
+    private final int cols;
+
+    private final long size;
+
+    private final IntBuffer[] chunks;
+
+    /**
+     * Creates a new table of the given dimensions, filled with zeros.
+     *
+     * @param rows
+     *         the number of rows of the table
+     * @param cols
+     *         the number of columns of the table
+     *
+     * @throws IllegalArgumentException
+     *         if one of the dimensions is negative
+     */
+    public IntTable(long rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.size = DirectChunks.checkedSize(rows, cols);
+        ByteBuffer[] buffers = DirectChunks.allocate(size, CHUNK_SHIFT, Integer.BYTES);
+        this.chunks = new IntBuffer[buffers.length];
+        for (int c = 0; c < buffers.length; c++) {
+            chunks[c] = buffers[c].asIntBuffer();
+        }
+    }
+
+    /**
+     * @return the number of rows of this table
+     */
+    public long rows() {
+        return rows;
+    }
+
+    /**
+     * @return the number of columns of this table
+     */
+    public int cols() {
+        return cols;
+    }
+
+    /**
+     * @return the total number of elements of this table
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Gets the element at the given flat index.
+     *
+     * @param index
+     *         the flat index of the element, between 0 and {@link #size()}
+     *
+     * @return the element at the given index
+     * @throws IndexOutOfBoundsException
+     *         if the index is out of bounds
+     */
+    public int get(long index) {
+        checkIndex(index);
+        return chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+    }
+
+    /**
+     * Gets the element at the given position.
+     *
+     * @param row
+     *         the row of the element
+     * @param col
+     *         the column of the element
+     *
+     * @return the element at the given position
+     * @throws IndexOutOfBoundsException
+     *         if the position is out of bounds
+     */
+    public int get(long row, int col) {
+        return get(flatIndex(row, col));
+    }
+
+    /**
+     * Sets the element at the given flat index.
+     *
+     * @param index
+     *         the flat index of the element, between 0 and {@link #size()}
+     * @param value
+     *         the new value of the element
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the index is out of bounds
+     */
+    public void set(long index, int value) {
+        checkIndex(index);
+        chunks[(int) (index >>> CHUNK_SHIFT)].put((int) (index & CHUNK_MASK), value);
+    }
+
+    /**
+     * Sets the element at the given position.
+     *
+     * @param row
+     *         the row of the element
+     * @param col
+     *         the column of the element
+     * @param value
+     *         the new value of the element
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the position is out of bounds
+     */
+    public void set(long row, int col, int value) {
+        set(flatIndex(row, col), value);
+    }
+
+    /**
+     * Copies {@code length} elements of the given array into this table, starting at the given flat index.
+     *
+     * @param index
+     *         the flat index of the first element to set
+     * @param src
+     *         the array to copy the elements from
+     * @param offset
+     *         the index in the array of the first element to copy
+     * @param length
+     *         the number of elements to copy
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the range is out of the bounds of this table or of the array
+     */
+    public void set(long index, int[] src, int offset, int length) {
+        DirectChunks.checkRange(size, index, offset, length, src.length);
+        for (int i = 0; i < length; i++, index++) {
+            chunks[(int) (index >>> CHUNK_SHIFT)].put((int) (index & CHUNK_MASK), src[offset + i]);
+        }
+    }
+
+    /**
+     * Copies {@code length} elements of this table into the given array, starting at the given flat index.
+     *
+     * @param index
+     *         the flat index of the first element to copy
+     * @param dst
+     *         the array to copy the elements into
+     * @param offset
+     *         the index in the array of the first element to set
+     * @param length
+     *         the number of elements to copy
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the range is out of the bounds of this table or of the array
+     */
+    public void get(long index, int[] dst, int offset, int length) {
+        DirectChunks.checkRange(size, index, offset, length, dst.length);
+        for (int i = 0; i < length; i++, index++) {
+            dst[offset + i] = chunks[(int) (index >>> CHUNK_SHIFT)].get((int) (index & CHUNK_MASK));
+        }
+    }
+
+    private long flatIndex(long row, int col) {
+        if (col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("Column " + col + " out of bounds for table of " + cols + " columns");
+        }
+        return row * cols + col;
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for table of size " + size);
+        }
+    }
+}
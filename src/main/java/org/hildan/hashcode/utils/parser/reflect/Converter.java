@@ -0,0 +1,25 @@
+package org.hildan.hashcode.utils.parser.reflect;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Converts strings into objects of a given type. Converters are registered and resolved via {@link Converters}.
+ *
+ * @param <T>
+ *         the target type of the conversion
+ */
+@FunctionalInterface
+public interface Converter<T> {
+
+    /**
+     * Converts the given string value.
+     *
+     * @param value
+     *         the string value to convert
+     *
+     * @return the converted value
+     * @throws StringConversionException
+     *         if the string value cannot be converted
+     */
+    T convert(@NotNull String value) throws StringConversionException;
+}
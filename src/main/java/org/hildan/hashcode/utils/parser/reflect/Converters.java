@@ -0,0 +1,189 @@
+package org.hildan.hashcode.utils.parser.reflect;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A registry of the {@link Converter}s used to convert strings into other types. Converters are resolved only once
+ * per target type.
+ * <p>
+ * Converters are provided by default for String, primitive types and their wrappers (the ones for {@code int}, {@code
+ * long} and {@code double} do not box the values), and for all enum types (using the names of the constants).
+ * Converters for other types, or replacing the default ones, can be added via {@link #register(Class, Converter)}.
+ * Registration should happen before parsing, because the field setters resolve their converter once.
+ */
+public final class Converters {
+
+    private static final Map<Class<?>, Converter<?>> registeredConverters = new ConcurrentHashMap<>();
+
+    private static final ClassValue<Optional<Converter<?>>> converters = new ClassValue<Optional<Converter<?>>>() {
+        @Override
+        protected Optional<Converter<?>> computeValue(Class<?> type) {
+            return Optional.ofNullable(resolve(type));
+        }
+    };
+
+    static {
+        registerDefault(boolean.class, value -> convertToBoolean(boolean.class, value));
+        registerDefault(Boolean.class, value -> convertToBoolean(Boolean.class, value));
+        registerDefault(int.class, (ToIntConverter) value -> convertToInt(int.class, value));
+        registerDefault(Integer.class, (ToIntConverter) value -> convertToInt(Integer.class, value));
+        registerDefault(long.class, (ToLongConverter) value -> convertToLong(long.class, value));
+        registerDefault(Long.class, (ToLongConverter) value -> convertToLong(Long.class, value));
+        registerDefault(double.class, (ToDoubleConverter) value -> convertToDouble(double.class, value));
+        registerDefault(Double.class, (ToDoubleConverter) value -> convertToDouble(Double.class, value));
+        registerDefault(float.class, value -> convertToFloat(float.class, value));
+        registerDefault(Float.class, value -> convertToFloat(Float.class, value));
+        registerDefault(char.class, value -> convertToChar(char.class, value));
+        registerDefault(Character.class, value -> convertToChar(Character.class, value));
+        registerDefault(String.class, value -> value);
+    }
+
+    private Converters() {
+    }
+
+    private static void registerDefault(@NotNull Class<?> type, @NotNull Converter<?> converter) {
+        registeredConverters.put(type, converter);
+    }
+
+    /**
+     * Registers the given converter for the given type, replacing the existing converter if any.
+     *
+     * @param type
+     *         the target type of the conversion
+     * @param converter
+     *         the converter to use to convert strings into the given type
+     * @param <T>
+     *         the target type of the conversion
+     */
+    public static <T> void register(@NotNull Class<T> type, @NotNull Converter<? extends T> converter) {
+        registeredConverters.put(type, converter);
+        converters.remove(type);
+    }
+
+    /**
+     * Gets the converter for the given type.
+     *
+     * @param type
+     *         the target type of the conversion
+     * @param <T>
+     *         the target type of the conversion
+     *
+     * @return the converter for the given type
+     * @throws IllegalArgumentException
+     *         if no converter is available for the given type
+     */
+    @NotNull
+    public static <T> Converter<T> get(@NotNull Class<T> type) throws IllegalArgumentException {
+        return find(type).orElseThrow(() -> new IllegalArgumentException(
+                "No converter is registered for type '" + type.getSimpleName() + "'"));
+    }
+
+    /**
+     * Finds the converter for the given type, if any.
+     *
+     * @param type
+     *         the target type of the conversion
+     * @param <T>
+     *         the target type of the conversion
+     *
+     * @return the converter for the given type, or an empty optional if no converter is available for this type
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    public static <T> Optional<Converter<T>> find(@NotNull Class<T> type) {
+        return converters.get(type).map(c -> (Converter<T>) c);
+    }
+
+    /**
+     * Checks whether a converter is available for the given type.
+     *
+     * @param type
+     *         the target type of the conversion
+     *
+     * @return true if {@link #get(Class)} can provide a converter for the given type
+     */
+    public static boolean isSupported(@NotNull Class<?> type) {
+        return converters.get(type).isPresent();
+    }
+
+    @Nullable
+    private static Converter<?> resolve(@NotNull Class<?> type) {
+        Converter<?> converter = registeredConverters.get(type);
+        if (converter != null) {
+            return converter;
+        }
+        if (type.isEnum()) {
+            return uncheckedEnumConverter(type);
+        }
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Converter<?> uncheckedEnumConverter(@NotNull Class<?> enumType) {
+        return enumConverter((Class) enumType);
+    }
+
+    private static <E extends Enum<E>> Converter<E> enumConverter(@NotNull Class<E> enumType) {
+        return value -> {
+            try {
+                return Enum.valueOf(enumType, value);
+            } catch (IllegalArgumentException e) {
+                throw new StringConversionException(enumType, value, e);
+            }
+        };
+    }
+
+    private static boolean convertToBoolean(@NotNull Class<?> type, @NotNull String value) {
+        if (value.equalsIgnoreCase("false") || "0".equals(value)) {
+            return false;
+        }
+        if (value.equalsIgnoreCase("true") || "1".equals(value)) {
+            return true;
+        }
+        throw new StringConversionException(type, value, "Cannot convert value '" + value + "' to boolean");
+    }
+
+    private static int convertToInt(@NotNull Class<?> type, @NotNull String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new StringConversionException(type, value, e);
+        }
+    }
+
+    private static long convertToLong(@NotNull Class<?> type, @NotNull String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new StringConversionException(type, value, e);
+        }
+    }
+
+    private static double convertToDouble(@NotNull Class<?> type, @NotNull String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new StringConversionException(type, value, e);
+        }
+    }
+
+    private static float convertToFloat(@NotNull Class<?> type, @NotNull String value) {
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            throw new StringConversionException(type, value, e);
+        }
+    }
+
+    private static char convertToChar(@NotNull Class<?> type, @NotNull String value) {
+        if (value.length() != 1) {
+            throw new StringConversionException(type, value);
+        }
+        return value.charAt(0);
+    }
+}
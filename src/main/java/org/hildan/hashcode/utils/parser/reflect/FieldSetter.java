@@ -0,0 +1,279 @@
+package org.hildan.hashcode.utils.parser.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.hildan.hashcode.utils.parser.InputParsingException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Sets the value of a given field on instances of its declaring class. The underlying {@link MethodHandle}s are
+ * resolved once at creation, so that setting the field is much cheaper than looking it up by name every time.
+ * <p>
+ * Instances are obtained via {@link ReflectUtils#getSetter(Class, String)}, which caches them per class.
+ */
+public final class FieldSetter {
+
+    private static final MethodType OBJECT_SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType INT_SETTER_TYPE = MethodType.methodType(void.class, Object.class, int.class);
+
+    private static final MethodType LONG_SETTER_TYPE = MethodType.methodType(void.class, Object.class, long.class);
+
+    private static final MethodType DOUBLE_SETTER_TYPE = MethodType.methodType(void.class, Object.class,
+            double.class);
+
+    private final Field field;
+
+    private final Class<?> boxedType;
+
+    private final MethodHandle objectSetter;
+
+    @Nullable
+    private final MethodHandle intSetter;
+
+    @Nullable
+    private final MethodHandle longSetter;
+
+    @Nullable
+    private final MethodHandle doubleSetter;
+
+    @Nullable
+    private final StringSetter stringSetter;
+
+    FieldSetter(@NotNull Field field) throws IllegalAccessException {
+        this.field = field;
+        this.boxedType = MethodType.methodType(field.getType()).wrap().returnType();
+        field.setAccessible(true);
+        MethodHandle setter = createSetter(field);
+        this.objectSetter = setter.asType(OBJECT_SETTER_TYPE);
+        this.intSetter = adapt(setter, INT_SETTER_TYPE);
+        this.longSetter = adapt(setter, LONG_SETTER_TYPE);
+        this.doubleSetter = adapt(setter, DOUBLE_SETTER_TYPE);
+        this.stringSetter = createStringSetter(field.getType());
+    }
+
+    private static MethodHandle createSetter(@NotNull Field field) throws IllegalAccessException {
+        if (Modifier.isStatic(field.getModifiers())) {
+            MethodHandle setter = MethodHandles.lookup().unreflectSetter(field);
+            return MethodHandles.dropArguments(setter, 0, field.getDeclaringClass());
+        }
+        if (!Modifier.isFinal(field.getModifiers())) {
+            return MethodHandles.lookup().unreflectSetter(field);
+        }
+        // method handles cannot write final fields, contrary to Field.set() on an accessible field
+        try {
+            Method fieldSet = Field.class.getMethod("set", Object.class, Object.class);
+            MethodHandle setter = MethodHandles.lookup().unreflect(fieldSet).bindTo(field);
+            return setter.asType(MethodType.methodType(void.class, field.getDeclaringClass(), field.getType()));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Field.set() should always exist", e);
+        }
+    }
+
+    /**
+     * Resolves the converter of the field's type once, and binds it to the most specific setter, so that primitive
+     * values are not boxed.
+     *
+     * @return the string setter, or null if no converter is available for the field's type
+     */
+    @Nullable
+    private StringSetter createStringSetter(@NotNull Class<?> type) {
+        Converter<?> converter = Converters.find(type).orElse(null);
+        if (converter == null) {
+            return null;
+        }
+        if (converter instanceof ToIntConverter && intSetter != null) {
+            ToIntConverter intConverter = (ToIntConverter) converter;
+            MethodHandle setter = intSetter;
+            return (obj, value) -> {
+                setter.invokeExact(obj, intConverter.convertToInt(value));
+            };
+        }
+        if (converter instanceof ToLongConverter && longSetter != null) {
+            ToLongConverter longConverter = (ToLongConverter) converter;
+            MethodHandle setter = longSetter;
+            return (obj, value) -> {
+                setter.invokeExact(obj, longConverter.convertToLong(value));
+            };
+        }
+        if (converter instanceof ToDoubleConverter && doubleSetter != null) {
+            ToDoubleConverter doubleConverter = (ToDoubleConverter) converter;
+            MethodHandle setter = doubleSetter;
+            return (obj, value) -> {
+                setter.invokeExact(obj, doubleConverter.convertToDouble(value));
+            };
+        }
+        MethodHandle setter = objectSetter;
+        return (obj, value) -> {
+            setter.invokeExact(obj, (Object) converter.convert(value));
+        };
+    }
+
+    @Nullable
+    private static MethodHandle adapt(@NotNull MethodHandle setter, @NotNull MethodType type) {
+        try {
+            return setter.asType(type);
+        } catch (WrongMethodTypeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the name of the field set by this setter
+     */
+    public String getName() {
+        return field.getName();
+    }
+
+    /**
+     * @return the type of the field set by this setter
+     */
+    public Class<?> getType() {
+        return field.getType();
+    }
+
+    /**
+     * Sets the field on the given object to the given value. If the value is a string and the field is not, the value
+     * is converted to the type of the field.
+     *
+     * @param obj
+     *         the object to set the field on
+     * @param value
+     *         the value to set
+     *
+     * @throws InputParsingException
+     *         if the value cannot be assigned to the field
+     */
+    public void set(@NotNull Object obj, @Nullable Object value) throws InputParsingException {
+        if (value instanceof String) {
+            setString(obj, (String) value);
+            return;
+        }
+        if (value != null && !boxedType.isInstance(value)) {
+            throw typeMismatch(value, value.getClass());
+        }
+        if (value == null && field.getType().isPrimitive()) {
+            throw new InputParsingException(
+                    String.format("Cannot assign null to field '%s' of primitive type %s", field.getName(),
+                            field.getType().getSimpleName()));
+        }
+        try {
+            objectSetter.invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw setFailure(value, e);
+        }
+    }
+
+    private void setString(@NotNull Object obj, @NotNull String value) throws InputParsingException {
+        if (stringSetter == null) {
+            throw new InputParsingException(
+                    "No converter is registered for type '" + field.getType().getSimpleName()
+                            + "', cannot assign value '" + value + "' to field '" + field.getName() + "'");
+        }
+        try {
+            stringSetter.set(obj, value);
+        } catch (StringConversionException e) {
+            throw new InputParsingException(
+                    "Type mismatch, cannot assign value '" + value + "' to field '" + field.getName() + "' of type "
+                            + field.getType().getSimpleName(), e);
+        } catch (Throwable e) {
+            throw setFailure(value, e);
+        }
+    }
+
+    /**
+     * Sets the field on the given object to the given int value, without boxing it. The field may be of any type an
+     * int can be assigned to without explicit conversion, such as {@code int}, {@code long} or {@code Integer}.
+     *
+     * @param obj
+     *         the object to set the field on
+     * @param value
+     *         the value to set
+     *
+     * @throws InputParsingException
+     *         if an int cannot be assigned to the field
+     */
+    public void setInt(@NotNull Object obj, int value) throws InputParsingException {
+        if (intSetter == null) {
+            throw typeMismatch(value, int.class);
+        }
+        try {
+            intSetter.invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw setFailure(value, e);
+        }
+    }
+
+    /**
+     * Sets the field on the given object to the given long value, without boxing it. The field may be of any type a
+     * long can be assigned to without explicit conversion, such as {@code long}, {@code double} or {@code Long}.
+     *
+     * @param obj
+     *         the object to set the field on
+     * @param value
+     *         the value to set
+     *
+     * @throws InputParsingException
+     *         if a long cannot be assigned to the field
+     */
+    public void setLong(@NotNull Object obj, long value) throws InputParsingException {
+        if (longSetter == null) {
+            throw typeMismatch(value, long.class);
+        }
+        try {
+            longSetter.invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw setFailure(value, e);
+        }
+    }
+
+    /**
+     * Sets the field on the given object to the given double value, without boxing it. The field may be of any type a
+     * double can be assigned to without explicit conversion, such as {@code double} or {@code Double}.
+     *
+     * @param obj
+     *         the object to set the field on
+     * @param value
+     *         the value to set
+     *
+     * @throws InputParsingException
+     *         if a double cannot be assigned to the field
+     */
+    public void setDouble(@NotNull Object obj, double value) throws InputParsingException {
+        if (doubleSetter == null) {
+            throw typeMismatch(value, double.class);
+        }
+        try {
+            doubleSetter.invokeExact(obj, value);
+        } catch (Throwable e) {
+            throw setFailure(value, e);
+        }
+    }
+
+    private InputParsingException typeMismatch(Object value, Class<?> valueType) {
+        return new InputParsingException(
+                String.format("Type mismatch, cannot assign value '%s' of type %s to field '%s' of type %s", value,
+                        valueType.getSimpleName(), field.getName(), field.getType().getSimpleName()));
+    }
+
+    private InputParsingException setFailure(Object value, Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new InputParsingException(
+                "Could not set field '" + field.getDeclaringClass().getSimpleName() + "." + field.getName()
+                        + "' to value '" + value + "'", cause);
+    }
+
+    @FunctionalInterface
+    private interface StringSetter {
+        void set(Object obj, String value) throws Throwable;
+    }
+}
@@ -1,64 +1,80 @@
 package org.hildan.hashcode.utils.parser.reflect;
 
 import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.hildan.hashcode.utils.parser.InputParsingException;
-import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class ReflectUtils {
 
-    public static void setField(@NotNull Object obj, @NotNull String fieldName, @Nullable Object value) throws
+    private static final ClassValue<Map<String, FieldSetter>> SETTERS = new ClassValue<Map<String, FieldSetter>>() {
+        @Override
+        protected Map<String, FieldSetter> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /**
+     * Gets a setter for the given field of the given class. Setters are cached per class, so that the field is only
+     * looked up the first time.
+     *
+     * @param clazz
+     *         the class declaring the field
+     * @param fieldName
+     *         the name of the field
+     *
+     * @return a setter for the given field
+     * @throws InputParsingException
+     *         if the given class does not declare the given field, or if it cannot be accessed
+     */
+    @NotNull
+    public static FieldSetter getSetter(@NotNull Class<?> clazz, @NotNull String fieldName) throws
+            InputParsingException {
+        Map<String, FieldSetter> setters = SETTERS.get(clazz);
+        FieldSetter setter = setters.get(fieldName);
+        if (setter == null) {
+            setter = createSetter(clazz, fieldName);
+            setters.putIfAbsent(fieldName, setter);
+        }
+        return setter;
+    }
+
+    @NotNull
+    private static FieldSetter createSetter(@NotNull Class<?> clazz, @NotNull String fieldName) throws
             InputParsingException {
-        Class<?> clazz = obj.getClass();
         try {
             Field field = clazz.getDeclaredField(fieldName);
-            setField(obj, field, value);
+            return new FieldSetter(field);
         } catch (NoSuchFieldException e) {
             throw new InputParsingException(
                     String.format("The provided field name '%s' was not found in class '%s'", fieldName,
                             clazz.getSimpleName()), e);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new InputParsingException(
+                    String.format("The field '%s.%s' cannot be accessed", clazz.getSimpleName(), fieldName), e);
         }
     }
 
-    private static void setField(@NotNull Object obj, @NotNull Field field, @Nullable Object value) throws
+    public static void setField(@NotNull Object obj, @NotNull String fieldName, @Nullable Object value) throws
             InputParsingException {
-        try {
-            field.setAccessible(true);
-            field.set(obj, convertIfNecessary(field, value));
-        } catch (IllegalAccessException e) {
-            throw new InputParsingException(
-                    "Could not set field '" + field.getDeclaringClass().getSimpleName() + "." + field.getName()
-                            + "' to value '" + value + "'", e);
-        }
+        getSetter(obj.getClass(), fieldName).set(obj, value);
     }
 
-    @Contract("_, null -> null; _, !null -> !null")
-    private static Object convertIfNecessary(@NotNull Field field, @Nullable Object value) throws
+    public static void setInt(@NotNull Object obj, @NotNull String fieldName, int value) throws
             InputParsingException {
-        if (value == null) {
-            return null;
-        }
-        if (value instanceof String) {
-            return convertString(field, (String) value);
-        }
-        if (!field.getType().isInstance(value)) {
-            throw new InputParsingException(
-                    String.format("Type mismatch, cannot assign value '%s' of type %s to field '%s' of type %s", value,
-                            value.getClass().getSimpleName(), field.getName(), field.getType().getSimpleName()));
-        }
-        return value;
+        getSetter(obj.getClass(), fieldName).setInt(obj, value);
     }
 
-    @NotNull
-    private static Object convertString(@NotNull Field field, @NotNull String value) throws InputParsingException {
-        try {
-            return StringConverter.convert(field.getType(), value);
-        } catch (StringConversionException e) {
-            throw new InputParsingException(
-                    "Type mismatch, cannot assign value '" + value + "' to field '" + field.getName() + "' of type "
-                            + field.getType().getSimpleName(), e);
-        }
+    public static void setLong(@NotNull Object obj, @NotNull String fieldName, long value) throws
+            InputParsingException {
+        getSetter(obj.getClass(), fieldName).setLong(obj, value);
+    }
+
+    public static void setDouble(@NotNull Object obj, @NotNull String fieldName, double value) throws
+            InputParsingException {
+        getSetter(obj.getClass(), fieldName).setDouble(obj, value);
     }
 }
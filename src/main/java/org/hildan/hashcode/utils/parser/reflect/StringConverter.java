@@ -7,7 +7,7 @@ import org.jetbrains.annotations.NotNull;
 
 /**
  * A converter that turns strings into primitive types or primitive wrapper types. It also supports conversion to
- * String, which is a no-op.
+ * String, which is a no-op. The actual conversions are delegated to the converters registered in {@link Converters}.
  */
 class StringConverter {
 
@@ -57,9 +57,11 @@ class StringConverter {
      * Converts the given string value into the primitive wrapper type corresponding to the given type. Since this
      * method is generic, it cannot convert to a primitive type, but if the given type is a primitive type, then the
      * corresponding wrapper type is returned. If the targetType is String, then this method just returns its input.
+     * Other types are supported if a converter is available for them in {@link Converters}.
      *
      * @param targetType
-     *         the target type of the conversion. Must be a primitive type, a primitive wrapper type, or String.
+     *         the target type of the conversion. Must be a primitive type, a primitive wrapper type, String, or a type
+     *         supported by {@link Converters}.
      * @param value
      *         the string value to convert
      *
@@ -67,43 +69,12 @@ class StringConverter {
      * language limitation (we cannot return primitives in generics).
      *
      * @throws StringConversionException
-     *         if the string value cannot be converted to the given type, or if the target type is not supported
+     *         if the string value cannot be converted to the given type
+     * @throws IllegalArgumentException
+     *         if the target type is not supported
      */
     public static @NotNull Object convert(@NotNull Class<?> targetType, @NotNull String value) throws
             StringConversionException {
-        try {
-            if (targetType.equals(boolean.class) || targetType.equals(Boolean.class)) {
-                return convertToBoolean(value);
-            } else if (targetType.equals(long.class) || targetType.equals(Long.class)) {
-                return Long.valueOf(value);
-            } else if (targetType.equals(int.class) || targetType.equals(Integer.class)) {
-                return Integer.valueOf(value);
-            } else if (targetType.equals(double.class) || targetType.equals(Double.class)) {
-                return Double.valueOf(value);
-            } else if (targetType.equals(float.class) || targetType.equals(Float.class)) {
-                return Float.valueOf(value);
-            } else if (targetType.equals(char.class) || targetType.equals(Character.class)) {
-                if (value.length() != 1) {
-                    throw new StringConversionException(targetType, value);
-                }
-                return value.charAt(0);
-            } else if (targetType.equals(String.class)) {
-                return value;
-            }
-        } catch (NumberFormatException e) {
-            throw new StringConversionException(targetType, value, e);
-        }
-        throw new IllegalArgumentException(
-                "The provided type '" + targetType.getSimpleName() + "' is not String or a wrapper of primitive");
-    }
-
-    private static boolean convertToBoolean(@NotNull String value) {
-        if (value.equalsIgnoreCase("false") || "0".equals(value)) {
-            return false;
-        }
-        if (value.equalsIgnoreCase("true") || "1".equals(value)) {
-            return true;
-        }
-        throw new StringConversionException(Boolean.class, value, "Cannot convert value '" + value + "' to boolean");
+        return Converters.get(targetType).convert(value);
     }
 }
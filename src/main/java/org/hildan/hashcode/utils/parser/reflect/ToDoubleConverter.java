@@ -0,0 +1,28 @@
+package org.hildan.hashcode.utils.parser.reflect;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Converter} specialized for {@code double} values, which does not box the values it converts unless it is
+ * used as a plain {@code Converter<Double>}.
+ */
+@FunctionalInterface
+public interface ToDoubleConverter extends Converter<Double> {
+
+    /**
+     * Converts the given string value to a double.
+     *
+     * @param value
+     *         the string value to convert
+     *
+     * @return the converted value
+     * @throws StringConversionException
+     *         if the string value cannot be converted
+     */
+    double convertToDouble(@NotNull String value) throws StringConversionException;
+
+    @Override
+    default Double convert(@NotNull String value) throws StringConversionException {
+        return convertToDouble(value);
+    }
+}
@@ -0,0 +1,28 @@
+package org.hildan.hashcode.utils.parser.reflect;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Converter} specialized for {@code int} values, which does not box the values it converts unless it is used
+ * as a plain {@code Converter<Integer>}.
+ */
+@FunctionalInterface
+public interface ToIntConverter extends Converter<Integer> {
+
+    /**
+     * Converts the given string value to a int.
+     *
+     * @param value
+     *         the string value to convert
+     *
+     * @return the converted value
+     * @throws StringConversionException
+     *         if the string value cannot be converted
+     */
+    int convertToInt(@NotNull String value) throws StringConversionException;
+
+    @Override
+    default Integer convert(@NotNull String value) throws StringConversionException {
+        return convertToInt(value);
+    }
+}
@@ -0,0 +1,28 @@
+package org.hildan.hashcode.utils.parser.reflect;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A {@link Converter} specialized for {@code long} values, which does not box the values it converts unless it is used
+ * as a plain {@code Converter<Long>}.
+ */
+@FunctionalInterface
+public interface ToLongConverter extends Converter<Long> {
+
+    /**
+     * Converts the given string value to a long.
+     *
+     * @param value
+     *         the string value to convert
+     *
+     * @return the converted value
+     * @throws StringConversionException
+     *         if the string value cannot be converted
+     */
+    long convertToLong(@NotNull String value) throws StringConversionException;
+
+    @Override
+    default Long convert(@NotNull String value) throws StringConversionException {
+        return convertToLong(value);
+    }
+}
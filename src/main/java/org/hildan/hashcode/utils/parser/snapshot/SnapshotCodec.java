@@ -0,0 +1,73 @@
+package org.hildan.hashcode.utils.parser.snapshot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * Defines how a parsed problem is written to and read from a binary snapshot. Implementations should write primitive
+ * arrays in bulk, for instance using the helpers of {@link SnapshotIO}.
+ *
+ * @param <T>
+ *         the type of objects this codec encodes
+ */
+public interface SnapshotCodec<T> {
+
+    /**
+     * Writes the given object to the given stream.
+     *
+     * @param value
+     *         the object to write
+     * @param out
+     *         the stream to write the object to
+     *
+     * @throws IOException
+     *         if an error occurs while writing to the stream
+     */
+    void write(T value, DataOutputStream out) throws IOException;
+
+    /**
+     * Reads an object from the given stream, as written by {@link #write(Object, DataOutputStream)}.
+     *
+     * @param in
+     *         the stream to read the object from
+     *
+     * @return the object read from the stream
+     * @throws IOException
+     *         if an error occurs while reading from the stream, or if the data is corrupt
+     */
+    T read(DataInputStream in) throws IOException;
+
+    /**
+     * Creates a codec relying on Java serialization. This supports any object graph with no extra code, but is much
+     * slower than a dedicated codec for large primitive data.
+     *
+     * @param <T>
+     *         the type of objects to encode
+     *
+     * @return a codec using Java serialization
+     */
+    static <T extends Serializable> SnapshotCodec<T> serialization() {
+        return new SnapshotCodec<T>() {
+            @Override
+            public void write(T value, DataOutputStream out) throws IOException {
+                ObjectOutputStream objectOut = new ObjectOutputStream(out);
+                objectOut.writeObject(value);
+                objectOut.flush();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T read(DataInputStream in) throws IOException {
+                try {
+                    return (T) new ObjectInputStream(in).readObject();
+                } catch (ClassNotFoundException | ClassCastException e) {
+                    throw new IOException("The snapshot does not contain a valid object", e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,277 @@
+package org.hildan.hashcode.utils.parser.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.hildan.hashcode.utils.parser.HCParser;
+import org.hildan.hashcode.utils.parser.InputParsingException;
+import org.hildan.hashcode.utils.parser.config.Config;
+import org.hildan.hashcode.utils.parser.context.Context;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link HCParser} that caches the problems it parses from files as binary snapshots. After the first parse of a
+ * file, a snapshot is written next to it (with the {@value #SNAPSHOT_EXTENSION} extension). Later calls to {@link
+ * #parseFile(String)} load the snapshot instead of parsing the file again, as long as the content of the file and the
+ * parser version have not changed.
+ * <p>
+ * Snapshots are keyed by a hash of the content of the file. The size and modification time of the file are also
+ * stored in the snapshot, and the file is only hashed again when they differ from the current ones.
+ * <p>
+ * The parser version is provided by the user, and must be changed whenever the parsing logic or the codec changes, so
+ * that stale snapshots are ignored. Snapshots cannot be used with parsers returning lazy sections of the input.
+ * <p>
+ * Failing to read or write a snapshot is not an error: the file is simply parsed as usual.
+ *
+ * @param <T>
+ *         the type of objects this parser yields
+ */
+public class SnapshotHCParser<T> extends HCParser<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SnapshotHCParser.class);
+
+    /**
+     * The extension added to the input file's name to get its snapshot's name.
+     */
+    public static final String SNAPSHOT_EXTENSION = ".snapshot";
+
+    private static final int MAGIC = 0x48435350;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private static final int IO_BUFFER_SIZE = 1 << 16;
+
+    private static final long MAX_HASH_WINDOW_SIZE = 1 << 30;
+
+    private final SnapshotCodec<T> codec;
+
+    private final String parserVersion;
+
+    /**
+     * Creates a new {@code SnapshotHCParser} with the default configuration.
+     *
+     * @param rootReader
+     *         the reader to use to read the input into an object
+     * @param codec
+     *         the codec to use to write and read snapshots
+     * @param parserVersion
+     *         the version of the parsing logic and codec, used to invalidate old snapshots
+     */
+    public SnapshotHCParser(@NotNull Function<Context, T> rootReader, @NotNull SnapshotCodec<T> codec,
+                            @NotNull String parserVersion) {
+        this(rootReader, new Config(), codec, parserVersion);
+    }
+
+    /**
+     * Creates a new {@code SnapshotHCParser} with the given configuration.
+     *
+     * @param rootReader
+     *         the reader to use to read the input into an object
+     * @param config
+     *         the configuration defining this parser's behaviour
+     * @param codec
+     *         the codec to use to write and read snapshots
+     * @param parserVersion
+     *         the version of the parsing logic and codec, used to invalidate old snapshots
+     */
+    public SnapshotHCParser(@NotNull Function<Context, T> rootReader, Config config, @NotNull SnapshotCodec<T> codec,
+                            @NotNull String parserVersion) {
+        super(rootReader, config);
+        this.codec = codec;
+        this.parserVersion = parserVersion;
+    }
+
+    /**
+     * Gets the path of the snapshot corresponding to the given input file.
+     *
+     * @param inputFile
+     *         the path to the input file
+     *
+     * @return the path of the snapshot of the given input file
+     */
+    public static Path getSnapshotPath(Path inputFile) {
+        return inputFile.resolveSibling(inputFile.getFileName() + SNAPSHOT_EXTENSION);
+    }
+
+    /**
+     * Loads the snapshot of the given file if it is up to date, otherwise parses the file and writes its snapshot.
+     *
+     * @param filename
+     *         the path to the file to parse
+     *
+     * @return the created object representing the input problem
+     * @throws FileNotFoundException
+     *         if the given file does not exist
+     * @throws InputParsingException
+     *         if an error occurs while reading the input
+     */
+    @Override
+    public T parseFile(String filename) throws FileNotFoundException {
+        Path inputFile = Paths.get(filename);
+        if (!Files.isRegularFile(inputFile)) {
+            return super.parseFile(filename);
+        }
+        InputFile input = new InputFile(inputFile);
+        Path snapshotFile = getSnapshotPath(inputFile);
+        T snapshot = loadSnapshot(snapshotFile, input);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        T problem = super.parseFile(filename);
+        saveSnapshot(snapshotFile, input, problem);
+        return problem;
+    }
+
+    @Nullable
+    private T loadSnapshot(Path snapshotFile, InputFile input) {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotFile), IO_BUFFER_SIZE))) {
+            if (!readHeader(in, input)) {
+                return null;
+            }
+            return codec.read(in);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read snapshot '{}', the input will be parsed instead", snapshotFile, e);
+            return null;
+        }
+    }
+
+    private boolean readHeader(DataInputStream in, InputFile input) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            return false;
+        }
+        if (!parserVersion.equals(SnapshotIO.readString(in))) {
+            return false;
+        }
+        long size = in.readLong();
+        long modifiedTime = in.readLong();
+        byte[] snapshotHash = new byte[in.readUnsignedByte()];
+        in.readFully(snapshotHash);
+        if (size == input.size && modifiedTime == input.modifiedTime) {
+            return true; // the file was not touched since the snapshot was written, no need to hash it again
+        }
+        return size == input.size && Arrays.equals(snapshotHash, input.getContentHash());
+    }
+
+    private void saveSnapshot(Path snapshotFile, InputFile input, T problem) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile(snapshotFile.toAbsolutePath().getParent(),
+                    snapshotFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tempFile), IO_BUFFER_SIZE))) {
+                writeHeader(out, input);
+                codec.write(problem, out);
+            }
+            moveAtomically(tempFile, snapshotFile);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not write snapshot '{}'", snapshotFile, e);
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private void writeHeader(DataOutputStream out, InputFile input) throws IOException {
+        byte[] contentHash = input.getContentHash();
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        SnapshotIO.writeString(out, parserVersion);
+        out.writeLong(input.size);
+        out.writeLong(input.modifiedTime);
+        out.writeByte(contentHash.length);
+        out.write(contentHash);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(@Nullable Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete temporary snapshot '{}'", file, e);
+        }
+    }
+
+    /**
+     * The state of an input file, as compared with the one stored in its snapshot. The content hash is only computed
+     * when needed.
+     */
+    private static final class InputFile {
+
+        private final Path path;
+
+        private final long size;
+
+        private final long modifiedTime;
+
+        private byte[] contentHash;
+
+        InputFile(Path path) {
+            this.path = path;
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                this.size = attributes.size();
+                this.modifiedTime = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+            } catch (IOException e) {
+                throw new InputParsingException("An error occurred while reading the attributes of '" + path + "'", e);
+            }
+        }
+
+        byte[] getContentHash() {
+            if (contentHash == null) {
+                contentHash = hash(path);
+            }
+            return contentHash;
+        }
+
+        private static byte[] hash(Path file) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+                long size = channel.size();
+                for (long position = 0; position < size; position += MAX_HASH_WINDOW_SIZE) {
+                    long windowSize = Math.min(MAX_HASH_WINDOW_SIZE, size - position);
+                    digest.update(channel.map(MapMode.READ_ONLY, position, windowSize));
+                }
+                return digest.digest();
+            } catch (IOException e) {
+                throw new InputParsingException("An error occurred while hashing the input file '" + file + "'", e);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(HASH_ALGORITHM + " is not supported by this JVM", e);
+            }
+        }
+    }
+}
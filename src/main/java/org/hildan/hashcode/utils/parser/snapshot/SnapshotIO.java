@@ -0,0 +1,274 @@
+package org.hildan.hashcode.utils.parser.snapshot;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Helpers to write primitive arrays and strings to snapshots in bulk, instead of one value at a time. Null arrays and
+ * strings are supported.
+ */
+public final class SnapshotIO {
+
+    private static final int CHUNK_BYTES = 8192;
+
+    private static final int NULL_LENGTH = -1;
+
+    private SnapshotIO() {
+    }
+
+    /**
+     * Writes the given int array to the given stream.
+     *
+     * @param out
+     *         the stream to write to
+     * @param array
+     *         the array to write
+     *
+     * @throws IOException
+     *         if an error occurs while writing to the stream
+     */
+    public static void writeIntArray(DataOutputStream out, @Nullable int[] array) throws IOException {
+        if (writeLength(out, array == null ? NULL_LENGTH : array.length)) {
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+            for (int i = 0; i < array.length; ) {
+                int n = Math.min(array.length - i, CHUNK_BYTES / Integer.BYTES);
+                buffer.clear();
+                buffer.asIntBuffer().put(array, i, n);
+                out.write(buffer.array(), 0, n * Integer.BYTES);
+                i += n;
+            }
+        }
+    }
+
+    /**
+     * Reads an int array written by {@link #writeIntArray(DataOutputStream, int[])}.
+     *
+     * @param in
+     *         the stream to read from
+     *
+     * @return the array read from the stream
+     * @throws IOException
+     *         if an error occurs while reading from the stream
+     */
+    @Nullable
+    public static int[] readIntArray(DataInputStream in) throws IOException {
+        int length = readLength(in);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        int[] array = new int[length];
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+        for (int i = 0; i < length; ) {
+            int n = Math.min(length - i, CHUNK_BYTES / Integer.BYTES);
+            in.readFully(buffer.array(), 0, n * Integer.BYTES);
+            buffer.clear();
+            buffer.asIntBuffer().get(array, i, n);
+            i += n;
+        }
+        return array;
+    }
+
+    /**
+     * Writes the given long array to the given stream.
+     *
+     * @param out
+     *         the stream to write to
+     * @param array
+     *         the array to write
+     *
+     * @throws IOException
+     *         if an error occurs while writing to the stream
+     */
+    public static void writeLongArray(DataOutputStream out, @Nullable long[] array) throws IOException {
+        if (writeLength(out, array == null ? NULL_LENGTH : array.length)) {
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+            for (int i = 0; i < array.length; ) {
+                int n = Math.min(array.length - i, CHUNK_BYTES / Long.BYTES);
+                buffer.clear();
+                buffer.asLongBuffer().put(array, i, n);
+                out.write(buffer.array(), 0, n * Long.BYTES);
+                i += n;
+            }
+        }
+    }
+
+    /**
+     * Reads a long array written by {@link #writeLongArray(DataOutputStream, long[])}.
+     *
+     * @param in
+     *         the stream to read from
+     *
+     * @return the array read from the stream
+     * @throws IOException
+     *         if an error occurs while reading from the stream
+     */
+    @Nullable
+    public static long[] readLongArray(DataInputStream in) throws IOException {
+        int length = readLength(in);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        long[] array = new long[length];
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+        for (int i = 0; i < length; ) {
+            int n = Math.min(length - i, CHUNK_BYTES / Long.BYTES);
+            in.readFully(buffer.array(), 0, n * Long.BYTES);
+            buffer.clear();
+            buffer.asLongBuffer().get(array, i, n);
+            i += n;
+        }
+        return array;
+    }
+
+    /**
+     * Writes the given double array to the given stream.
+     *
+     * @param out
+     *         the stream to write to
+     * @param array
+     *         the array to write
+     *
+     * @throws IOException
+     *         if an error occurs while writing to the stream
+     */
+    public static void writeDoubleArray(DataOutputStream out, @Nullable double[] array) throws IOException {
+        if (writeLength(out, array == null ? NULL_LENGTH : array.length)) {
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+            for (int i = 0; i < array.length; ) {
+                int n = Math.min(array.length - i, CHUNK_BYTES / Double.BYTES);
+                buffer.clear();
+                buffer.asDoubleBuffer().put(array, i, n);
+                out.write(buffer.array(), 0, n * Double.BYTES);
+                i += n;
+            }
+        }
+    }
+
+    /**
+     * Reads a double array written by {@link #writeDoubleArray(DataOutputStream, double[])}.
+     *
+     * @param in
+     *         the stream to read from
+     *
+     * @return the array read from the stream
+     * @throws IOException
+     *         if an error occurs while reading from the stream
+     */
+    @Nullable
+    public static double[] readDoubleArray(DataInputStream in) throws IOException {
+        int length = readLength(in);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        double[] array = new double[length];
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_BYTES);
+        for (int i = 0; i < length; ) {
+            int n = Math.min(length - i, CHUNK_BYTES / Double.BYTES);
+            in.readFully(buffer.array(), 0, n * Double.BYTES);
+            buffer.clear();
+            buffer.asDoubleBuffer().get(array, i, n);
+            i += n;
+        }
+        return array;
+    }
+
+    /**
+     * Writes the given string to the given stream, encoded in UTF-8. Unlike {@link DataOutputStream#writeUTF(String)},
+     * this method does not limit the length of the string.
+     *
+     * @param out
+     *         the stream to write to
+     * @param str
+     *         the string to write
+     *
+     * @throws IOException
+     *         if an error occurs while writing to the stream
+     */
+    public static void writeString(DataOutputStream out, @Nullable String str) throws IOException {
+        byte[] bytes = str == null ? null : str.getBytes(StandardCharsets.UTF_8);
+        if (writeLength(out, bytes == null ? NULL_LENGTH : bytes.length)) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutputStream, String)}.
+     *
+     * @param in
+     *         the stream to read from
+     *
+     * @return the string read from the stream
+     * @throws IOException
+     *         if an error occurs while reading from the stream
+     */
+    @Nullable
+    public static String readString(DataInputStream in) throws IOException {
+        int length = readLength(in);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the given string array to the given stream.
+     *
+     * @param out
+     *         the stream to write to
+     * @param array
+     *         the array to write
+     *
+     * @throws IOException
+     *         if an error occurs while writing to the stream
+     */
+    public static void writeStringArray(DataOutputStream out, @Nullable String[] array) throws IOException {
+        if (writeLength(out, array == null ? NULL_LENGTH : array.length)) {
+            for (String str : array) {
+                writeString(out, str);
+            }
+        }
+    }
+
+    /**
+     * Reads a string array written by {@link #writeStringArray(DataOutputStream, String[])}.
+     *
+     * @param in
+     *         the stream to read from
+     *
+     * @return the array read from the stream
+     * @throws IOException
+     *         if an error occurs while reading from the stream
+     */
+    @Nullable
+    public static String[] readStringArray(DataInputStream in) throws IOException {
+        int length = readLength(in);
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        String[] array = new String[length];
+        for (int i = 0; i < length; i++) {
+            array[i] = readString(in);
+        }
+        return array;
+    }
+
+    private static boolean writeLength(DataOutputStream out, int length) throws IOException {
+        out.writeInt(length);
+        return length != NULL_LENGTH;
+    }
+
+    private static int readLength(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < NULL_LENGTH) {
+            throw new IOException("Corrupt snapshot: negative length " + length);
+        }
+        return length;
+    }
+}
@@ -1,5 +1,7 @@
 package org.hildan.hashcode.utils.runner;
 
+import java.io.Flushable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -25,10 +27,15 @@ public class HCRunner<I> {
 
     private static final Logger logger = LoggerFactory.getLogger(HCRunner.class);
 
+    private static final String FLUSH_FAILURE_MSG = "Exception thrown while flushing the pending outputs:";
+
     private final Consumer<I> solver;
 
     private final List<Throwable> exceptions;
 
+    // describes where each exception of the exceptions list was thrown, at the same index
+    private final List<String> exceptionOrigins;
+
     private final UncaughtExceptionsPolicy exceptionsPolicy;
 
     /**
@@ -44,11 +51,12 @@ public class HCRunner<I> {
         this.solver = solver;
         this.exceptionsPolicy = exceptionsPolicy;
         this.exceptions = new ArrayList<>();
+        this.exceptionOrigins = new ArrayList<>();
     }
 
     /**
      * Executes the solver given in the constructor on the given inputs, each in its own thread. This method blocks
-     * until the execution on all inputs is complete.
+     * until the execution on all inputs is complete, including the pending writes of {@link Flushable} solvers.
      *
      * @param inputs
      *         the inputs to run the solver on
@@ -60,7 +68,8 @@ public class HCRunner<I> {
 
     /**
      * Executes the solver given in the constructor on the given inputs, each in its own task. The tasks are distributed
-     * among the given number of threads. This method blocks until the execution on all inputs is complete.
+     * among the given number of threads. This method blocks until the execution on all inputs is complete, including
+     * the pending writes of {@link Flushable} solvers.
      *
      * @param nThreads
      *         the number of threads to use in the pool
@@ -74,9 +83,10 @@ public class HCRunner<I> {
         }
         ExecutorService threadPool = new ExceptionLoggingExecutorService(nThreads, exceptionsPolicy);
         List<Future<?>> futures = submitInputs(inputs, threadPool);
-        waitForTermination(futures);
+        waitForTermination(futures, inputs);
         shutdownAndWaitForTermination(threadPool); // also waits for logging of last exceptions
-        remindExceptions(inputs);
+        flushSolver();
+        remindExceptions();
     }
 
     private List<Future<?>> submitInputs(I[] inputs, ExecutorService threadPool) {
@@ -88,14 +98,14 @@ public class HCRunner<I> {
         return handles;
     }
 
-    private void waitForTermination(List<Future<?>> tasks) {
-        for (Future<?> task : tasks) {
+    private void waitForTermination(List<Future<?>> tasks, I[] inputs) {
+        for (int i = 0; i < tasks.size(); i++) {
             try {
-                task.get();
+                tasks.get(i).get();
             } catch (ExecutionException e) {
                 // the exception was already logged in ExecutionAwareExecutorService when the task ended
                 // we track it here to also log everything at the end (to avoid having to scroll up the output)
-                exceptions.add(e.getCause());
+                addException(e.getCause(), "while running on input " + inputs[i]);
             } catch (InterruptedException e) {
                 logger.error("Interrupted while waiting for tasks to complete", e);
                 Thread.currentThread().interrupt(); // ignore/reset
@@ -113,31 +123,63 @@ public class HCRunner<I> {
         }
     }
 
-    private void remindExceptions(I[] inputs) {
+    private void flushSolver() {
+        if (!(solver instanceof Flushable)) {
+            return;
+        }
+        try {
+            ((Flushable) solver).flush();
+        } catch (IOException e) {
+            if (exceptionsPolicy.shouldLogViaSlf4J()) {
+                logger.error(FLUSH_FAILURE_MSG, e);
+            }
+            if (exceptionsPolicy.shouldPrintOnStdErr()) {
+                System.err.println(FLUSH_FAILURE_MSG);
+                e.printStackTrace();
+            }
+            // each failed write is reported like a failed task, so that missing outputs are not overlooked
+            String origin = "while writing the pending outputs";
+            if (e.getCause() == null) {
+                addException(e, origin);
+            } else {
+                addException(e.getCause(), origin);
+            }
+            for (Throwable suppressed : e.getSuppressed()) {
+                addException(suppressed, origin);
+            }
+        }
+    }
+
+    private void addException(Throwable exception, String origin) {
+        exceptions.add(exception);
+        exceptionOrigins.add(origin);
+    }
+
+    private void remindExceptions() {
         if (exceptions.isEmpty()) {
             return;
         }
         if (exceptionsPolicy.shouldLogViaSlf4J()) {
-            logExceptions(inputs);
+            logExceptions();
         }
         if (exceptionsPolicy.shouldPrintOnStdErr()) {
-            printExceptionsOnStdErr(inputs);
+            printExceptionsOnStdErr();
         }
     }
 
-    private void logExceptions(I[] inputs) {
+    private void logExceptions() {
         logger.error("{} tasks terminated abruptly by throwing exceptions", exceptions.size());
         for (int i = 0; i < exceptions.size(); i++) {
             Throwable e = exceptions.get(i);
-            logger.error("Reminder: this exception was thrown while running on input " + inputs[i] + ":", e);
+            logger.error("Reminder: this exception was thrown " + exceptionOrigins.get(i) + ":", e);
         }
     }
 
-    private void printExceptionsOnStdErr(I[] inputs) {
+    private void printExceptionsOnStdErr() {
         System.err.println(exceptions.size() + " tasks terminated abruptly by throwing exceptions");
         for (int i = 0; i < exceptions.size(); i++) {
             Throwable e = exceptions.get(i);
-            System.err.println("Reminder: this exception was thrown while running on input " + inputs[i] + ":");
+            System.err.println("Reminder: this exception was thrown " + exceptionOrigins.get(i) + ":");
             e.printStackTrace();
         }
     }
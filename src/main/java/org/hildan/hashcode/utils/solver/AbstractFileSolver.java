@@ -6,43 +6,61 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
-import java.util.function.Consumer;
 
-public abstract class AbstractFileSolver implements Consumer<String> {
-
-    private static final String INPUT_EXTENSION = ".in";
-
-    private static final String OUTPUT_EXTENSION = ".out";
-
-    private static final String INPUT_FOLDER = "inputs/";
-
-    private static final String OUTPUT_FOLDER = "outputs/";
+/**
+ * Base class for solvers consuming input file names, and returning the lines of the solution to write to the
+ * corresponding output files. See {@link AbstractWriterFileSolver} to write solutions without creating strings.
+ */
+public abstract class AbstractFileSolver extends AbstractWriterFileSolver {
 
+    /**
+     * Solves the problem in the given input file, and writes the returned lines via
+     * {@link #writeOutputFile(String, Iterable)}. The output file is written atomically by the output stage of this
+     * solver.
+     *
+     * @param inputFilename
+     *         the input file of the problem
+     */
     @Override
     public void accept(String inputFilename) {
         Iterable<? extends CharSequence> lines = solve(inputFilename);
         String outputFile = computeOutputFilename(inputFilename);
-        try {
-            writeOutputFile(outputFile, lines);
-        } catch (IOException e) {
-            throw new SolverException("Exception occurred while writing to the output file '" + outputFile + "'", e);
-        }
+        getOutputStage().writeFile(outputFile, tempFile -> writeOutputFile(tempFile.toString(), lines));
     }
 
+    /**
+     * Solves the problem in the given input file, and returns the lines of the solution.
+     *
+     * @param inputFilename
+     *         the input file of the problem
+     *
+     * @return the lines of the solution
+     */
     protected abstract Iterable<? extends CharSequence> solve(String inputFilename);
 
-    protected String computeOutputFilename(String inputFilename) {
-        String outputFilename = inputFilename;
-        outputFilename = outputFilename.replaceAll("^" + INPUT_FOLDER, OUTPUT_FOLDER);
-        outputFilename = outputFilename.replaceAll("/" + INPUT_FOLDER, "/" + OUTPUT_FOLDER);
-        if (outputFilename.endsWith(INPUT_EXTENSION)) {
-            outputFilename = outputFilename.replaceAll(INPUT_EXTENSION + "$", OUTPUT_EXTENSION);
-        } else {
-            outputFilename = outputFilename + ".out";
+    /**
+     * Writes the lines returned by {@link #solve(String)} to the given writer.
+     */
+    @Override
+    protected final void solve(String inputFilename, HCWriter writer) {
+        Iterable<? extends CharSequence> lines = solve(inputFilename);
+        for (CharSequence line : lines) {
+            writer.writeString(line).newLine();
         }
-        return outputFilename;
     }
 
+    /**
+     * Writes the given lines to the given output file. This is called with a temporary file, which is then renamed to
+     * the actual output file by the output stage. With an asynchronous output stage, this is called on the I/O thread.
+     *
+     * @param outputFilename
+     *         the file to write to
+     * @param lines
+     *         the lines to write
+     *
+     * @throws IOException
+     *         if an error occurs while writing the file
+     */
     protected void writeOutputFile(String outputFilename, Iterable<? extends CharSequence> lines) throws IOException {
         Path filePath = Paths.get(outputFilename);
         Path parentDir = filePath.getParent();
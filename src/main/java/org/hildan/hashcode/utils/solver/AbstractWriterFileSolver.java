@@ -0,0 +1,112 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+import org.hildan.hashcode.utils.parser.HCParser;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Base class for solvers consuming input file names, and writing their solutions directly to an {@link HCWriter} on
+ * the corresponding output files. See {@link AbstractFileSolver} for solvers returning the lines of their solutions.
+ */
+public abstract class AbstractWriterFileSolver implements Consumer<String>, Flushable {
+
+    private static final String INPUT_EXTENSION = ".in";
+
+    private static final String OUTPUT_EXTENSION = ".out";
+
+    private static final String INPUT_FOLDER = "inputs/";
+
+    private static final String OUTPUT_FOLDER = "outputs/";
+
+    private static final String[] COMPRESSION_EXTENSIONS = {".gz", ".zip"};
+
+    private OutputStage outputStage = OutputStage.synchronous();
+
+    /**
+     * Sets the stage used to write the output files. By default, outputs are written synchronously by
+     * {@link #accept(String)}.
+     *
+     * @param outputStage
+     *         the output stage to use, for instance {@link OutputStage#asynchronous()} to write the outputs off the
+     *         solver threads
+     */
+    public void setOutputStage(@NotNull OutputStage outputStage) {
+        this.outputStage = outputStage;
+    }
+
+    OutputStage getOutputStage() {
+        return outputStage;
+    }
+
+    @Override
+    public void accept(String inputFilename) {
+        String outputFile = computeOutputFilename(inputFilename);
+        outputStage.write(outputFile, writer -> solve(inputFilename, writer));
+    }
+
+    /**
+     * Waits for the pending writes of the output stage to complete.
+     *
+     * @throws IOException
+     *         if some pending writes failed
+     */
+    @Override
+    public void flush() throws IOException {
+        outputStage.flush();
+    }
+
+    /**
+     * Solves the problem in the given input file, and writes the solution to the given writer. The writer is closed
+     * afterwards, it must not be closed by this method.
+     *
+     * @param inputFilename
+     *         the input file of the problem
+     * @param writer
+     *         the writer to the output file
+     */
+    protected abstract void solve(String inputFilename, HCWriter writer);
+
+    /**
+     * Parses the given input file with the given parser, wrapping I/O errors in {@link SolverException}s.
+     *
+     * @param parser
+     *         the parser to use
+     * @param inputFilename
+     *         the input file of the problem
+     * @param <P>
+     *         the type of problem to parse
+     *
+     * @return the parsed problem
+     */
+    protected static <P> P parseProblem(HCParser<P> parser, String inputFilename) {
+        try {
+            return parser.parseFile(inputFilename);
+        } catch (IOException e) {
+            throw new SolverException("Exception occurred while parsing the input file '" + inputFilename + "'", e);
+        }
+    }
+
+    protected String computeOutputFilename(String inputFilename) {
+        String outputFilename = stripCompressionExtension(inputFilename);
+        outputFilename = outputFilename.replaceAll("^" + INPUT_FOLDER, OUTPUT_FOLDER);
+        outputFilename = outputFilename.replaceAll("/" + INPUT_FOLDER, "/" + OUTPUT_FOLDER);
+        if (outputFilename.endsWith(INPUT_EXTENSION)) {
+            outputFilename = outputFilename.replaceAll(INPUT_EXTENSION + "$", OUTPUT_EXTENSION);
+        } else {
+            outputFilename = outputFilename + ".out";
+        }
+        return outputFilename;
+    }
+
+    private static String stripCompressionExtension(String filename) {
+        for (String extension : COMPRESSION_EXTENSIONS) {
+            if (filename.endsWith(extension)) {
+                return filename.substring(0, filename.length() - extension.length());
+            }
+        }
+        return filename;
+    }
+}
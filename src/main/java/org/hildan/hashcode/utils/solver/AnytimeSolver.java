@@ -0,0 +1,212 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.hildan.hashcode.utils.parser.HCParser;
+import org.hildan.hashcode.utils.parser.context.Context;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code AnytimeSolver} runs iterative solvers under a fixed time budget. The solver publishes its candidate solutions
+ * to a {@link SolutionSink}, which keeps the best one in memory. Each strict improvement is written to the output file
+ * in the background, at most once per {@linkplain #setMinWriteInterval(Duration) write interval}, through the same
+ * atomic path as regular outputs. This way, a killed process still leaves its best solution so far on disk.
+ * <p>
+ * The solver is expected to return once {@link SolutionSink#isTimeUp()} is true, and candidates published after the
+ * budget has expired are discarded. The best solution is then written one last time as the regular output.
+ * <p>
+ * The budget is purely cooperative: the solver is never interrupted, so a solver that does not check
+ * {@link SolutionSink#isTimeUp()} keeps running past its budget, and its final output is only written once it
+ * returns.
+ *
+ * @param <P>
+ *         the type of problem to solve
+ * @param <S>
+ *         the type of solutions
+ */
+public class AnytimeSolver<P, S> extends AbstractWriterFileSolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnytimeSolver.class);
+
+    private static final Duration DEFAULT_MIN_WRITE_INTERVAL = Duration.ofSeconds(1);
+
+    private final HCParser<P> problemParser;
+
+    private final BiConsumer<P, SolutionSink<S>> solver;
+
+    private final BiConsumer<? super S, HCWriter> formatter;
+
+    private final Duration budget;
+
+    private Duration minWriteInterval = DEFAULT_MIN_WRITE_INTERVAL;
+
+    /**
+     * Creates a new {@code AnytimeSolver}.
+     *
+     * @param problemParser
+     *         the parser to use for the input files
+     * @param solver
+     *         the iterative solver, publishing its candidate solutions to the given sink
+     * @param formatter
+     *         the function writing a solution to the given writer
+     * @param budget
+     *         the time budget of the solver for each input, starting after parsing
+     */
+    public AnytimeSolver(@NotNull HCParser<P> problemParser, @NotNull BiConsumer<P, SolutionSink<S>> solver,
+                         @NotNull BiConsumer<? super S, HCWriter> formatter, @NotNull Duration budget) {
+        this.problemParser = problemParser;
+        this.solver = solver;
+        this.formatter = formatter;
+        this.budget = budget;
+    }
+
+    /**
+     * Creates a new {@code AnytimeSolver}.
+     *
+     * @param reader
+     *         the function to use to read the input files
+     * @param solver
+     *         the iterative solver, publishing its candidate solutions to the given sink
+     * @param formatter
+     *         the function writing a solution to the given writer
+     * @param budget
+     *         the time budget of the solver for each input, starting after parsing
+     */
+    public AnytimeSolver(@NotNull Function<Context, P> reader, @NotNull BiConsumer<P, SolutionSink<S>> solver,
+                         @NotNull BiConsumer<? super S, HCWriter> formatter, @NotNull Duration budget) {
+        this(new HCParser<>(reader), solver, formatter, budget);
+    }
+
+    /**
+     * Sets the minimum time between 2 background writes of improved solutions. Improvements found in the meantime are
+     * not lost: the best one is written when the interval has elapsed.
+     *
+     * @param minWriteInterval
+     *         the minimum time between 2 background writes
+     */
+    public void setMinWriteInterval(@NotNull Duration minWriteInterval) {
+        this.minWriteInterval = minWriteInterval;
+    }
+
+    @Override
+    protected void solve(String inputFilename, HCWriter writer) {
+        P problem = parseProblem(problemParser, inputFilename);
+        Run run = new Run(computeOutputFilename(inputFilename));
+        try {
+            solver.accept(problem, run);
+        } finally {
+            run.stopBackgroundWrites();
+        }
+        ScoredSolution<S> best = run.best.get();
+        if (best == null) {
+            throw new SolverException("No solution was published for the input file '" + inputFilename + "'");
+        }
+        formatter.accept(best.solution, writer);
+    }
+
+    private class Run implements SolutionSink<S> {
+
+        private final String outputFilename;
+
+        private final long deadline;
+
+        private final long minWriteIntervalNanos;
+
+        private final AtomicReference<ScoredSolution<S>> best = new AtomicReference<>();
+
+        private final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+        private final OutputStage backgroundStage = OutputStage.synchronous();
+
+        private final ScheduledThreadPoolExecutor writerThread;
+
+        // only accessed by the writer thread
+        private ScoredSolution<S> lastWritten;
+
+        private volatile long lastWriteTime;
+
+        Run(String outputFilename) {
+            this.outputFilename = outputFilename;
+            this.deadline = System.nanoTime() + budget.toNanos();
+            this.minWriteIntervalNanos = minWriteInterval.toNanos();
+            this.lastWriteTime = System.nanoTime() - minWriteIntervalNanos;
+            this.writerThread = new ScheduledThreadPoolExecutor(1, r -> {
+                Thread thread = new Thread(r, "anytime-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.writerThread.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        }
+
+        @Override
+        public boolean publish(S solution, long score) {
+            if (isTimeUp()) {
+                return false;
+            }
+            ScoredSolution<S> candidate = new ScoredSolution<>(solution, score);
+            ScoredSolution<S> current;
+            do {
+                current = best.get();
+                if (current != null && score <= current.score) {
+                    return false;
+                }
+            } while (!best.compareAndSet(current, candidate));
+            scheduleWrite();
+            return true;
+        }
+
+        private void scheduleWrite() {
+            if (!writeScheduled.compareAndSet(false, true)) {
+                return; // the scheduled write will take the latest best solution
+            }
+            long delay = Math.max(0, lastWriteTime + minWriteIntervalNanos - System.nanoTime());
+            writerThread.schedule(this::writeBest, delay, TimeUnit.NANOSECONDS);
+        }
+
+        private void writeBest() {
+            writeScheduled.set(false);
+            ScoredSolution<S> candidate = best.get();
+            if (candidate == lastWritten) {
+                return;
+            }
+            try {
+                backgroundStage.write(outputFilename, w -> formatter.accept(candidate.solution, w));
+                lastWritten = candidate;
+            } catch (RuntimeException e) {
+                // the final write reports persistent failures, this one is only a safety net
+                logger.warn("Could not write the intermediate solution to '{}'", outputFilename, e);
+            }
+            lastWriteTime = System.nanoTime();
+        }
+
+        void stopBackgroundWrites() {
+            writerThread.shutdown();
+            try {
+                // a background write finishing after the final write would overwrite it with an older solution
+                writerThread.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // ignore/reset
+                throw new SolverException("Interrupted while waiting for the background write", e);
+            }
+        }
+
+        @Override
+        public long getBestScore() {
+            ScoredSolution<S> candidate = best.get();
+            return candidate == null ? Long.MIN_VALUE : candidate.score;
+        }
+
+        @Override
+        public long getRemainingNanos() {
+            return deadline - System.nanoTime();
+        }
+    }
+}
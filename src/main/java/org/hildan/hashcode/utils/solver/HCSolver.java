@@ -1,6 +1,5 @@
 package org.hildan.hashcode.utils.solver;
 
-import java.io.IOException;
 import java.util.function.Function;
 
 import org.hildan.hashcode.utils.parser.HCParser;
@@ -37,11 +36,6 @@ public class HCSolver<P> extends AbstractFileSolver {
 
     @Override
     protected Iterable<? extends CharSequence> solve(String inputFilename) {
-        try {
-            P problem = problemParser.parseFile(inputFilename);
-            return solver.apply(problem);
-        } catch (IOException e) {
-            throw new SolverException("Exception occurred while parsing the input file '" + inputFilename + "'", e);
-        }
+        return solver.apply(parseProblem(problemParser, inputFilename));
     }
 }
@@ -0,0 +1,542 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@code HCWriter} encodes a solution straight into bytes, so that no {@link String} has to be created per line or per
+ * number. Numbers are formatted without any allocation, and text is encoded in UTF-8.
+ * <p>
+ * Writers are created via {@link #toFile(Path)}, which encodes into a reusable direct buffer flushed through a
+ * {@link FileChannel}, or via {@link #toMappedFile(Path, long)}, which encodes directly into a memory-mapped file when
+ * the size of the output is known in advance.
+ * <p>
+ * I/O errors are thrown as {@link UncheckedIOException}s, so that solvers can write without handling checked
+ * exceptions.
+ */
+public abstract class HCWriter implements Closeable, Flushable {
+
+    static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private static final int MIN_BUFFER_SIZE = 64;
+
+    private static final byte[] INT_MIN_VALUE = Integer.toString(Integer.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] LONG_MIN_VALUE = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    // large enough for the digits of any positive long
+    private final byte[] digits = new byte[19];
+
+    ByteBuffer buffer;
+
+    HCWriter(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Creates a writer to the given file, encoding into a reusable direct buffer that is flushed through a
+     * {@link FileChannel}. The file is only created (or truncated) when the first bytes are flushed, or when the writer
+     * is closed.
+     *
+     * @param file
+     *         the file to write to
+     *
+     * @return a new writer to the given file
+     */
+    @NotNull
+    public static HCWriter toFile(@NotNull Path file) {
+        return toFile(file, DEFAULT_BUFFER_SIZE);
+    }
+
+    static HCWriter toFile(Path file, int bufferSize) {
+        return new ChannelWriter(file, Math.max(MIN_BUFFER_SIZE, bufferSize));
+    }
+
+    /**
+     * Creates a writer encoding directly into a memory mapping of the given file. The expected size is mapped at once;
+     * if more is written, the mapping is extended. Once the writer is closed, the file is truncated to the number of
+     * bytes actually written, so the expected size may be an upper bound.
+     *
+     * @param file
+     *         the file to write to, which is created or truncated immediately
+     * @param expectedSize
+     *         the expected size of the output, in bytes
+     *
+     * @return a new writer to the given file
+     * @throws IOException
+     *         if the file cannot be opened or mapped
+     */
+    @NotNull
+    public static HCWriter toMappedFile(@NotNull Path file, long expectedSize) throws IOException {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("The expected size cannot be negative, got " + expectedSize);
+        }
+        return MappedWriter.open(file, expectedSize);
+    }
+
+    /**
+     * Creates a writer accumulating the output in a growing heap buffer, which can then be transferred to another
+     * writer via {@link #write(ByteBuffer)}.
+     */
+    static MemoryWriter inMemory(int initialCapacity) {
+        return new MemoryWriter(ByteBuffer.allocate(Math.max(MIN_BUFFER_SIZE, initialCapacity)));
+    }
+
+    /**
+     * Creates a writer accumulating the output in the given empty buffer. If the buffer is too small, it is replaced
+     * by a larger buffer of the same kind (heap or direct), which can be retrieved via
+     * {@link MemoryWriter#takeBuffer()} to be reused.
+     */
+    static MemoryWriter inMemory(ByteBuffer buffer) {
+        return new MemoryWriter(buffer);
+    }
+
+    /**
+     * Makes sure the buffer has at least the given number of bytes remaining, which is at most
+     * {@link #MIN_BUFFER_SIZE}.
+     */
+    abstract void makeRoom(int nBytes) throws IOException;
+
+    /**
+     * Releases the resources of this writer after a failure, without completing the output.
+     */
+    abstract void abort();
+
+    /**
+     * @return the total number of bytes written so far, including the bytes that are not flushed yet
+     */
+    public abstract long getBytesWritten();
+
+    private void ensureRemaining(int nBytes) {
+        if (buffer.remaining() < nBytes) {
+            try {
+                makeRoom(nBytes);
+            } catch (IOException e) {
+                throw new WriteException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the given int in decimal form.
+     *
+     * @param value
+     *         the value to write
+     *
+     * @return this writer, for chaining
+     */
+    public HCWriter writeInt(int value) {
+        if (value == Integer.MIN_VALUE) {
+            return writeBytes(INT_MIN_VALUE);
+        }
+        ensureRemaining(11);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        putDigits(value);
+        return this;
+    }
+
+    /**
+     * Writes the given long in decimal form.
+     *
+     * @param value
+     *         the value to write
+     *
+     * @return this writer, for chaining
+     */
+    public HCWriter writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            return writeBytes(LONG_MIN_VALUE);
+        }
+        ensureRemaining(20);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        putDigits(value);
+        return this;
+    }
+
+    private void putDigits(long positiveValue) {
+        int i = digits.length;
+        long v = positiveValue;
+        do {
+            digits[--i] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0);
+        buffer.put(digits, i, digits.length - i);
+    }
+
+    /**
+     * Writes the given char, encoded in UTF-8.
+     *
+     * @param c
+     *         the char to write
+     *
+     * @return this writer, for chaining
+     */
+    public HCWriter writeChar(char c) {
+        if (c < 0x80) {
+            ensureRemaining(1);
+            buffer.put((byte) c);
+            return this;
+        }
+        return writeBytes(String.valueOf(c).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the given text, encoded in UTF-8. ASCII text is encoded without any allocation.
+     *
+     * @param text
+     *         the text to write
+     *
+     * @return this writer, for chaining
+     */
+    public HCWriter writeString(@NotNull CharSequence text) {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                return writeBytes(text.subSequence(i, length).toString().getBytes(StandardCharsets.UTF_8));
+            }
+            ensureRemaining(1);
+            buffer.put((byte) c);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a separator between 2 elements of a line, which is a single space.
+     *
+     * @return this writer, for chaining
+     */
+    public HCWriter writeSeparator() {
+        ensureRemaining(1);
+        buffer.put((byte) ' ');
+        return this;
+    }
+
+    /**
+     * Ends the current line with a line feed ({@code '\n'}).
+     *
+     * @return this writer, for chaining
+     */
+    public HCWriter newLine() {
+        ensureRemaining(1);
+        buffer.put((byte) '\n');
+        return this;
+    }
+
+    /**
+     * Writes all the given items in order, formatting them in parallel on the common {@link ForkJoinPool}. This is
+     * meant for very large outputs, where formatting numbers to text becomes a bottleneck.
+     *
+     * @param items
+     *         the items to write, which should support fast random access
+     * @param formatter
+     *         the function writing one item (including its line feeds) to the given writer, which may be called
+     *         concurrently by several threads, on different writers
+     * @param <T>
+     *         the type of items to write
+     *
+     * @return this writer, for chaining
+     * @see #writeAllInParallel(List, BiConsumer, ForkJoinPool)
+     */
+    public <T> HCWriter writeAllInParallel(@NotNull List<? extends T> items,
+                                           @NotNull BiConsumer<? super T, HCWriter> formatter) {
+        return writeAllInParallel(items, formatter, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Writes all the given items in order, formatting them in parallel on the given {@link ForkJoinPool}. Consecutive
+     * chunks of items are formatted into separate buffers, which are written in order as soon as they are ready.
+     * Small lists are simply formatted on the calling thread.
+     *
+     * @param items
+     *         the items to write, which should support fast random access
+     * @param formatter
+     *         the function writing one item (including its line feeds) to the given writer, which may be called
+     *         concurrently by several threads, on different writers
+     * @param pool
+     *         the pool to format the items on
+     * @param <T>
+     *         the type of items to write
+     *
+     * @return this writer, for chaining
+     */
+    public <T> HCWriter writeAllInParallel(@NotNull List<? extends T> items,
+                                           @NotNull BiConsumer<? super T, HCWriter> formatter,
+                                           @NotNull ForkJoinPool pool) {
+        ParallelSerializer.write(this, items, formatter, pool);
+        return this;
+    }
+
+    /**
+     * Writes the remaining bytes of the given buffers, in order.
+     */
+    void write(ByteBuffer[] buffers) {
+        for (ByteBuffer bytes : buffers) {
+            write(bytes);
+        }
+    }
+
+    /**
+     * Writes the remaining bytes of the given buffer, as they are.
+     */
+    void write(ByteBuffer bytes) {
+        while (bytes.hasRemaining()) {
+            ensureRemaining(1);
+            int n = Math.min(buffer.remaining(), bytes.remaining());
+            ByteBuffer chunk = bytes.duplicate();
+            ((Buffer) chunk).limit(chunk.position() + n);
+            buffer.put(chunk);
+            ((Buffer) bytes).position(bytes.position() + n);
+        }
+    }
+
+    private HCWriter writeBytes(byte[] bytes) {
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensureRemaining(1);
+            int n = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, n);
+            offset += n;
+        }
+        return this;
+    }
+
+    /**
+     * The exception thrown by writers when an I/O error occurs, which distinguishes the failures of the writer itself
+     * from the exceptions thrown by the code using it.
+     */
+    static final class WriteException extends UncheckedIOException {
+
+        WriteException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    private static class ChannelWriter extends HCWriter {
+
+        private final Path file;
+
+        private FileChannel channel;
+
+        private long flushedBytes;
+
+        ChannelWriter(Path file, int bufferSize) {
+            super(ByteBuffer.allocateDirect(bufferSize));
+            this.file = file;
+        }
+
+        @Override
+        void makeRoom(int nBytes) throws IOException {
+            drain();
+        }
+
+        private void drain() throws IOException {
+            if (channel == null) {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            ((Buffer) buffer).flip();
+            while (buffer.hasRemaining()) {
+                flushedBytes += channel.write(buffer);
+            }
+            ((Buffer) buffer).clear();
+        }
+
+        /**
+         * Writes the given buffers with a single gathering write, without copying them into the buffer of this writer.
+         */
+        @Override
+        void write(ByteBuffer[] buffers) {
+            try {
+                drain();
+                long remaining = 0;
+                for (ByteBuffer bytes : buffers) {
+                    remaining += bytes.remaining();
+                }
+                while (remaining > 0) {
+                    long n = channel.write(buffers);
+                    flushedBytes += n;
+                    remaining -= n;
+                }
+            } catch (IOException e) {
+                throw new WriteException(e);
+            }
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return flushedBytes + buffer.position();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            } finally {
+                abort();
+            }
+        }
+
+        @Override
+        void abort() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // the original failure matters more
+                }
+            }
+        }
+    }
+
+    private static class MappedWriter extends HCWriter {
+
+        private static final long MAX_WINDOW_SIZE = 1 << 30;
+
+        private static final long MIN_WINDOW_SIZE = 1 << 16;
+
+        private final FileChannel channel;
+
+        private final long windowSize;
+
+        private long windowStart;
+
+        static MappedWriter open(Path file, long expectedSize) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                return new MappedWriter(channel, expectedSize);
+            } catch (IOException | RuntimeException e) {
+                try {
+                    channel.close();
+                } catch (IOException closeFailure) {
+                    e.addSuppressed(closeFailure);
+                }
+                throw e;
+            }
+        }
+
+        private MappedWriter(FileChannel channel, long expectedSize) throws IOException {
+            super(channel.map(MapMode.READ_WRITE, 0,
+                    Math.min(Math.max(expectedSize, MIN_BUFFER_SIZE), MAX_WINDOW_SIZE)));
+            this.channel = channel;
+            this.windowSize = Math.min(Math.max(expectedSize, MIN_WINDOW_SIZE), MAX_WINDOW_SIZE);
+        }
+
+        @Override
+        void makeRoom(int nBytes) throws IOException {
+            windowStart += buffer.position();
+            buffer = channel.map(MapMode.READ_WRITE, windowStart, windowSize);
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return windowStart + buffer.position();
+        }
+
+        @Override
+        public void flush() {
+            // the mapped bytes are already part of the file
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                channel.truncate(getBytesWritten());
+            } finally {
+                channel.close();
+            }
+        }
+
+        @Override
+        void abort() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // the original failure matters more
+            }
+        }
+    }
+
+    static class MemoryWriter extends HCWriter {
+
+        MemoryWriter(ByteBuffer buffer) {
+            super(buffer);
+        }
+
+        @Override
+        void makeRoom(int nBytes) {
+            int capacity = Math.max(Math.max(buffer.capacity() * 2, MIN_BUFFER_SIZE), buffer.position() + nBytes);
+            ByteBuffer larger = buffer.isDirect() ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+            ((Buffer) buffer).flip();
+            buffer = larger.put(buffer);
+        }
+
+        /**
+         * @return a read-only view of the bytes written so far
+         */
+        ByteBuffer getBytes() {
+            ByteBuffer bytes = buffer.asReadOnlyBuffer();
+            ((Buffer) bytes).flip();
+            return bytes;
+        }
+
+        /**
+         * Clears and returns the current buffer of this writer, so that it can be reused by another writer. This
+         * writer must not be used anymore afterwards.
+         *
+         * @return the cleared buffer
+         */
+        ByteBuffer takeBuffer() {
+            ByteBuffer taken = buffer;
+            buffer = null;
+            ((Buffer) taken).clear();
+            return taken;
+        }
+
+        @Override
+        public long getBytesWritten() {
+            return buffer.position();
+        }
+
+        @Override
+        public void flush() {
+            // nothing to flush
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+
+        @Override
+        void abort() {
+            // nothing to release
+        }
+    }
+}
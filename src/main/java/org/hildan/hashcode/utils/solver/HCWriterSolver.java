@@ -0,0 +1,95 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.hildan.hashcode.utils.parser.HCParser;
+import org.hildan.hashcode.utils.parser.context.Context;
+
+/**
+ * A solver writing its solutions directly to an {@link HCWriter}, instead of returning lines like {@link HCSolver}.
+ *
+ * @param <P>
+ *         the type of problem to solve
+ */
+public class HCWriterSolver<P> extends AbstractWriterFileSolver {
+
+    private final HCParser<P> problemParser;
+
+    private final BiConsumer<P, HCWriter> solver;
+
+    /**
+     * Creates a new {@code HCWriterSolver}.
+     *
+     * @param problemParser
+     *         the parser to use for the input files
+     * @param solver
+     *         the function solving a problem and writing its solution to the given writer
+     */
+    public HCWriterSolver(HCParser<P> problemParser, BiConsumer<P, HCWriter> solver) {
+        this.problemParser = problemParser;
+        this.solver = solver;
+    }
+
+    public static <P> HCWriterSolver<P> of(HCParser<P> parser, BiConsumer<P, HCWriter> solver) {
+        return new HCWriterSolver<>(parser, solver);
+    }
+
+    public static <P> HCWriterSolver<P> of(Function<Context, P> reader, BiConsumer<P, HCWriter> solver) {
+        return new HCWriterSolver<>(new HCParser<>(reader), solver);
+    }
+
+    /**
+     * Creates a solver for very large solutions, made of a list of items that are formatted in parallel (see
+     * {@link HCWriter#writeAllInParallel(List, BiConsumer)}).
+     *
+     * @param parser
+     *         the parser to use for the input files
+     * @param solver
+     *         the function solving a problem, and returning the items of the solution in order
+     * @param formatter
+     *         the function writing one item (including its line feeds) to the given writer, which may be called
+     *         concurrently by several threads
+     * @param <P>
+     *         the type of problem to solve
+     * @param <T>
+     *         the type of items of the solution
+     *
+     * @return a new solver
+     */
+    public static <P, T> HCWriterSolver<P> withParallelFormatting(HCParser<P> parser,
+                                                                  Function<P, ? extends List<? extends T>> solver,
+                                                                  BiConsumer<? super T, HCWriter> formatter) {
+        return new HCWriterSolver<>(parser, (p, writer) -> writer.writeAllInParallel(solver.apply(p), formatter));
+    }
+
+    /**
+     * Creates a solver for very large solutions, made of a list of items that are formatted in parallel (see
+     * {@link HCWriter#writeAllInParallel(List, BiConsumer)}).
+     *
+     * @param reader
+     *         the function to use to read the input files
+     * @param solver
+     *         the function solving a problem, and returning the items of the solution in order
+     * @param formatter
+     *         the function writing one item (including its line feeds) to the given writer, which may be called
+     *         concurrently by several threads
+     * @param <P>
+     *         the type of problem to solve
+     * @param <T>
+     *         the type of items of the solution
+     *
+     * @return a new solver
+     */
+    public static <P, T> HCWriterSolver<P> withParallelFormatting(Function<Context, P> reader,
+                                                                  Function<P, ? extends List<? extends T>> solver,
+                                                                  BiConsumer<? super T, HCWriter> formatter) {
+        return withParallelFormatting(new HCParser<>(reader), solver, formatter);
+    }
+
+    @Override
+    protected void solve(String inputFilename, HCWriter writer) {
+        solver.accept(parseProblem(problemParser, inputFilename), writer);
+    }
+}
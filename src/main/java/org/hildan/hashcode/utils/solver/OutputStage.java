@@ -0,0 +1,239 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.hildan.hashcode.utils.solver.HCWriter.MemoryWriter;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * {@code OutputStage} writes the output files of a solver. Each output is first written to a temporary file next to
+ * its destination, and then atomically renamed into place, so that an output file is never left half-written, even if
+ * the JVM dies.
+ * <p>
+ * A {@link #synchronous()} stage writes on the solver thread. An {@link #asynchronous()} stage only encodes the
+ * solution in memory on the solver thread, and hands it to a dedicated I/O thread, so that the solver thread can start
+ * working on the next input right away. Pending writes are awaited via {@link #flush()}.
+ */
+public class OutputStage implements Flushable, Closeable {
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private static final AtomicLong TEMP_FILE_COUNTER = new AtomicLong(System.nanoTime());
+
+    private static final int INITIAL_MEMORY_BUFFER_SIZE = 1 << 16;
+
+    private final ExecutorService ioExecutor;
+
+    private final Queue<CompletableFuture<Void>> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    private OutputStage(ExecutorService ioExecutor) {
+        this.ioExecutor = ioExecutor;
+    }
+
+    /**
+     * Creates an output stage writing the outputs on the calling thread.
+     *
+     * @return a new synchronous output stage
+     */
+    @NotNull
+    public static OutputStage synchronous() {
+        return new OutputStage(null);
+    }
+
+    /**
+     * Creates an output stage writing the outputs on a dedicated I/O thread. The thread stops by itself when it has
+     * been idle for a second, so that it neither prevents the JVM from exiting nor lets pending outputs get lost.
+     *
+     * @return a new asynchronous output stage
+     */
+    @NotNull
+    public static OutputStage asynchronous() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> new Thread(r, "output-writer"));
+        executor.allowCoreThreadTimeOut(true);
+        return new OutputStage(executor);
+    }
+
+    /**
+     * Creates an output stage writing the outputs on the given executor. The executor is shut down when this stage
+     * is closed.
+     *
+     * @param ioExecutor
+     *         the executor to write the outputs on
+     *
+     * @return a new asynchronous output stage
+     */
+    @NotNull
+    public static OutputStage asynchronous(@NotNull ExecutorService ioExecutor) {
+        return new OutputStage(ioExecutor);
+    }
+
+    /**
+     * Writes the given content to the given output file. The content is produced on the calling thread, so that
+     * exceptions thrown while solving are thrown by this method. With an asynchronous stage, the file itself is written
+     * later, and write failures are reported by {@link #flush()}.
+     *
+     * @param outputFilename
+     *         the file to write
+     * @param content
+     *         the function writing the content of the file to the given writer
+     *
+     * @throws SolverException
+     *         if an I/O error occurs while writing synchronously
+     */
+    public void write(@NotNull String outputFilename, @NotNull Consumer<HCWriter> content) {
+        if (ioExecutor == null) {
+            writeAtomically(outputFilename, file -> writeWith(file, content));
+            return;
+        }
+        MemoryWriter buffer = HCWriter.inMemory(INITIAL_MEMORY_BUFFER_SIZE);
+        content.accept(buffer);
+        pendingWrites.add(CompletableFuture.runAsync(
+                () -> writeAtomically(outputFilename, file -> writeWith(file, w -> w.write(buffer.getBytes()))),
+                ioExecutor));
+    }
+
+    /**
+     * Writes an output file via the given function, which writes the whole content of a temporary file that is then
+     * renamed to the given output file. With an asynchronous stage, the function is called on the I/O thread, so the
+     * content should be computed beforehand, and write failures are reported by {@link #flush()}.
+     *
+     * @param outputFilename
+     *         the file to write
+     * @param content
+     *         the function writing the content to the given (temporary) file
+     *
+     * @throws SolverException
+     *         if an I/O error occurs while writing synchronously
+     */
+    public void writeFile(@NotNull String outputFilename, @NotNull FileContent content) {
+        if (ioExecutor == null) {
+            writeAtomically(outputFilename, content);
+            return;
+        }
+        pendingWrites.add(CompletableFuture.runAsync(() -> writeAtomically(outputFilename, content), ioExecutor));
+    }
+
+    private static void writeWith(Path file, Consumer<HCWriter> content) throws IOException {
+        HCWriter writer = HCWriter.toFile(file);
+        try {
+            content.accept(writer);
+        } catch (RuntimeException | Error e) {
+            writer.abort();
+            throw e;
+        }
+        writer.close();
+    }
+
+    private static void writeAtomically(String outputFilename, FileContent content) {
+        try {
+            Path target = Paths.get(outputFilename).toAbsolutePath();
+            Path parentDir = target.getParent();
+            Files.createDirectories(parentDir);
+            // not Files.createTempFile(), which would restrict the permissions of the final file
+            Path tempFile = parentDir.resolve(
+                    "." + target.getFileName() + '.' + TEMP_FILE_COUNTER.incrementAndGet() + TEMP_FILE_SUFFIX);
+            try {
+                content.writeTo(tempFile);
+                moveAtomically(tempFile, target);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            throw writeFailure(outputFilename, e);
+        } catch (HCWriter.WriteException e) {
+            throw writeFailure(outputFilename, e.getCause());
+        }
+    }
+
+    private static SolverException writeFailure(String outputFilename, IOException cause) {
+        String msg = "Exception occurred while writing to the output file '" + outputFilename + "'";
+        return new SolverException(msg, cause);
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * A function writing the whole content of an output file.
+     */
+    @FunctionalInterface
+    public interface FileContent {
+
+        /**
+         * Writes the content to the given file, creating or truncating it.
+         *
+         * @param file
+         *         the file to write
+         *
+         * @throws IOException
+         *         if an error occurs while writing the file
+         */
+        void writeTo(@NotNull Path file) throws IOException;
+    }
+
+    /**
+     * Waits for all pending writes to complete.
+     *
+     * @throws IOException
+     *         if some pending writes failed, the failure of each of them being the cause or a suppressed exception
+     */
+    @Override
+    public void flush() throws IOException {
+        List<Throwable> failures = new ArrayList<>();
+        CompletableFuture<Void> pendingWrite;
+        while ((pendingWrite = pendingWrites.poll()) != null) {
+            try {
+                pendingWrite.join();
+            } catch (CompletionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        if (!failures.isEmpty()) {
+            IOException e = new IOException(failures.size() + " output file(s) could not be written", failures.get(0));
+            failures.stream().skip(1).forEach(e::addSuppressed);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits for all pending writes to complete, and releases the I/O thread.
+     *
+     * @throws IOException
+     *         if some pending writes failed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            if (ioExecutor != null) {
+                ioExecutor.shutdown();
+            }
+        }
+    }
+}
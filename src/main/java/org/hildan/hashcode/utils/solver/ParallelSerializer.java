@@ -0,0 +1,144 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+import org.hildan.hashcode.utils.solver.HCWriter.MemoryWriter;
+
+/**
+ * Formats a list of items in parallel: consecutive chunks of items are formatted on a {@link ForkJoinPool} into
+ * separate buffers, which are then written in order with gathering writes. Only a bounded number of chunks are in
+ * flight at any time, so that formatting and writing overlap without holding the whole output in memory.
+ * <p>
+ * The chunks are formatted into direct buffers, so that the channel does not copy them into temporary direct buffers
+ * for the gathering writes. These buffers are recycled for the next chunks once written.
+ */
+class ParallelSerializer<T> {
+
+    private static final int MIN_CHUNK_ITEMS = 1 << 10;
+
+    private static final int MAX_CHUNK_ITEMS = 1 << 16;
+
+    // the number of chunks per thread, to balance the load between threads
+    private static final int CHUNKS_PER_THREAD = 16;
+
+    // the number of chunks in flight per thread, to keep all threads busy while the writer waits for a chunk
+    private static final int IN_FLIGHT_CHUNKS_PER_THREAD = 2;
+
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+    private final List<? extends T> items;
+
+    private final BiConsumer<? super T, HCWriter> formatter;
+
+    private final ForkJoinPool pool;
+
+    private final int chunkItems;
+
+    private final int nChunks;
+
+    private final Deque<CompletableFuture<MemoryWriter>> inFlight = new ArrayDeque<>();
+
+    // the buffers of the chunks already written, at most one per chunk in flight
+    private final Queue<ByteBuffer> bufferPool = new ConcurrentLinkedQueue<>();
+
+    private int nextChunk;
+
+    private ParallelSerializer(List<? extends T> items, BiConsumer<? super T, HCWriter> formatter, ForkJoinPool pool) {
+        this.items = items;
+        this.formatter = formatter;
+        this.pool = pool;
+        int size = items.size();
+        int targetChunkItems = size / (pool.getParallelism() * CHUNKS_PER_THREAD);
+        this.chunkItems = Math.max(MIN_CHUNK_ITEMS, Math.min(targetChunkItems, MAX_CHUNK_ITEMS));
+        this.nChunks = (size + chunkItems - 1) / chunkItems;
+    }
+
+    static <T> void write(HCWriter writer, List<? extends T> items, BiConsumer<? super T, HCWriter> formatter,
+                          ForkJoinPool pool) {
+        if (items.size() <= MIN_CHUNK_ITEMS || pool.getParallelism() <= 1) {
+            for (T item : items) {
+                formatter.accept(item, writer);
+            }
+            return;
+        }
+        new ParallelSerializer<T>(items, formatter, pool).writeTo(writer);
+    }
+
+    private void writeTo(HCWriter writer) {
+        int maxInFlight = pool.getParallelism() * IN_FLIGHT_CHUNKS_PER_THREAD;
+        try {
+            fill(maxInFlight);
+            while (!inFlight.isEmpty()) {
+                MemoryWriter[] chunks = pollCompletedChunks();
+                ByteBuffer[] buffers = new ByteBuffer[chunks.length];
+                for (int i = 0; i < chunks.length; i++) {
+                    buffers[i] = chunks[i].getBytes();
+                }
+                writer.write(buffers);
+                for (MemoryWriter chunk : chunks) {
+                    bufferPool.add(chunk.takeBuffer());
+                }
+                fill(maxInFlight);
+            }
+        } catch (CompletionException e) {
+            inFlight.forEach(f -> f.cancel(false));
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private void fill(int maxInFlight) {
+        while (inFlight.size() < maxInFlight && nextChunk < nChunks) {
+            int start = nextChunk * chunkItems;
+            int end = Math.min(start + chunkItems, items.size());
+            inFlight.add(CompletableFuture.supplyAsync(() -> format(start, end), pool));
+            nextChunk++;
+        }
+    }
+
+    /**
+     * Waits for the oldest chunk, and takes the chunks following it as long as they are complete, to write as many
+     * chunks as possible in a single gathering write.
+     */
+    private MemoryWriter[] pollCompletedChunks() {
+        int nChunksToWrite = 0;
+        for (CompletableFuture<MemoryWriter> chunk : inFlight) {
+            if (nChunksToWrite > 0 && !chunk.isDone()) {
+                break;
+            }
+            nChunksToWrite++;
+        }
+        MemoryWriter[] chunks = new MemoryWriter[nChunksToWrite];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = inFlight.poll().join();
+        }
+        return chunks;
+    }
+
+    private MemoryWriter format(int start, int end) {
+        ByteBuffer buffer = bufferPool.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+        }
+        MemoryWriter chunkWriter = HCWriter.inMemory(buffer);
+        for (int i = start; i < end; i++) {
+            formatter.accept(items.get(i), chunkWriter);
+        }
+        return chunkWriter;
+    }
+}
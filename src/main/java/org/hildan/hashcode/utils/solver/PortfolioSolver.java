@@ -0,0 +1,144 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import org.hildan.hashcode.utils.parser.HCParser;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@code PortfolioSolver} runs several strategies on the same problem, and only keeps the best solution. The input is
+ * parsed once, and the problem is shared by all strategies, which must therefore not modify it. The strategies run in
+ * parallel, so that cores are kept busy even when there are fewer inputs than threads. Each solution is then scored
+ * with the given scorer, and only the solution with the highest score is written. On equal scores, the first strategy
+ * wins.
+ * <p>
+ * Strategies failing with an exception are logged and ignored, so that a buggy heuristic does not prevent the other
+ * solutions from being written. The input only fails if all strategies fail.
+ *
+ * @param <P>
+ *         the type of problem to solve
+ * @param <S>
+ *         the type of solutions
+ */
+public class PortfolioSolver<P, S> extends AbstractWriterFileSolver {
+
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioSolver.class);
+
+    private final HCParser<P> problemParser;
+
+    private final List<Function<P, ? extends S>> strategies;
+
+    private final ToLongFunction<? super S> scorer;
+
+    private final BiConsumer<? super S, HCWriter> formatter;
+
+    private Executor executor = ForkJoinPool.commonPool();
+
+    /**
+     * Creates a new {@code PortfolioSolver}.
+     *
+     * @param problemParser
+     *         the parser to use for the input files
+     * @param strategies
+     *         the strategies to run on each problem
+     * @param scorer
+     *         the function computing the score of a solution, the higher the better
+     * @param formatter
+     *         the function writing a solution to the given writer
+     */
+    public PortfolioSolver(@NotNull HCParser<P> problemParser, @NotNull List<Function<P, ? extends S>> strategies,
+                           @NotNull ToLongFunction<? super S> scorer,
+                           @NotNull BiConsumer<? super S, HCWriter> formatter) {
+        if (strategies.isEmpty()) {
+            throw new IllegalArgumentException("At least one strategy is required");
+        }
+        this.problemParser = problemParser;
+        this.strategies = new ArrayList<>(strategies);
+        this.scorer = scorer;
+        this.formatter = formatter;
+    }
+
+    /**
+     * Creates a {@code PortfolioSolver} for strategies returning the lines of their solution, like the solvers of
+     * {@link HCSolver}.
+     *
+     * @param problemParser
+     *         the parser to use for the input files
+     * @param strategies
+     *         the strategies to run on each problem
+     * @param scorer
+     *         the function computing the score of a solution, the higher the better
+     * @param <P>
+     *         the type of problem to solve
+     * @param <S>
+     *         the type of solutions
+     *
+     * @return a new solver
+     */
+    public static <P, S extends Iterable<? extends CharSequence>> PortfolioSolver<P, S> ofLines(
+            @NotNull HCParser<P> problemParser, @NotNull List<Function<P, ? extends S>> strategies,
+            @NotNull ToLongFunction<? super S> scorer) {
+        return new PortfolioSolver<>(problemParser, strategies, scorer, (lines, writer) -> {
+            for (CharSequence line : lines) {
+                writer.writeString(line).newLine();
+            }
+        });
+    }
+
+    /**
+     * Sets the executor running the strategies. By default, strategies run on the common {@link ForkJoinPool}.
+     *
+     * @param executor
+     *         the executor to run the strategies on
+     */
+    public void setExecutor(@NotNull Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    protected void solve(String inputFilename, HCWriter writer) {
+        P problem = parseProblem(problemParser, inputFilename);
+        List<CompletableFuture<ScoredSolution<S>>> runs = new ArrayList<>(strategies.size());
+        for (Function<P, ? extends S> strategy : strategies) {
+            runs.add(CompletableFuture.supplyAsync(() -> solveAndScore(strategy, problem), executor));
+        }
+        ScoredSolution<S> best = null;
+        List<Throwable> failures = new ArrayList<>();
+        for (CompletableFuture<ScoredSolution<S>> run : runs) {
+            try {
+                ScoredSolution<S> solution = run.join();
+                if (best == null || solution.score > best.score) {
+                    best = solution;
+                }
+            } catch (CompletionException e) {
+                failures.add(e.getCause());
+            }
+        }
+        if (best == null) {
+            SolverException e = new SolverException(
+                    "All strategies failed on the input file '" + inputFilename + "'", failures.get(0));
+            failures.stream().skip(1).forEach(e::addSuppressed);
+            throw e;
+        }
+        for (Throwable failure : failures) {
+            logger.warn("A strategy failed on the input file '{}', the best other solution is written", inputFilename,
+                    failure);
+        }
+        formatter.accept(best.solution, writer);
+    }
+
+    private ScoredSolution<S> solveAndScore(Function<P, ? extends S> strategy, P problem) {
+        S solution = strategy.apply(problem);
+        return new ScoredSolution<>(solution, scorer.applyAsLong(solution));
+    }
+}
@@ -0,0 +1,19 @@
+package org.hildan.hashcode.utils.solver;
+
+/**
+ * A solution along with its score, as compared by the solvers running several candidate solutions.
+ *
+ * @param <S>
+ *         the type of solution
+ */
+class ScoredSolution<S> {
+
+    final S solution;
+
+    final long score;
+
+    ScoredSolution(S solution, long score) {
+        this.solution = solution;
+        this.score = score;
+    }
+}
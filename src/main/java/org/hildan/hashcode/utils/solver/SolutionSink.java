@@ -0,0 +1,45 @@
+package org.hildan.hashcode.utils.solver;
+
+/**
+ * Receives the candidate solutions of an iterative solver (see {@link AnytimeSolver}). Only the best candidate is kept,
+ * and each strict improvement is persisted in the background.
+ *
+ * @param <S>
+ *         the type of solutions
+ */
+public interface SolutionSink<S> {
+
+    /**
+     * Publishes a candidate solution. The candidate is only kept if its score is strictly greater than the best score
+     * so far, and if the time budget has not expired yet. A kept solution may be written by another thread at any
+     * time, so it must not be modified afterwards.
+     *
+     * @param solution
+     *         the candidate solution
+     * @param score
+     *         the score of the candidate, the higher the better
+     *
+     * @return true if the candidate is the new best solution, false if it was discarded
+     */
+    boolean publish(S solution, long score);
+
+    /**
+     * @return the score of the best solution published so far, or {@link Long#MIN_VALUE} if none was published
+     */
+    long getBestScore();
+
+    /**
+     * @return the remaining time before the budget expires, in nanoseconds, which is negative once expired
+     */
+    long getRemainingNanos();
+
+    /**
+     * Returns whether the time budget has expired. Solvers are expected to check this regularly, and to return as soon
+     * as it is true, since further candidates are discarded.
+     *
+     * @return true if the time budget has expired
+     */
+    default boolean isTimeUp() {
+        return getRemainingNanos() <= 0;
+    }
+}
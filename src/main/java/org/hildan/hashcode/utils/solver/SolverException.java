@@ -2,6 +2,10 @@ package org.hildan.hashcode.utils.solver;
 
 public class SolverException extends RuntimeException {
 
+    public SolverException(String msg) {
+        super(msg);
+    }
+
     public SolverException(String msg, Throwable cause) {
         super(msg, cause);
     }
@@ -4,10 +4,8 @@ import org.hildan.hashcode.utils.parser.Parser
 
 object BasicParsers {
 
-  def point: Parser[Point] = for {
-    x <- Parser.doubl
-    y <- Parser.doubl
-  } yield new Point(x, y)
+  def point: Parser[Point] = Parser.seqDouble(Parser.doubl, Parser.doubl,
+    (x: Double, y: Double) => new Point(x, y))
 
   def problem: Parser[Problem] = for {
     p <- Parser.integer
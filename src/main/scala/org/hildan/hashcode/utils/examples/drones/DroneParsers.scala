@@ -5,22 +5,21 @@ import org.hildan.hashcode.utils.parser.Parser
 import org.hildan.hashcode.utils.parser.Parser.integer
 
 object DroneParsers {
-  def order(n: Int): Parser[Order] = for {
-    x <- integer
-    y <- integer
-    nItems <- integer
-    items <- integer.repeat(nItems)
-    o = new Order(x, y, n)
-    _ = o.setItems(items)
-  } yield o
+  def items: Parser[Array[Int]] = integer.flatMapInt(nItems => integer.repeatArray(nItems))
 
-  def warehouse(n: Int): Parser[Warehouse] = for {
-    x <- integer
-    y <- integer
-    stocks <- integer.repeat(n)
-    wh = new Warehouse(x, y)
-    _ = wh.setStocks(stocks)
-  } yield wh
+  def order(n: Int): Parser[Order] = Parser.seqInt[Array[Int], Order](integer, integer, items,
+    (x: Int, y: Int, items: Array[Int]) => {
+      val o = new Order(x, y, n)
+      o.setItems(items)
+      o
+    }).named("DroneParsers.order")
+
+  def warehouse(n: Int): Parser[Warehouse] = Parser.seqInt(integer, integer, integer.repeatArray(n),
+    (x: Int, y: Int, stocks: Array[Int]) => {
+      val wh = new Warehouse(x, y)
+      wh.setStocks(stocks)
+      wh
+    })
 
   def simulation: Parser[Simulation] = for {
     nRows <- integer
@@ -29,9 +28,9 @@ object DroneParsers {
     nTurns <- integer
     maxLoad <- integer
     nProductTypes <- integer
-    productTypeWeights <- Parser.mapToIntArray(integer.repeat(nProductTypes))
+    productTypeWeights <- integer.repeatArray(nProductTypes)
     nWarehouses <- integer
-    warehouses <- warehouse(nProductTypes).repeat(nWarehouses, Array[Warehouse]())
+    warehouses <- warehouse(nProductTypes).repeat(nWarehouses, new Array[Warehouse](_))
     nOrders <- integer
     orders <- order(nProductTypes).repeat(nOrders)
     sim = new Simulation(nRows, nCols, d, nTurns, maxLoad, nProductTypes)
@@ -5,43 +5,34 @@ import org.hildan.hashcode.utils.parser.Parser
 import org.hildan.hashcode.utils.parser.Parser.integer
 
 object SatellitesParsers {
-  def satellite: Parser[Satellite] = for {
-    lattitude <- integer
-    longitude <- integer
-    v0 <- integer
-    maxOrientationChangePerTurn <- integer
-    maxOrientationValue <- integer
-  } yield new Satellite(lattitude, longitude, v0, maxOrientationChangePerTurn, maxOrientationValue)
+  def satellite: Parser[Satellite] = Parser.seqInt(integer, integer, integer, integer, integer,
+    (lattitude: Int, longitude: Int, v0: Int, maxOrientationChangePerTurn: Int, maxOrientationValue: Int) =>
+      new Satellite(lattitude, longitude, v0, maxOrientationChangePerTurn, maxOrientationValue))
 
-  def location(collection: ImageCollection): Parser[Location] = for {
-    lattitude <- integer
-    longitude <- integer
-  } yield new Location(collection, lattitude, longitude)
+  def location(collection: ImageCollection): Parser[Location] = Parser.seqInt(integer, integer,
+    (lattitude: Int, longitude: Int) => new Location(collection, lattitude, longitude))
 
-  def range: Parser[Array[Int]] = for {
-    start <- integer
-    stop <- integer
-  } yield Array[Int](start, stop)
+  def range: Parser[Array[Int]] = integer.repeatArray(2)
 
-  def collection: Parser[ImageCollection] = for {
+  def collection: Parser[ImageCollection] = (for {
     value <- integer
     nLocations <- integer
     nRanges <- integer
     coll = new ImageCollection(value)
-    locations <- location(coll).repeat(nLocations, Array[Location]())
-    ranges <- range.repeat(nRanges, Array[Array[Int]]())
+    locations <- location(coll).repeat(nLocations, new Array[Location](_))
+    ranges <- range.repeat(nRanges, new Array[Array[Int]](_))
   } yield {
     coll.locations = locations
     coll.ranges = ranges
     coll
-  }
+  }).named("SatellitesParsers.collection")
 
   def simulation: Parser[Simulation] = for {
     nTurns <- integer
     nSatellites <- integer
-    satellites <- satellite.repeat(nSatellites, Array[Satellite]())
+    satellites <- satellite.repeat(nSatellites, new Array[Satellite](_))
     nCollections <- integer
-    collections <- collection.repeat(nCollections, Array[ImageCollection]())
+    collections <- collection.repeat(nCollections, new Array[ImageCollection](_))
     sim = new Simulation(nTurns)
   } yield {
     sim.setCollections(collections)
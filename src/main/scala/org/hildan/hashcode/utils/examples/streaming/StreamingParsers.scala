@@ -0,0 +1,47 @@
+package org.hildan.hashcode.utils.examples.streaming
+
+import org.hildan.hashcode.utils.examples.streaming.model.{Endpoint, Latency, RequestDescs, StreamingProblem}
+import org.hildan.hashcode.utils.parser.Parser
+import org.hildan.hashcode.utils.parser.Parser.integer
+
+object StreamingParsers {
+  def latency: Parser[Latency] = Parser.seqInt(integer, integer, (cacheId: Int, value: Int) => {
+    val l = new Latency
+    l.cacheId = cacheId
+    l.latency = value
+    l
+  })
+
+  def endpoint: Parser[Endpoint] = for {
+    dcLatency <- integer
+    nCaches <- integer
+    latencies <- latency.repeat(nCaches, new Array[Latency](_))
+  } yield {
+    val e = new Endpoint
+    e.dcLatency = dcLatency
+    e.setLatencies(latencies)
+    e
+  }
+
+  def problem: Parser[StreamingProblem] = for {
+    nVideos <- integer
+    nEndpoints <- integer
+    nRequestDescriptions <- integer
+    nCaches <- integer
+    cacheSize <- integer
+    videoSizes <- integer.repeatArray(nVideos)
+    endpoints <- endpoint.repeat(nEndpoints, new Array[Endpoint](_))
+    requests <- Parser.intColumns(nRequestDescriptions, 3)
+  } yield {
+    val p = new StreamingProblem
+    p.nVideos = nVideos
+    p.nEndpoints = nEndpoints
+    p.nRequestDescriptions = nRequestDescriptions
+    p.nCaches = nCaches
+    p.cacheSize = cacheSize
+    p.videoSizes = videoSizes
+    p.endpoints = endpoints
+    p.requestDescs = new RequestDescs(requests)
+    p
+  }
+}
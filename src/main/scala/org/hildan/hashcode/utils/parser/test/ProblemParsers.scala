@@ -4,10 +4,7 @@ import org.hildan.hashcode.utils.parser.Parser
 import org.hildan.hashcode.utils.parser.Parser.{doubl, integer, string}
 
 object ProblemParsers {
-  def point: Parser[Point] = for {
-    x <- doubl
-    y <- doubl
-  } yield new Point(x, y)
+  def point: Parser[Point] = Parser.seqDouble(doubl, doubl, (x: Double, y: Double) => new Point(x, y))
 
   def shape: Parser[Shape] = for {
     name <- string
@@ -1,12 +1,8 @@
 package org.hildan.hashcode.utils.examples.streaming;
 
-import org.hildan.hashcode.utils.examples.streaming.model.Endpoint;
-import org.hildan.hashcode.utils.examples.streaming.model.Latency;
-import org.hildan.hashcode.utils.examples.streaming.model.RequestDesc;
 import org.hildan.hashcode.utils.examples.streaming.model.StreamingProblem;
 import org.hildan.hashcode.utils.parser.HCParser;
-import org.hildan.hashcode.utils.parser.readers.HCReader;
-import org.hildan.hashcode.utils.parser.readers.ObjectReader;
+import org.hildan.hashcode.utils.parser.Parser;
 import org.junit.Test;
 
 import static org.junit.Assert.assertArrayEquals;
@@ -27,32 +23,9 @@ public class StreamingExample {
                     + "4 0 500\n"  // 500 requests for video 4 coming from endpoint 0.
                     + "1 0 1000";  // 1000 requests for video 1 coming from endpoint 0.
 
-    private static ObjectReader<StreamingProblem> streamingProblemReader() {
-        return HCReader.create(StreamingProblem::new)
-                       .thenFieldsAndVars("nVideos", "nEndpoints@E", "nRequestDescriptions@R", "nCaches", "cacheSize")
-                       .thenIntArrayLine((sp, arr) -> sp.videoSizes = arr)
-                       .thenArray((sp, arr) -> sp.endpoints = arr, Endpoint[]::new, "E", endpointReader())
-                       .thenArray((sp, arr) -> sp.requestDescs = arr, RequestDesc[]::new, "R", requestReader());
-    }
-
-    private static ObjectReader<Endpoint> endpointReader() {
-        return HCReader.create(Endpoint::new)
-                       .thenField("dcLatency")
-                       .thenVar("K")
-                       .thenArray(Endpoint::setLatencies, Latency[]::new, "K", latencyReader());
-    }
-
-    private static ObjectReader<Latency> latencyReader() {
-        return HCReader.create(Latency::new).thenFields("cacheId", "latency");
-    }
-
-    private static ObjectReader<RequestDesc> requestReader() {
-        return HCReader.create(RequestDesc::new).thenFields("videoId", "endpointId", "count");
-    }
-
     @Test
     public void test_parser() {
-        ObjectReader<StreamingProblem> rootReader = streamingProblemReader();
+        Parser<StreamingProblem> rootReader = StreamingParsers.problem();
         HCParser<StreamingProblem> parser = new HCParser<>(rootReader);
         StreamingProblem problem = parser.parse(input);
 
@@ -74,22 +47,22 @@ public class StreamingExample {
         assertEquals(500, problem.endpoints[1].dcLatency);
         assertEquals(0, problem.endpoints[1].cacheLatencies.size());
 
-        assertEquals(4, problem.requestDescs.length);
+        assertEquals(4, problem.requestDescs.size());
 
-        assertEquals(1500, problem.requestDescs[0].count);
-        assertEquals(3, problem.requestDescs[0].videoId);
-        assertEquals(0, problem.requestDescs[0].endpointId);
+        assertEquals(1500, problem.requestDescs.counts[0]);
+        assertEquals(3, problem.requestDescs.videoIds[0]);
+        assertEquals(0, problem.requestDescs.endpointIds[0]);
 
-        assertEquals(1000, problem.requestDescs[1].count);
-        assertEquals(0, problem.requestDescs[1].videoId);
-        assertEquals(1, problem.requestDescs[1].endpointId);
+        assertEquals(1000, problem.requestDescs.counts[1]);
+        assertEquals(0, problem.requestDescs.videoIds[1]);
+        assertEquals(1, problem.requestDescs.endpointIds[1]);
 
-        assertEquals(500, problem.requestDescs[2].count);
-        assertEquals(4, problem.requestDescs[2].videoId);
-        assertEquals(0, problem.requestDescs[2].endpointId);
+        assertEquals(500, problem.requestDescs.counts[2]);
+        assertEquals(4, problem.requestDescs.videoIds[2]);
+        assertEquals(0, problem.requestDescs.endpointIds[2]);
 
-        assertEquals(1000, problem.requestDescs[3].count);
-        assertEquals(1, problem.requestDescs[3].videoId);
-        assertEquals(0, problem.requestDescs[3].endpointId);
+        assertEquals(1000, problem.requestDescs.counts[3]);
+        assertEquals(1, problem.requestDescs.videoIds[3]);
+        assertEquals(0, problem.requestDescs.endpointIds[3]);
     }
 }
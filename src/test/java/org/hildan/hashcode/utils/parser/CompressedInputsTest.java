@@ -0,0 +1,186 @@
+package org.hildan.hashcode.utils.parser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompressedInputsTest {
+
+    private static final HCParser<int[]> PARSER = new HCParser<>(
+            Parser.integer.flatMapInt(n -> Parser.integer.repeatArray(n)));
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Compresses the given content as BGZF blocks of at most {@code blockSize} bytes of content, followed by the
+     * empty end-of-file block.
+     */
+    private static byte[] bgzip(String content, int blockSize) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream blocks = new ByteArrayOutputStream();
+        for (int start = 0; start < bytes.length; start += blockSize) {
+            blocks.write(bgzfBlock(bytes, start, Math.min(blockSize, bytes.length - start)));
+        }
+        blocks.write(bgzfBlock(bytes, 0, 0));
+        return blocks.toByteArray();
+    }
+
+    private static byte[] bgzfBlock(byte[] bytes, int offset, int length) {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(bytes, offset, length);
+        deflater.finish();
+        byte[] compressed = new byte[length + 1024];
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            compressedLength += deflater.deflate(compressed, compressedLength, compressed.length - compressedLength);
+        }
+        deflater.end();
+        CRC32 crc = new CRC32();
+        crc.update(bytes, offset, length);
+        ByteBuffer block = ByteBuffer.allocate(18 + compressedLength + 8).order(ByteOrder.LITTLE_ENDIAN);
+        block.put(new byte[]{0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0});
+        block.putShort((short) (block.capacity() - 1));
+        block.put(compressed, 0, compressedLength);
+        block.putInt((int) crc.getValue());
+        block.putInt(length);
+        return block.array();
+    }
+
+    private static String lines(int nLines) {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < nLines; i++) {
+            content.append(i).append(' ').append(i * 31).append('\n');
+        }
+        return content.toString();
+    }
+
+    private static String readAll(InputStream input) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int n;
+        while ((n = input.read(buffer)) >= 0) {
+            bytes.write(buffer, 0, n);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void isCompressed() {
+        assertTrue(CompressedInputs.isCompressed("inputs/problem.in.gz"));
+        assertTrue(CompressedInputs.isCompressed("problem.zip"));
+        assertFalse(CompressedInputs.isCompressed("problem.in"));
+        assertFalse(CompressedInputs.isCompressed("problem.gzip"));
+    }
+
+    @Test
+    public void parseFile_gzip() throws IOException {
+        Path file = folder.newFile("problem.in.gz").toPath();
+        Files.write(file, gzip("3\n1 2 3\n"));
+        assertArrayEquals(new int[]{1, 2, 3}, PARSER.parseFile(file.toString()));
+    }
+
+    @Test
+    public void parseFile_multiMemberGzip() throws IOException {
+        StringBuilder expected = new StringBuilder();
+        ByteArrayOutputStream members = new ByteArrayOutputStream();
+        for (int m = 0; m < 20; m++) {
+            StringBuilder member = new StringBuilder();
+            for (int i = 0; i < 1000; i++) {
+                member.append(m).append(' ').append(i).append('\n');
+            }
+            expected.append(member);
+            members.write(gzip(member.toString()));
+        }
+        Path file = folder.newFile("problem.in.gz").toPath();
+        Files.write(file, members.toByteArray());
+        try (InputStream input = CompressedInputs.open(file)) {
+            assertEquals(expected.toString(), readAll(input));
+        }
+    }
+
+    @Test
+    public void parseFile_bgzf() throws IOException {
+        String content = lines(100000);
+        Path file = folder.newFile("problem.in.gz").toPath();
+        Files.write(file, bgzip(content, 60000));
+        try (InputStream input = CompressedInputs.open(file)) {
+            assertEquals(content, readAll(input));
+        }
+    }
+
+    @Test
+    public void parseFile_bgzfFollowedByPlainMember() throws IOException {
+        String blocks = lines(20000);
+        String member = "1 2 3\n";
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(bgzip(blocks, 10000));
+        bytes.write(gzip(member));
+        Path file = folder.newFile("problem.in.gz").toPath();
+        Files.write(file, bytes.toByteArray());
+        try (InputStream input = CompressedInputs.open(file)) {
+            assertEquals(blocks + member, readAll(input));
+        }
+    }
+
+    @Test(expected = ZipException.class)
+    public void parseFile_bgzfFailsOnCorruptedBlock() throws IOException {
+        byte[] bytes = bgzip(lines(20000), 10000);
+        // flips a bit in the CRC of the first block
+        int firstBlockSize = ((bytes[16] & 0xFF) | (bytes[17] & 0xFF) << 8) + 1;
+        bytes[firstBlockSize - 8] ^= 1;
+        Path file = folder.newFile("problem.in.gz").toPath();
+        Files.write(file, bytes);
+        try (InputStream input = CompressedInputs.open(file)) {
+            readAll(input);
+        }
+    }
+
+    @Test
+    public void parseFile_zip() throws IOException {
+        Path file = folder.newFile("problem.in.zip").toPath();
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            zip.putNextEntry(new ZipEntry("data/"));
+            zip.closeEntry();
+            zip.putNextEntry(new ZipEntry("data/problem.in"));
+            zip.write("2\n4 5\n".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+        assertArrayEquals(new int[]{4, 5}, PARSER.parseFile(file.toString()));
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void parseFile_failsOnMissingFile() throws IOException {
+        PARSER.parseFile(folder.getRoot().toPath().resolve("missing.in.gz").toString());
+    }
+}
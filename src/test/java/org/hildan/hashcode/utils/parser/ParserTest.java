@@ -1,12 +1,26 @@
 package org.hildan.hashcode.utils.parser;
 
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.hildan.hashcode.utils.parser.context.IncompleteInputReadException;
+import org.hildan.hashcode.utils.parser.offheap.DoubleTable;
+import org.hildan.hashcode.utils.parser.offheap.IntTable;
 import org.hildan.hashcode.utils.parser.test.Point;
 import org.hildan.hashcode.utils.parser.test.Problem;
 import org.hildan.hashcode.utils.parser.test.Shape;
 import org.junit.Test;
 
 import org.hildan.hashcode.utils.parser.test.ProblemParsers;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class ParserTest {
 
@@ -63,4 +77,203 @@ public class ParserTest {
         assertEquals(2.21, point11.x, DELTA);
         assertEquals(2.22, point11.y, DELTA);
     }
+
+    @Test
+    public void primitiveRepeatArray() {
+        Parser<int[]> ints = Parser.integer.flatMapInt(n -> Parser.integer.repeatArray(n));
+        assertArrayEquals(new int[]{4, 5, 6}, new HCParser<>(ints).parse("3\n4 5 6"));
+
+        Parser<long[]> longs = Parser.integer.flatMapInt(n -> Parser.lng.repeatArray(n));
+        assertArrayEquals(new long[]{4L, 5000000000L}, new HCParser<>(longs).parse("2\n4 5000000000"));
+
+        Parser<double[]> doubles = Parser.integer.flatMapInt(n -> Parser.doubl.repeatArray(n));
+        assertArrayEquals(new double[]{1.5, -2}, new HCParser<>(doubles).parse("2\n1.5 -2"), DELTA);
+    }
+
+    @Test
+    public void primitiveMaps() {
+        Parser<String> parser = Parser.integer.mapInt(i -> i * 2).mapToObj(Integer::toString);
+        assertEquals("84", new HCParser<>(parser).parse("42"));
+
+        Parser<Double> half = Parser.lng.mapToDouble(l -> l / 2.0);
+        assertEquals(2.5, new HCParser<>(half).parse("5"), DELTA);
+    }
+
+    @Test
+    public void repeatParallel_sameAsSequential() {
+        StringBuilder input = new StringBuilder("1000\n");
+        for (int i = 0; i < 1000; i++) {
+            input.append(i).append(' ').append(i * 2).append('\n').append("line").append(i).append('\n');
+        }
+        Parser<String> record = Parser.integer.flatMap(a -> Parser.integer.flatMap(
+                b -> Parser.string.map(s -> a + "/" + b + "/" + s)));
+        Parser<List<String>> sequential = Parser.integer.flatMap(record::repeat);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            Parser<List<String>> parallel = Parser.integer.flatMap(n -> record.repeatParallel(n, 2, pool));
+
+            List<String> expected = new HCParser<>(sequential).parse(input.toString());
+            assertEquals(expected, new HCParser<>(parallel).parse(input.toString()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void repeatParallel_reportsGlobalLineNumbers() {
+        StringBuilder input = new StringBuilder("100\n");
+        for (int i = 0; i < 100; i++) {
+            input.append(i == 77 ? "x" : String.valueOf(i)).append('\n');
+        }
+        Parser<List<Integer>> parallel = Parser.integer.flatMap(n -> Parser.integer.repeatParallel(n, 1));
+        try {
+            new HCParser<>(parallel).parse(input.toString());
+            fail();
+        } catch (InputParsingException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 79:"));
+        }
+    }
+
+    @Test(expected = IncompleteInputReadException.class)
+    public void repeatParallel_failsOnWrongRecordShape() {
+        Parser<List<Integer>> parallel = Parser.integer.flatMap(n -> Parser.integer.repeatParallel(n, 2));
+        new HCParser<>(parallel).parse("2\n1\n2\n3\n4\n");
+    }
+
+    @Test
+    public void stream_readsOnDemand() {
+        Parser<Stream<Integer>> parser = Parser.integer.flatMap(Parser.integer::stream);
+        Stream<Integer> values = new HCParser<>(parser).parse("3\n1\n2\n3\n");
+        assertEquals("1,2,3", values.map(String::valueOf).collect(Collectors.joining(",")));
+    }
+
+    @Test
+    public void iterate_defersEndOfInputCheck() {
+        Parser<Iterator<Integer>> parser = Parser.integer.flatMap(Parser.integer::iterate);
+        Iterator<Integer> values = new HCParser<>(parser).parse("2\n1\n2\n3\n");
+        assertEquals(1, (int) values.next());
+        try {
+            values.next();
+            fail();
+        } catch (IncompleteInputReadException e) {
+            assertFalse(values.hasNext());
+        }
+    }
+
+    @Test
+    public void iterate_reportsLineNumbers() {
+        Parser<Iterator<Integer>> parser = Parser.integer.flatMap(Parser.integer::iterate);
+        Iterator<Integer> values = new HCParser<>(parser).parse("2\n1\nx\n");
+        assertEquals(1, (int) values.next());
+        try {
+            values.next();
+            fail();
+        } catch (InputParsingException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Line 3:"));
+        }
+    }
+
+    @Test
+    public void iterate_closesReaderOnElementFailure() {
+        Parser<Iterator<Integer>> parser = Parser.integer.flatMap(Parser.integer::iterate);
+        TrackingReader reader = new TrackingReader("3\n1\nx\n3\n");
+        Iterator<Integer> values = new HCParser<>(parser).parse(reader);
+        assertEquals(1, (int) values.next());
+        try {
+            values.next();
+            fail();
+        } catch (InputParsingException e) {
+            assertFalse(values.hasNext());
+            assertTrue(reader.closed);
+        }
+    }
+
+    @Test
+    public void stream_closeChecksEndOfInput() {
+        Parser<Stream<Integer>> parser = Parser.integer.flatMap(Parser.integer::stream);
+        TrackingReader reader = new TrackingReader("3\n1\n2\n3\n");
+        try (Stream<Integer> values = new HCParser<>(parser).parse(reader)) {
+            assertEquals(1, (int) values.findFirst().get());
+            assertFalse(reader.closed);
+        } catch (IncompleteInputReadException e) {
+            assertTrue(reader.closed);
+            return;
+        }
+        fail();
+    }
+
+    @Test
+    public void columns() {
+        Parser<Columns> parser = Parser.integer.flatMap(
+                n -> Parser.columns(n, Columns.Type.INT, Columns.Type.LONG, Columns.Type.DOUBLE));
+        Columns columns = new HCParser<>(parser).parse("3\n1 10000000000 0.5\n2 20 1.5\n3 -30 2\n");
+        assertEquals(3, columns.size());
+        assertEquals(3, columns.width());
+        assertEquals(Columns.Type.LONG, columns.getType(1));
+        assertArrayEquals(new int[]{1, 2, 3}, columns.intColumn(0));
+        assertArrayEquals(new long[]{10000000000L, 20, -30}, columns.longColumn(1));
+        assertArrayEquals(new double[]{0.5, 1.5, 2}, columns.doubleColumn(2), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void columns_failsOnWrongColumnType() {
+        Columns columns = new HCParser<>(Parser.intColumns(1, 2)).parse("1 2");
+        columns.longColumn(1);
+    }
+
+    @Test
+    public void offHeapTables() {
+        IntTable ints = new HCParser<>(Parser.intTable(2, 3)).parse("1 2 3\n4 5 6\n");
+        assertEquals(6, ints.size());
+        assertEquals(2, ints.get(0, 1));
+        assertEquals(6, ints.get(1, 2));
+
+        Parser<DoubleTable> parser = Parser.integer.flatMap(n -> Parser.doubleTable(n, 1));
+        DoubleTable doubles = new HCParser<>(parser).parse("2\n0.5\n-1.5\n");
+        assertEquals(-1.5, doubles.get(1), DELTA);
+    }
+
+    @Test
+    public void seq() {
+        Parser<String> pair = Parser.seq(Parser.integer, Parser.string, (i, s) -> s + i);
+        Parser<String> triple = Parser.seq(Parser.integer, Parser.lng, Parser.doubl,
+                (i, l, d) -> i + "/" + l + "/" + d);
+        Parser<Integer> sum = Parser.seq(Parser.integer, Parser.integer, Parser.integer, Parser.integer,
+                Parser.integer, (a, b, c, d, e) -> a + b + c + d + e);
+        Parser<String> all = Parser.seq(pair, triple, sum, (p, t, s) -> p + " " + t + " " + s);
+        assertEquals("a1 2/3/4.5 15", new HCParser<>(all).parse("1 a\n2 3 4.5\n1 2 3 4 5"));
+    }
+
+    @Test
+    public void seq_primitives() {
+        Parser<String> pair = Parser.seqInt(Parser.integer, Parser.integer, (a, b) -> a + "-" + b);
+        Parser<String> withArray = Parser.seqInt(Parser.integer, Parser.integer, Parser.integer.repeatArray(2),
+                (a, b, values) -> a + b + ":" + values[0] + values[1]);
+        Parser<Integer> sum = Parser.seqInt(Parser.integer, Parser.integer, Parser.integer, Parser.integer,
+                Parser.integer, (a, b, c, d, e) -> a + b + c + d + e);
+        Parser<Double> product = Parser.seqDouble(Parser.doubl, Parser.doubl, (x, y) -> x * y);
+        Parser<String> all = Parser.seq(pair, withArray, sum, product, (p, w, s, d) -> p + " " + w + " " + s + " " + d);
+        assertEquals("1-2 7:89 15 1.25", new HCParser<>(all).parse("1 2\n3 4 8 9\n1 2 3 4 5\n0.5 2.5"));
+    }
+
+    @Test
+    public void repeat_intoArray() {
+        Parser<String[]> parser = Parser.integer.flatMap(n -> Parser.string.repeat(n, String[]::new));
+        assertArrayEquals(new String[]{"a", "b", "c"}, new HCParser<>(parser).parse("3\na b c"));
+    }
+
+    private static class TrackingReader extends StringReader {
+
+        private boolean closed;
+
+        TrackingReader(String content) {
+            super(content);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            super.close();
+        }
+    }
 }
@@ -0,0 +1,57 @@
+package org.hildan.hashcode.utils.parser.config;
+
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Theories.class)
+public class TokenizerTest {
+
+    @DataPoints
+    public static String[] separators() {
+        return new String[]{"\\s", " ", ",", "\\|", "\\.", ";", "\\s+", ", ?"};
+    }
+
+    @DataPoints
+    public static String[] lines() {
+        return new String[]{
+                "a", "a b c", "a  b", " a b ", "1,2,3", "1,,2,", "a|b|c", "1.2.3", "a\tb\u000Bc\fd", "x ; y;z", "",
+        };
+    }
+
+    @Theory
+    public void fromSeparator_sameAsSplit(String separator, String line) {
+        String[] expected = line.isEmpty() ? new String[0] : line.split(separator, -1);
+        assertArrayEquals(expected, Tokenizer.fromSeparator(separator).tokenize(line));
+    }
+
+    @Theory
+    public void regex_sameAsSplit(String separator, String line) {
+        String[] expected = line.isEmpty() ? new String[0] : line.split(separator, -1);
+        assertArrayEquals(expected, Tokenizer.regex(separator).tokenize(line));
+    }
+
+    @Theory
+    public void fromSeparator_usesFastPathForSingleChars(String separator) {
+        if (separator.length() == 1 || separator.length() == 2 && separator.charAt(0) == '\\') {
+            assertTrue(Tokenizer.fromSeparator(separator) instanceof CharTokenizer);
+        }
+    }
+
+    @Theory
+    public void singleChar_nonAscii(String line) {
+        String replaced = line.replace(' ', '\u00A0');
+        String[] expected = replaced.isEmpty() ? new String[0] : replaced.split("\u00A0", -1);
+        assertArrayEquals(expected, Tokenizer.singleChar('\u00A0').tokenize(replaced));
+    }
+
+    @Theory
+    public void charTokenizer_anyOf(String line) {
+        String[] expected = line.isEmpty() ? new String[0] : line.split("[,;]", -1);
+        assertArrayEquals(expected, new CharTokenizer(",;").tokenize(line));
+    }
+}
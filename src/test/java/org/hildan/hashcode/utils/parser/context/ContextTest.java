@@ -0,0 +1,209 @@
+package org.hildan.hashcode.utils.parser.context;
+
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+import org.hildan.hashcode.utils.parser.InputParsingException;
+import org.hildan.hashcode.utils.parser.config.Config;
+import org.hildan.hashcode.utils.parser.config.Tokenizer;
+import org.junit.Rule;
+import org.junit.experimental.theories.DataPoints;
+import org.junit.experimental.theories.Theories;
+import org.junit.experimental.theories.Theory;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(Theories.class)
+public class ContextTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Rule
+    public ExpectedException thrown = ExpectedException.none();
+
+    @DataPoints
+    public static ContextFactory[] contextFactories() {
+        return new ContextFactory[]{
+                new ContextFactory("reader", s -> new Context(new StringReader(s), new Config())),
+                new ContextFactory("mapped", s -> new Context(new MappedFileScanner(
+                        ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8)), Tokenizer.whitespace()))),
+        };
+    }
+
+    private static class ContextFactory {
+
+        private final String name;
+
+        private final Function<String, Context> factory;
+
+        ContextFactory(String name, Function<String, Context> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+
+        Context create(String input) {
+            return factory.apply(input);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Theory
+    public void readIntArray_acrossLines(ContextFactory factory) {
+        Context context = factory.create("1 2 3\n4\n\n5 6\n");
+        assertArrayEquals(new int[]{1, 2}, context.readIntArray(2));
+        assertArrayEquals(new int[]{3, 4, 5}, context.readIntArray(3));
+        assertEquals(6, context.readInt());
+        assertEquals(0, context.readIntArray(0).length);
+        context.closeReader();
+    }
+
+    @Theory
+    public void readLongArray(ContextFactory factory) {
+        Context context = factory.create("10000000000 -3\n7");
+        assertArrayEquals(new long[]{10000000000L, -3, 7}, context.readLongArray(3));
+        context.closeReader();
+    }
+
+    @Theory
+    public void readDoubleArray(ContextFactory factory) {
+        Context context = factory.create("1.5 -2\n3e2");
+        assertArrayEquals(new double[]{1.5, -2, 300}, context.readDoubleArray(3), DELTA);
+        context.closeReader();
+    }
+
+    @Theory
+    public void readIntMatrix(ContextFactory factory) {
+        Context context = factory.create("2 3\n1 2 3\n4 5 6\n");
+        int rows = context.readInt();
+        int cols = context.readInt();
+        assertArrayEquals(new int[][]{{1, 2, 3}, {4, 5, 6}}, context.readIntMatrix(rows, cols));
+        context.closeReader();
+    }
+
+    @Theory
+    public void readInto(ContextFactory factory) {
+        Context context = factory.create("1 2\n3");
+        int[] values = new int[5];
+        context.readInto(values, 1, 3);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 0}, values);
+        context.closeReader();
+    }
+
+    @Theory
+    public void readInto_failsOutOfBounds(ContextFactory factory) {
+        thrown.expect(IndexOutOfBoundsException.class);
+        factory.create("1 2 3").readInto(new int[2], 1, 2);
+    }
+
+    @Theory
+    public void readIntArray_reportsLineOfBadToken(ContextFactory factory) {
+        Context context = factory.create("1 2\n3 x 5\n");
+        try {
+            context.readIntArray(4);
+            fail();
+        } catch (InputParsingException e) {
+            assertTrue(e.getMessage().contains("Line 2"));
+            assertTrue(e.getMessage().contains("'x'"));
+        }
+    }
+
+    @Theory
+    public void readIntArray_failsAtEndOfInput(ContextFactory factory) {
+        thrown.expect(NoMoreLinesToReadException.class);
+        factory.create("1 2\n3\n").readIntArray(4);
+    }
+
+    @Theory
+    public void intVar_readAndGet(ContextFactory factory) {
+        Context context = factory.create("3 4\n");
+        IntVar n = context.intVar("n");
+        assertEquals(3, context.readIntoVariable(n));
+        assertEquals(3, context.get(n));
+        assertEquals(3, context.getVariableAsInt("n"));
+        assertEquals("3", context.getVariable("n"));
+        context.set(n, context.readInt());
+        assertEquals(4, context.get(n));
+    }
+
+    @Theory
+    public void intVar_interopWithStringVariables(ContextFactory factory) {
+        Context context = factory.create("");
+        IntVar n = IntVar.of("n");
+        context.setVariable("n", "42");
+        assertEquals(42, context.get(n));
+        context.setVariable("n", "43");
+        assertEquals(43, context.get(n));
+    }
+
+    @Theory
+    public void intVar_keepsStringValue(ContextFactory factory) {
+        Context context = factory.create("");
+        IntVar x = IntVar.of("x");
+        context.setVariable("x", "007");
+        assertEquals(7, context.get(x));
+        assertEquals(7, context.getVariableAsInt("x"));
+        assertEquals("007", context.getVariable("x"));
+        context.set(x, 8);
+        assertEquals("8", context.getVariable("x"));
+    }
+
+    @Theory
+    public void intVar_failsWhenUndefined(ContextFactory factory) {
+        thrown.expect(UndefinedVariableException.class);
+        factory.create("").get(IntVar.of("undefinedIntVar"));
+    }
+
+    @Theory
+    public void skipTokens_acrossLines(ContextFactory factory) {
+        Context context = factory.create("1 2 3\n4 5\n6 x\n");
+        context.skipTokens(5);
+        assertEquals(6, context.readInt());
+        try {
+            context.readInt();
+            fail();
+        } catch (InputParsingException e) {
+            assertTrue(e.getMessage().contains("Line 3"));
+        }
+    }
+
+    @Theory
+    public void skipLines(ContextFactory factory) {
+        Context context = factory.create("1\nfoo bar\r\n\nbaz\n2 x\n");
+        assertEquals(1, context.readInt());
+        context.skipLines(3);
+        assertEquals(2, context.readInt());
+        try {
+            context.readInt();
+            fail();
+        } catch (InputParsingException e) {
+            assertTrue(e.getMessage().contains("Line 5"));
+        }
+        context.skipLines(0);
+        context.closeReader();
+    }
+
+    @Theory
+    public void skipLines_failsOnIncompleteLine(ContextFactory factory) {
+        thrown.expect(IncompleteLineReadException.class);
+        Context context = factory.create("1 2\n3\n");
+        context.readInt();
+        context.skipLines(1);
+    }
+
+    @Theory
+    public void skipLines_failsWhenNotEnoughLines(ContextFactory factory) {
+        thrown.expect(NoMoreLinesToReadException.class);
+        factory.create("1\n2\n").skipLines(3);
+    }
+}
@@ -0,0 +1,118 @@
+package org.hildan.hashcode.utils.parser.context;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FastDecodingReaderTest {
+
+    private static final String MIXED = "42 caf\u00e9 \u20ac \ud83d\ude00 end\n";
+
+    /**
+     * Returns at most 3 bytes per read, so that multi-byte sequences are cut across reads.
+     */
+    private static class TrickleInputStream extends ByteArrayInputStream {
+
+        TrickleInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public synchronized int read(@NotNull byte[] b, int off, int len) {
+            return super.read(b, off, Math.min(len, 3));
+        }
+    }
+
+    private static String readAll(Reader reader, int bufferSize) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[bufferSize];
+        int n;
+        while ((n = reader.read(buffer, 0, buffer.length)) >= 0) {
+            sb.append(buffer, 0, n);
+        }
+        return sb.toString();
+    }
+
+    private static void assertSameAsInputStreamReader(byte[] bytes, Charset charset) throws IOException {
+        String expected = readAll(new InputStreamReader(new ByteArrayInputStream(bytes), charset), 100);
+        assertEquals(expected, readAll(new FastDecodingReader(new ByteArrayInputStream(bytes), charset), 100));
+        assertEquals(expected, readAll(new FastDecodingReader(new TrickleInputStream(bytes), charset), 7));
+        assertEquals(expected, readAll(new FastDecodingReader(new ByteArrayInputStream(bytes), charset), 1));
+    }
+
+    @Test
+    public void ascii() throws IOException {
+        assertSameAsInputStreamReader("1 2 3\nfoo bar\n".getBytes(StandardCharsets.US_ASCII), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void utf8() throws IOException {
+        assertSameAsInputStreamReader(MIXED.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void utf8_acrossBufferBoundaries() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append(MIXED);
+        }
+        assertSameAsInputStreamReader(sb.toString().getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void utf8_malformed() throws IOException {
+        byte[] bytes = {'a', (byte) 0xC3, 'b', (byte) 0xFF, (byte) 0xE2, (byte) 0x82, 'c', (byte) 0xE2};
+        assertSameAsInputStreamReader(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void latin1() throws IOException {
+        assertSameAsInputStreamReader(MIXED.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1);
+        byte[] allBytes = new byte[256];
+        for (int i = 0; i < allBytes.length; i++) {
+            allBytes[i] = (byte) i;
+        }
+        assertSameAsInputStreamReader(allBytes, StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void usAscii_nonAsciiBytesAreReplaced() throws IOException {
+        assertSameAsInputStreamReader(MIXED.getBytes(StandardCharsets.UTF_8), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void nonAsciiCompatibleCharset() throws IOException {
+        assertSameAsInputStreamReader(MIXED.getBytes(StandardCharsets.UTF_16), StandardCharsets.UTF_16);
+    }
+
+    @Test
+    public void isAsciiCompatible() {
+        assertTrue(FastDecodingReader.isAsciiCompatible(StandardCharsets.UTF_8));
+        assertTrue(FastDecodingReader.isAsciiCompatible(StandardCharsets.ISO_8859_1));
+        assertFalse(FastDecodingReader.isAsciiCompatible(StandardCharsets.UTF_16));
+    }
+
+    @Test
+    public void close_closesStream() throws IOException {
+        boolean[] closed = {false};
+        InputStream input = new ByteArrayInputStream(new byte[0]) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        new FastDecodingReader(input, StandardCharsets.UTF_8).close();
+        assertTrue(closed[0]);
+    }
+}
@@ -5,6 +5,7 @@ import java.io.Reader;
 import java.io.StringReader;
 
 import org.hildan.hashcode.utils.parser.InputParsingException;
+import org.hildan.hashcode.utils.parser.config.EndOfInputCheck;
 import org.jetbrains.annotations.NotNull;
 import org.junit.Before;
 import org.junit.Test;
@@ -12,6 +13,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
 public class LineNumberScannerTest {
 
@@ -129,6 +131,44 @@ public class LineNumberScannerTest {
         scanner.close();
     }
 
+    @Test
+    public void skipLines_keepsLineNumberAndCurrentLine() {
+        scanner.skipTokens(5);
+        assertEquals("42 43 -44", scanner.getCurrentLine());
+        scanner.skipTokens(2);
+        scanner.skipLines(2);
+        assertEquals(4, scanner.getLineNumber());
+        assertEquals("something", scanner.getCurrentLine());
+        scanner.close();
+    }
+
+    @Test
+    public void close_cheapCheckFailsOnUnconsumedInput() {
+        scanner.nextLine();
+        assertCheapCheckFails(scanner);
+    }
+
+    @Test
+    public void close_cheapCheckIgnoresBlankLines() {
+        scanner = new LineNumberScanner(new StringReader("42\n  \n\t\n\n"), "\\s");
+        assertEquals(42, scanner.nextInt());
+        scanner.close(EndOfInputCheck.CHEAP);
+    }
+
+    @Test
+    public void close_offIgnoresUnconsumedInput() {
+        scanner.close(EndOfInputCheck.OFF);
+    }
+
+    private static void assertCheapCheckFails(InputScanner scanner) {
+        try {
+            scanner.close(EndOfInputCheck.CHEAP);
+            fail();
+        } catch (IncompleteInputReadException e) {
+            assertEquals("The end of the input was not consumed", e.getMessage());
+        }
+    }
+
     private static class FailingReader extends Reader {
         @Override
         public int read(@NotNull char[] cbuf, int off, int len) throws IOException {
@@ -0,0 +1,297 @@
+package org.hildan.hashcode.utils.parser.context;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.hildan.hashcode.utils.parser.InputParsingException;
+import org.hildan.hashcode.utils.parser.config.EndOfInputCheck;
+import org.hildan.hashcode.utils.parser.config.CharTokenizer;
+import org.hildan.hashcode.utils.parser.config.Tokenizer;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MappedFileScannerTest {
+
+    private static final String input = "this is a test\n42 43 -44\n\nsomething\n";
+
+    private MappedFileScanner scanner;
+
+    @Before
+    public void setUp() {
+        scanner = scannerOf(input);
+    }
+
+    private static MappedFileScanner scannerOf(String content) {
+        ByteBuffer bytes = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+        return new MappedFileScanner(bytes, Tokenizer.whitespace());
+    }
+
+    @Test
+    public void getLineNumber() {
+        assertEquals(0, scanner.getLineNumber());
+        scanner.nextLine();
+        assertEquals(1, scanner.getLineNumber());
+        scanner.nextInt();
+        assertEquals(2, scanner.getLineNumber());
+        scanner.nextInt();
+        scanner.nextInt();
+        assertEquals(2, scanner.getLineNumber());
+        scanner.nextString();
+        assertEquals(4, scanner.getLineNumber());
+    }
+
+    @Test
+    public void getCurrentLine() {
+        assertNull(scanner.getCurrentLine());
+        assertEquals("this", scanner.nextString());
+        assertEquals("is", scanner.nextString());
+        assertEquals("this is a test", scanner.getCurrentLine());
+
+        assertEquals("a", scanner.nextString());
+        assertEquals("test", scanner.nextString());
+        assertEquals("this is a test", scanner.getCurrentLine());
+
+        assertEquals(42, scanner.nextInt());
+        assertEquals(43, scanner.nextInt());
+        assertEquals("42 43 -44", scanner.getCurrentLine());
+
+        assertEquals(-44, scanner.nextInt());
+        assertEquals("42 43 -44", scanner.getCurrentLine());
+
+        scanner.nextLine();
+        assertEquals("", scanner.getCurrentLine());
+
+        scanner.nextLine();
+        assertEquals("something", scanner.getCurrentLine());
+    }
+
+    @Test
+    public void nextLine() {
+        assertEquals("this is a test", scanner.nextLine());
+        assertEquals("42 43 -44", scanner.nextLine());
+        assertEquals("", scanner.nextLine());
+        assertEquals("something", scanner.nextLine());
+    }
+
+    @Test
+    public void nextLine_windowsLineEndings() {
+        scanner = scannerOf("first line\r\nsecond\r\n");
+        assertEquals("first line", scanner.nextLine());
+        assertEquals("second", scanner.nextLine());
+        scanner.close();
+    }
+
+    @Test(expected = NoMoreLinesToReadException.class)
+    public void nextLine_failsWhenNoMoreLines() {
+        scanner.nextLine();
+        scanner.nextLine();
+        scanner.nextLine();
+        scanner.nextLine();
+        scanner.nextLine();
+    }
+
+    @Test
+    public void next() {
+        assertEquals("this", scanner.nextString());
+        assertEquals("is", scanner.nextString());
+        assertEquals("a", scanner.nextString());
+        assertEquals("test", scanner.nextString());
+        assertEquals(42, scanner.nextInt());
+        assertEquals(43, scanner.nextInt());
+        assertEquals(-44, scanner.nextInt());
+        assertEquals("something", scanner.nextString());
+    }
+
+    @Test
+    public void nextInt_bounds() {
+        scanner = scannerOf("2147483647 -2147483648 +12 007");
+        assertEquals(Integer.MAX_VALUE, scanner.nextInt());
+        assertEquals(Integer.MIN_VALUE, scanner.nextInt());
+        assertEquals(12, scanner.nextInt());
+        assertEquals(7, scanner.nextInt());
+    }
+
+    @Test(expected = InputParsingException.class)
+    public void nextInt_failsOnStrings() {
+        scanner.nextInt();
+    }
+
+    @Test(expected = InputParsingException.class)
+    public void nextInt_failsOnOverflow() {
+        scannerOf("2147483648").nextInt();
+    }
+
+    @Test
+    public void nextLong_bounds() {
+        scanner = scannerOf("9223372036854775807 -9223372036854775808 -42");
+        assertEquals(Long.MAX_VALUE, scanner.nextLong());
+        assertEquals(Long.MIN_VALUE, scanner.nextLong());
+        assertEquals(-42L, scanner.nextLong());
+    }
+
+    @Test
+    public void nextDouble_sameAsParseDouble() {
+        String[] values = {"0", "-0", "1.5", "-2.25", "3.", ".5", "1e10", "1.2E-5", "123456789.123456789",
+                "0.1", "0.3", "1e23", "1e-30", "9007199254740993", "2.2250738585072014E-308", "NaN", "Infinity",
+                "-Infinity", "1.0f", "0x1p3", "00001.50000"};
+        scanner = scannerOf(String.join(" ", values));
+        for (String value : values) {
+            double expected = Double.parseDouble(value);
+            assertEquals(value, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(scanner.nextDouble()));
+        }
+    }
+
+    @Test(expected = InputParsingException.class)
+    public void nextDouble_failsOnStrings() {
+        scanner.nextDouble();
+    }
+
+    @Test
+    public void nextLineTokens() {
+        assertArrayEquals(new String[]{"this", "is", "a", "test"}, scanner.nextLineTokens());
+        assertArrayEquals(new String[]{"42", "43", "-44"}, scanner.nextLineTokens());
+        assertArrayEquals(new String[0], scanner.nextLineTokens());
+        assertArrayEquals(new String[]{"something"}, scanner.nextLineTokens());
+    }
+
+    @Test
+    public void nextLineTokens_sameAsSplit() {
+        String line = "a  b c ";
+        scanner = scannerOf(line);
+        assertArrayEquals(line.split("\\s", -1), scanner.nextLineTokens());
+    }
+
+    @Test
+    public void customSeparator() {
+        scanner = new MappedFileScanner(ByteBuffer.wrap("1,2,3".getBytes(StandardCharsets.UTF_8)),
+                new CharTokenizer(","));
+        assertEquals(1, scanner.nextInt());
+        assertEquals(2, scanner.nextInt());
+        assertEquals(3, scanner.nextInt());
+    }
+
+    @Test
+    public void supports() {
+        assertTrue(MappedFileScanner.supports(Tokenizer.whitespace()));
+        assertTrue(MappedFileScanner.supports(Tokenizer.fromSeparator(",")));
+        assertTrue(MappedFileScanner.supports(Tokenizer.fromSeparator("\\|")));
+        assertFalse(MappedFileScanner.supports(Tokenizer.fromSeparator("\\s+")));
+        assertFalse(MappedFileScanner.supports(line -> line.split(" ")));
+    }
+
+    @Test(expected = IncompleteLineReadException.class)
+    public void nextLineTokens_failsOnIncompleteLineRead() {
+        assertEquals("this", scanner.nextString());
+        assertEquals("is", scanner.nextString());
+        scanner.nextLineTokens();
+    }
+
+    @Test(expected = IncompleteInputReadException.class)
+    public void close_failsOnUnconsumedInput() {
+        scanner.close();
+    }
+
+    @Test
+    public void close_ignoresBlankLines() {
+        scanner = scannerOf("42\n  \n\t\n\n");
+        assertEquals(42, scanner.nextInt());
+        scanner.close();
+    }
+
+    @Test
+    public void detachLines() {
+        scanner = scannerOf("1\n2 3\n4\n5");
+        assertEquals(1, scanner.nextInt());
+        InputScanner detached = scanner.detachLines(2);
+        assertEquals(5, scanner.nextInt());
+        assertEquals(4, scanner.getLineNumber());
+
+        assertEquals(1, detached.getLineNumber());
+        assertEquals(2, detached.nextInt());
+        assertEquals(3, detached.nextInt());
+        assertEquals(2, detached.getLineNumber());
+        assertEquals(4, detached.nextInt());
+        assertEquals(3, detached.getLineNumber());
+        detached.close();
+    }
+
+    @Test(expected = NoMoreLinesToReadException.class)
+    public void detachLines_failsWhenNotEnoughLines() {
+        scanner.detachLines(5);
+    }
+
+    @Test
+    public void mappedFile() throws IOException {
+        Path file = Files.createTempFile("mapped-scanner", ".in");
+        try {
+            Files.write(file, input.getBytes(StandardCharsets.UTF_8));
+            scanner = new MappedFileScanner(file, Tokenizer.whitespace());
+            assertEquals("this is a test", scanner.nextLine());
+            assertArrayEquals(new String[]{"42", "43", "-44"}, scanner.nextLineTokens());
+            assertEquals(2, scanner.getLineNumber());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void skipLines_keepsLineNumberAndCurrentLine() {
+        scanner.skipTokens(5);
+        assertEquals("42 43 -44", scanner.getCurrentLine());
+        scanner.skipTokens(2);
+        scanner.skipLines(2);
+        assertEquals(4, scanner.getLineNumber());
+        assertEquals("something", scanner.getCurrentLine());
+        scanner.close();
+    }
+
+    @Test
+    public void close_cheapCheckFailsOnUnconsumedInput() {
+        scanner.nextLine();
+        assertCheapCheckFails(scanner);
+    }
+
+    @Test
+    public void close_cheapCheckIgnoresBlankLines() {
+        scanner = scannerOf("42\n  \n\t\n\n");
+        assertEquals(42, scanner.nextInt());
+        scanner.close(EndOfInputCheck.CHEAP);
+    }
+
+    @Test
+    public void close_offIgnoresUnconsumedInput() {
+        scanner.close(EndOfInputCheck.OFF);
+    }
+
+    @Test
+    public void latin1Strings() {
+        byte[] bytes = "caf\u00e9 42".getBytes(StandardCharsets.ISO_8859_1);
+        scanner = new MappedFileScanner(ByteBuffer.wrap(bytes), Tokenizer.whitespace(), StandardCharsets.ISO_8859_1);
+        assertEquals("caf\u00e9", scanner.nextString());
+        assertEquals(42, scanner.nextInt());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failsOnNonAsciiCompatibleCharset() {
+        new MappedFileScanner(ByteBuffer.wrap(new byte[0]), Tokenizer.whitespace(), StandardCharsets.UTF_16);
+    }
+
+    private static void assertCheapCheckFails(InputScanner scanner) {
+        try {
+            scanner.close(EndOfInputCheck.CHEAP);
+            fail();
+        } catch (IncompleteInputReadException e) {
+            assertEquals("The end of the input was not consumed", e.getMessage());
+        }
+    }
+}
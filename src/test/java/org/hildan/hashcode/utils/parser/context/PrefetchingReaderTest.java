@@ -0,0 +1,113 @@
+package org.hildan.hashcode.utils.parser.context;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.hildan.hashcode.utils.parser.HCParser;
+import org.hildan.hashcode.utils.parser.InputParsingException;
+import org.hildan.hashcode.utils.parser.config.Config;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class PrefetchingReaderTest {
+
+    private static final String input = IntStream.range(0, 10000)
+                                                 .mapToObj(i -> i + " " + (i * 7) + " line" + i)
+                                                 .collect(Collectors.joining("\n", "", "\n"));
+
+    @Test
+    public void readsWholeInput_smallChunks() throws IOException {
+        try (Reader reader = new PrefetchingReader(new StringReader(input), 7, 2)) {
+            assertEquals(input, readAll(reader));
+        }
+    }
+
+    @Test
+    public void readsWholeInput_defaultChunks() throws IOException {
+        try (Reader reader = new PrefetchingReader(new StringReader(input))) {
+            assertEquals(input, readAll(reader));
+        }
+    }
+
+    @Test
+    public void singleCharReads() throws IOException {
+        try (Reader reader = new PrefetchingReader(new StringReader("ab"), 1, 2)) {
+            assertEquals('a', reader.read());
+            assertEquals('b', reader.read());
+            assertEquals(-1, reader.read());
+            assertEquals(-1, reader.read());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void read_failsOnSourceError() throws IOException {
+        Reader failing = new Reader() {
+            @Override
+            public int read(@NotNull char[] cbuf, int off, int len) throws IOException {
+                throw new IOException("test exception");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        try (Reader reader = new PrefetchingReader(failing)) {
+            reader.read();
+        }
+    }
+
+    @Test
+    public void contextWithPrefetching() {
+        Context context = new Context(new StringReader("1 2 3\n4 5\n"), new Config().withPrefetching(true));
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5}, context.readIntArray(5));
+        context.closeReader();
+    }
+
+    @Test
+    public void parseFailure_stopsPrefetcher() throws InterruptedException {
+        HCParser<int[]> parser = new HCParser<>(ctx -> ctx.readIntArray(5), new Config().withPrefetching(true));
+        // larger than the chunks that can be read ahead, so that the prefetcher cannot reach the end by itself
+        String invalidInput = "1 2 x\n" + input + input;
+        for (int i = 0; i < 5; i++) {
+            try {
+                parser.parse(invalidInput);
+                fail();
+            } catch (InputParsingException e) {
+                // expected
+            }
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (countPrefetcherThreads() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, countPrefetcherThreads());
+    }
+
+    private static long countPrefetcherThreads() {
+        return Thread.getAllStackTraces()
+                     .keySet()
+                     .stream()
+                     .filter(t -> t.isAlive() && "input-prefetcher".equals(t.getName()))
+                     .count();
+    }
+
+    private static String readAll(Reader reader) throws IOException {
+        BufferedReader bufferedReader = new BufferedReader(reader, 13);
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[100];
+        int n;
+        while ((n = bufferedReader.read(buffer, 0, buffer.length)) >= 0) {
+            sb.append(buffer, 0, n);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package org.hildan.hashcode.utils.parser.gen;
+
+import org.hildan.hashcode.utils.parser.HCParser;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class GeneratedParserTest {
+
+    private static final double DELTA = 0.0001;
+
+    private static final String input = "" //
+            + "2\n"             // 2 product types
+            + "10 20\n"         // warehouse location
+            + "apple pear\n"    // product labels
+            + "2\n"             // 2 orders
+            + "first 1 2\n"     // order name and location
+            + "3 0 1 1\n"       // 3 items
+            + "10000000000 0.5\n" // order weight and priority
+            + "second 3 4\n"    // order name and location
+            + "0\n"             // no items
+            + "1 1.5\n"         // order weight and priority
+            + "0.25 0.75\n";    // costs per product type
+
+    @Test
+    public void constructorParser() {
+        Location location = new HCParser<>(LocationParser.INSTANCE).parse("4 2");
+        assertEquals(4, location.row);
+        assertEquals(2, location.col);
+    }
+
+    @Test
+    public void nestedParsers() {
+        Warehouse warehouse = new HCParser<>(WarehouseParser.INSTANCE).parse(input);
+        assertEquals(10, warehouse.location.row);
+        assertEquals(20, warehouse.location.col);
+        assertArrayEquals(new String[]{"apple", "pear"}, warehouse.labels);
+        assertArrayEquals(new double[]{0.25, 0.75}, warehouse.costs, DELTA);
+        assertEquals(2, warehouse.orders.length);
+
+        Order first = warehouse.orders[0];
+        assertEquals("first", first.name);
+        assertEquals(2, first.location.col);
+        assertEquals(2, first.nProductTypes);
+        assertEquals(3, first.nItems);
+        assertArrayEquals(new int[]{0, 1, 1}, first.items);
+        assertNull(first.quantities);
+        assertEquals(10000000000L, first.weight);
+        assertEquals(0.5, first.priority, DELTA);
+
+        Order second = warehouse.orders[1];
+        assertEquals("second", second.name);
+        assertEquals(0, second.items.length);
+        assertEquals(1.5, second.priority, DELTA);
+    }
+}
@@ -0,0 +1,14 @@
+package org.hildan.hashcode.utils.parser.gen;
+
+public class Location {
+
+    public final int row;
+
+    public final int col;
+
+    @GenerateParser
+    public Location(int row, int col) {
+        this.row = row;
+        this.col = col;
+    }
+}
@@ -0,0 +1,24 @@
+package org.hildan.hashcode.utils.parser.gen;
+
+@GenerateParser
+public class Order {
+
+    public String name;
+
+    public Location location;
+
+    @FromVar("P")
+    public int nProductTypes;
+
+    public int nItems;
+
+    @Count("nItems")
+    public int[] items;
+
+    @Skip
+    public int[] quantities;
+
+    public long weight;
+
+    public double priority;
+}
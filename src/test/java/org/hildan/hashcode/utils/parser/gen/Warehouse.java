@@ -0,0 +1,21 @@
+package org.hildan.hashcode.utils.parser.gen;
+
+public class Warehouse {
+
+    public final Location location;
+
+    public final String[] labels;
+
+    public final Order[] orders;
+
+    public final double[] costs;
+
+    @GenerateParser
+    public Warehouse(@Var("P") int nProductTypes, Location location, @Count("nProductTypes") String[] labels, int i,
+                     @Count("i") Order[] orders, @Count(var = "P") double[] costs) {
+        this.location = location;
+        this.labels = labels;
+        this.orders = orders;
+        this.costs = costs;
+    }
+}
@@ -0,0 +1,63 @@
+package org.hildan.hashcode.utils.parser.metrics;
+
+import java.util.List;
+
+import org.hildan.hashcode.utils.parser.HCParser;
+import org.hildan.hashcode.utils.parser.Parser;
+import org.hildan.hashcode.utils.parser.config.Config;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ParseMetricsTest {
+
+    private static final String INPUT = "3\n1 2\n3 4\n5 6\n";
+
+    private static final Parser<int[]> POINT = Parser.integer.repeatArray(2).named("point");
+
+    private static final Parser<List<int[]>> POINTS = Parser.integer.flatMapInt(n -> POINT.repeat(n)).named("points");
+
+    @Test
+    public void recordsNamedParsers() {
+        ParseMetrics metrics = new ParseMetrics();
+        HCParser<List<int[]>> parser = new HCParser<>(POINTS, new Config().withMetrics(metrics));
+        List<int[]> points = parser.parse(INPUT);
+        assertArrayEquals(new int[]{5, 6}, points.get(2));
+
+        ParserStats point = metrics.getStats("point");
+        assertEquals(3, point.getInvocations());
+        assertEquals(6, point.getTokens());
+        assertEquals(3, point.getLines());
+        assertEquals("1 2\n3 4\n5 6\n".length(), point.getBytes());
+
+        ParserStats all = metrics.getStats("points");
+        assertEquals(1, all.getInvocations());
+        assertEquals(7, all.getTokens());
+        assertEquals(4, all.getLines());
+        assertEquals(INPUT.length(), all.getBytes());
+        assertTrue(all.getNanos() >= point.getNanos());
+
+        assertEquals("points", metrics.getStats().get(0).getName());
+        assertTrue(metrics.report().contains("point"));
+    }
+
+    @Test
+    public void accumulatesAcrossParsingsUntilReset() {
+        ParseMetrics metrics = new ParseMetrics();
+        HCParser<List<int[]>> parser = new HCParser<>(POINTS, new Config().withMetrics(metrics));
+        parser.parse(INPUT);
+        parser.parse(INPUT);
+        assertEquals(6, metrics.getStats("point").getInvocations());
+        metrics.reset();
+        assertNull(metrics.getStats("point"));
+    }
+
+    @Test
+    public void disabledByDefault() {
+        List<int[]> points = new HCParser<>(POINTS).parse(INPUT);
+        assertEquals(3, points.size());
+    }
+}
@@ -0,0 +1,65 @@
+package org.hildan.hashcode.utils.parser.offheap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class IntTableTest {
+
+    @Test
+    public void getSet() {
+        IntTable table = new IntTable(3, 2);
+        assertEquals(3, table.rows());
+        assertEquals(2, table.cols());
+        assertEquals(6, table.size());
+        assertEquals(0, table.get(2, 1));
+
+        table.set(1, 0, 42);
+        table.set(5, -1);
+        assertEquals(42, table.get(2));
+        assertEquals(42, table.get(1, 0));
+        assertEquals(-1, table.get(2, 1));
+    }
+
+    @Test
+    public void bulkGetSet() {
+        IntTable table = new IntTable(2, 3);
+        table.set(1, new int[]{9, 1, 2, 3, 9}, 1, 3);
+        int[] dst = new int[6];
+        table.get(0, dst, 0, 6);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 0, 0}, dst);
+    }
+
+    @Test
+    public void emptyTable() {
+        IntTable table = new IntTable(0, 5);
+        assertEquals(0, table.size());
+        table.set(0, new int[0], 0, 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_failsOutOfBounds() {
+        new IntTable(2, 2).get(4);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_failsOnNegativeIndex() {
+        new IntTable(2, 2).get(-1L << 60);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void get_failsOnColumnOutOfBounds() {
+        new IntTable(2, 2).get(0, 2);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void bulkSet_failsOutOfBounds() {
+        new IntTable(2, 2).set(2, new int[3], 0, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_failsOnNegativeDimension() {
+        new IntTable(-1, 2);
+    }
+}
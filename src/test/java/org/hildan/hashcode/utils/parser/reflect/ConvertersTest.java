@@ -0,0 +1,87 @@
+package org.hildan.hashcode.utils.parser.reflect;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ConvertersTest {
+
+    private enum Direction {
+        NORTH,
+        SOUTH
+    }
+
+    private static class Coords {
+        final int x;
+
+        final int y;
+
+        Coords(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    private static class Model {
+        private Direction direction;
+
+        private Coords coords;
+
+        private long packed;
+    }
+
+    @Test
+    public void get_isResolvedOnce() {
+        assertSame(Converters.get(int.class), Converters.get(int.class));
+    }
+
+    @Test
+    public void get_primitiveSpecialized() {
+        assertTrue(Converters.get(int.class) instanceof ToIntConverter);
+        assertTrue(Converters.get(Long.class) instanceof ToLongConverter);
+        assertTrue(Converters.get(double.class) instanceof ToDoubleConverter);
+        assertEquals(-42, ((ToIntConverter) Converters.get(int.class)).convertToInt("-42"));
+    }
+
+    @Test
+    public void get_enums() {
+        assertEquals(Direction.SOUTH, Converters.get(Direction.class).convert("SOUTH"));
+    }
+
+    @Test(expected = StringConversionException.class)
+    public void get_enums_failsOnUnknownConstant() {
+        Converters.get(Direction.class).convert("EAST");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void get_failsOnUnsupportedType() {
+        Converters.get(Object.class);
+    }
+
+    @Test
+    public void register_customType() {
+        assertFalse(Converters.isSupported(Coords.class));
+        Converters.register(Coords.class, value -> {
+            String[] parts = value.split(":");
+            return new Coords(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+        });
+        assertTrue(Converters.isSupported(Coords.class));
+
+        Model model = new Model();
+        ReflectUtils.setField(model, "coords", "3:4");
+        ReflectUtils.setField(model, "direction", "NORTH");
+        assertEquals(3, model.coords.x);
+        assertEquals(4, model.coords.y);
+        assertEquals(Direction.NORTH, model.direction);
+    }
+
+    @Test
+    public void fieldSetter_usesPrimitiveConverters() {
+        Model model = new Model();
+        ReflectUtils.setField(model, "packed", "10000000000");
+        assertEquals(10000000000L, model.packed);
+    }
+}
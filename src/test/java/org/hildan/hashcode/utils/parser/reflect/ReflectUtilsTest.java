@@ -0,0 +1,112 @@
+package org.hildan.hashcode.utils.parser.reflect;
+
+import org.hildan.hashcode.utils.parser.InputParsingException;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class ReflectUtilsTest {
+
+    private static class Model {
+        private int intField;
+
+        private long longField;
+
+        private double doubleField;
+
+        private Integer boxedField;
+
+        private String stringField;
+
+        private Object objectField;
+
+        private final int finalField;
+
+        Model() {
+            finalField = -1;
+        }
+
+        int getFinalField() {
+            return finalField;
+        }
+    }
+
+    @Test
+    public void setField_convertsStrings() {
+        Model model = new Model();
+        ReflectUtils.setField(model, "intField", "42");
+        ReflectUtils.setField(model, "longField", "10000000000");
+        ReflectUtils.setField(model, "boxedField", "-3");
+        ReflectUtils.setField(model, "stringField", "text");
+        assertEquals(42, model.intField);
+        assertEquals(10000000000L, model.longField);
+        assertEquals(Integer.valueOf(-3), model.boxedField);
+        assertEquals("text", model.stringField);
+    }
+
+    @Test
+    public void setField_acceptsBoxedValues() {
+        Model model = new Model();
+        ReflectUtils.setField(model, "intField", 42);
+        ReflectUtils.setField(model, "boxedField", 43);
+        ReflectUtils.setField(model, "stringField", null);
+        assertEquals(42, model.intField);
+        assertEquals(Integer.valueOf(43), model.boxedField);
+    }
+
+    @Test
+    public void setPrimitives() {
+        Model model = new Model();
+        ReflectUtils.setInt(model, "intField", 1);
+        ReflectUtils.setInt(model, "longField", 2);
+        ReflectUtils.setInt(model, "boxedField", 3);
+        ReflectUtils.setDouble(model, "doubleField", 4.5);
+        assertEquals(1, model.intField);
+        assertEquals(2L, model.longField);
+        assertEquals(Integer.valueOf(3), model.boxedField);
+        assertEquals(4.5, model.doubleField, 0);
+    }
+
+    @Test
+    public void setField_setsFinalFields() {
+        Model model = new Model();
+        ReflectUtils.setInt(model, "finalField", 5);
+        assertEquals(5, model.getFinalField());
+    }
+
+    @Test
+    public void getSetter_isCached() {
+        assertSame(ReflectUtils.getSetter(Model.class, "intField"), ReflectUtils.getSetter(Model.class, "intField"));
+    }
+
+    @Test(expected = InputParsingException.class)
+    public void setField_failsOnUnknownField() {
+        ReflectUtils.setField(new Model(), "unknown", "42");
+    }
+
+    @Test(expected = InputParsingException.class)
+    public void setField_failsOnUnsupportedType() {
+        ReflectUtils.setField(new Model(), "objectField", "42");
+    }
+
+    @Test(expected = InputParsingException.class)
+    public void setField_failsOnTypeMismatch() {
+        ReflectUtils.setField(new Model(), "intField", 4.2);
+    }
+
+    @Test(expected = InputParsingException.class)
+    public void setField_failsOnNullPrimitive() {
+        ReflectUtils.setField(new Model(), "intField", null);
+    }
+
+    @Test(expected = InputParsingException.class)
+    public void setLong_failsOnNarrowing() {
+        ReflectUtils.setLong(new Model(), "intField", 42L);
+    }
+
+    @Test(expected = InputParsingException.class)
+    public void setInt_failsOnStringField() {
+        ReflectUtils.setInt(new Model(), "stringField", 42);
+    }
+}
@@ -0,0 +1,153 @@
+package org.hildan.hashcode.utils.parser.snapshot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hildan.hashcode.utils.parser.Parser;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SnapshotHCParserTest {
+
+    private static final SnapshotCodec<int[]> INT_ARRAY_CODEC = new SnapshotCodec<int[]>() {
+        @Override
+        public void write(int[] value, DataOutputStream out) throws IOException {
+            SnapshotIO.writeIntArray(out, value);
+        }
+
+        @Override
+        public int[] read(DataInputStream in) throws IOException {
+            return SnapshotIO.readIntArray(in);
+        }
+    };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger nParses = new AtomicInteger();
+
+    private Path input;
+
+    @Before
+    public void setUp() throws IOException {
+        input = folder.newFile("problem.in").toPath();
+        write(input, "3\n1 2 3\n");
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private SnapshotHCParser<int[]> parser(String version) {
+        Parser<int[]> parser = Parser.integer.flatMapInt(n -> {
+            nParses.incrementAndGet();
+            return Parser.integer.repeatArray(n);
+        });
+        return new SnapshotHCParser<>(parser, INT_ARRAY_CODEC, version);
+    }
+
+    @Test
+    public void parseFile_usesSnapshot() throws IOException {
+        assertArrayEquals(new int[]{1, 2, 3}, parser("v1").parseFile(input.toString()));
+        assertTrue(Files.exists(SnapshotHCParser.getSnapshotPath(input)));
+        assertArrayEquals(new int[]{1, 2, 3}, parser("v1").parseFile(input.toString()));
+        assertEquals(1, nParses.get());
+    }
+
+    @Test
+    public void parseFile_ignoresSnapshotWhenContentChanges() throws IOException {
+        parser("v1").parseFile(input.toString());
+        write(input, "2\n4 5\n");
+        assertArrayEquals(new int[]{4, 5}, parser("v1").parseFile(input.toString()));
+        assertEquals(2, nParses.get());
+    }
+
+    @Test
+    public void parseFile_ignoresSnapshotWhenContentChangesWithSameSize() throws IOException {
+        parser("v1").parseFile(input.toString());
+        FileTime modifiedTime = Files.getLastModifiedTime(input);
+        write(input, "3\n4 5 6\n");
+        Files.setLastModifiedTime(input, FileTime.fromMillis(modifiedTime.toMillis() + 60_000));
+        assertArrayEquals(new int[]{4, 5, 6}, parser("v1").parseFile(input.toString()));
+        assertEquals(2, nParses.get());
+    }
+
+    @Test
+    public void parseFile_usesSnapshotWhenOnlyModifiedTimeChanges() throws IOException {
+        parser("v1").parseFile(input.toString());
+        FileTime modifiedTime = Files.getLastModifiedTime(input);
+        Files.setLastModifiedTime(input, FileTime.fromMillis(modifiedTime.toMillis() + 60_000));
+        assertArrayEquals(new int[]{1, 2, 3}, parser("v1").parseFile(input.toString()));
+        assertEquals(1, nParses.get());
+    }
+
+    @Test
+    public void parseFile_ignoresSnapshotWhenVersionChanges() throws IOException {
+        parser("v1").parseFile(input.toString());
+        parser("v2").parseFile(input.toString());
+        assertEquals(2, nParses.get());
+    }
+
+    @Test
+    public void parseFile_ignoresCorruptSnapshot() throws IOException {
+        parser("v1").parseFile(input.toString());
+        write(SnapshotHCParser.getSnapshotPath(input), "garbage");
+        assertArrayEquals(new int[]{1, 2, 3}, parser("v1").parseFile(input.toString()));
+        assertEquals(2, nParses.get());
+    }
+
+    @Test
+    public void snapshotIO_roundTrip() throws IOException {
+        int[] ints = new int[5000];
+        long[] longs = new long[3000];
+        double[] doubles = new double[2000];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i * 31 - 7;
+        }
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = i * 10000000000L;
+        }
+        for (int i = 0; i < doubles.length; i++) {
+            doubles[i] = i / 3.0;
+        }
+        String[] strings = {"abc", "", null, "\u00e9t\u00e9"};
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        SnapshotIO.writeIntArray(out, ints);
+        SnapshotIO.writeLongArray(out, longs);
+        SnapshotIO.writeDoubleArray(out, doubles);
+        SnapshotIO.writeStringArray(out, strings);
+        SnapshotIO.writeIntArray(out, null);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertArrayEquals(ints, SnapshotIO.readIntArray(in));
+        assertArrayEquals(longs, SnapshotIO.readLongArray(in));
+        assertArrayEquals(doubles, SnapshotIO.readDoubleArray(in), 0);
+        assertArrayEquals(strings, SnapshotIO.readStringArray(in));
+        assertNull(SnapshotIO.readIntArray(in));
+    }
+
+    @Test
+    public void serializationCodec() throws IOException {
+        SnapshotCodec<String> codec = SnapshotCodec.serialization();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.write("hello", new DataOutputStream(bytes));
+        assertEquals("hello", codec.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+}
@@ -34,6 +34,11 @@ public class AbstractFileSolverTest {
                 new Expectation("inputs/myInput.in", "outputs/myInput.out"),
                 new Expectation("weirdinputs/myInput", "weirdinputs/myInput.out"),
                 new Expectation("weirdinputs/myInput.in", "weirdinputs/myInput.out"),
+                new Expectation("myInput.gz", "myInput.out"),
+                new Expectation("myInput.in.gz", "myInput.out"),
+                new Expectation("inputs/myInput.in.zip", "outputs/myInput.out"),
+                new Expectation("myInput.gzip", "myInput.gzip.out"),
+                new Expectation("myInput.in.gz.stuff", "myInput.in.gz.stuff.out"),
         };
     }
 
@@ -0,0 +1,88 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+
+import org.hildan.hashcode.utils.parser.context.Context;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AnytimeSolverTest {
+
+    @Rule
+    public ProblemFolder folder = new ProblemFolder();
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws IOException {
+        folder.writeInput("7");
+    }
+
+    private static void formatSolution(Integer solution, HCWriter writer) {
+        writer.writeInt(solution).newLine();
+    }
+
+    @Test
+    public void keepsBestSolution() throws IOException {
+        AnytimeSolver<Integer, Integer> solver = new AnytimeSolver<>(Context::readInt, (n, sink) -> {
+            assertTrue(sink.publish(n, 10));
+            assertFalse(sink.publish(n + 1, 5));
+            assertFalse(sink.publish(n + 2, 10));
+            assertTrue(sink.publish(n + 3, 11));
+            assertEquals(11, sink.getBestScore());
+        }, AnytimeSolverTest::formatSolution, Duration.ofMinutes(1));
+        solver.accept(folder.getInput().toString());
+        assertEquals("10\n", folder.readOutput());
+    }
+
+    @Test
+    public void writesImprovementsInBackground() throws IOException {
+        AnytimeSolver<Integer, Integer> solver = new AnytimeSolver<>(Context::readInt, (n, sink) -> {
+            sink.publish(n, 1);
+            try {
+                long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+                while (!Files.exists(folder.getOutput()) && System.nanoTime() < deadline) {
+                    Thread.sleep(5);
+                }
+                assertEquals("7\n", folder.readOutput());
+            } catch (InterruptedException | IOException e) {
+                throw new AssertionError(e);
+            }
+            sink.publish(n * 2, 2);
+        }, AnytimeSolverTest::formatSolution, Duration.ofMinutes(1));
+        solver.setMinWriteInterval(Duration.ofHours(1));
+        solver.accept(folder.getInput().toString());
+        assertEquals("14\n", folder.readOutput());
+    }
+
+    @Test
+    public void stopsWhenTimeIsUp() throws IOException {
+        AnytimeSolver<Integer, Integer> solver = new AnytimeSolver<>(Context::readInt, (n, sink) -> {
+            int i = 0;
+            while (!sink.isTimeUp()) {
+                sink.publish(++i, i);
+            }
+            assertFalse(sink.publish(-1, Long.MAX_VALUE));
+        }, AnytimeSolverTest::formatSolution, Duration.ofMillis(100));
+        solver.setMinWriteInterval(Duration.ZERO);
+        solver.accept(folder.getInput().toString());
+        assertFalse(folder.readOutput().startsWith("-"));
+    }
+
+    @Test
+    public void failsWithoutSolution() {
+        AnytimeSolver<Integer, Integer> solver = new AnytimeSolver<>(Context::readInt, (n, sink) -> {
+        }, AnytimeSolverTest::formatSolution, Duration.ofMinutes(1));
+        expectedException.expect(SolverException.class);
+        solver.accept(folder.getInput().toString());
+    }
+}
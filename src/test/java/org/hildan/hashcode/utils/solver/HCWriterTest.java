@@ -0,0 +1,188 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class HCWriterTest {
+
+    private static final String EXPECTED = "0 -1 42 2147483647 -2147483648\n"
+            + "9223372036854775807 -9223372036854775808 x\n"
+            + "caf\u00e9 \u00e9t\u00e9\n";
+
+    @Rule
+    public ProblemFolder folder = new ProblemFolder();
+
+    private static void writeSample(HCWriter writer) {
+        writer.writeInt(0).writeSeparator().writeInt(-1).writeSeparator().writeInt(42).writeSeparator();
+        writer.writeInt(Integer.MAX_VALUE).writeSeparator().writeInt(Integer.MIN_VALUE).newLine();
+        writer.writeLong(Long.MAX_VALUE).writeSeparator().writeLong(Long.MIN_VALUE).writeSeparator();
+        writer.writeChar('x').newLine();
+        writer.writeString("caf\u00e9").writeSeparator().writeChar('\u00e9').writeString("t\u00e9").newLine();
+    }
+
+    @Test
+    public void toFile() throws IOException {
+        Path file = folder.getOutput();
+        try (HCWriter writer = HCWriter.toFile(file)) {
+            writeSample(writer);
+            assertEquals(EXPECTED.getBytes(StandardCharsets.UTF_8).length, writer.getBytesWritten());
+        }
+        assertEquals(EXPECTED, folder.readOutput());
+    }
+
+    @Test
+    public void toFile_smallBuffer() throws IOException {
+        Path file = folder.getOutput();
+        try (HCWriter writer = HCWriter.toFile(file, 1)) {
+            for (int i = 0; i < 20; i++) {
+                writeSample(writer);
+            }
+        }
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            expected.append(EXPECTED);
+        }
+        assertEquals(expected.toString(), folder.readOutput());
+    }
+
+    @Test
+    public void toFile_createdLazily() throws IOException {
+        Path file = folder.getOutput();
+        HCWriter writer = HCWriter.toFile(file);
+        writer.writeInt(42);
+        writer.abort();
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void toMappedFile_exactSize() throws IOException {
+        Path file = folder.getOutput();
+        try (HCWriter writer = HCWriter.toMappedFile(file, EXPECTED.getBytes(StandardCharsets.UTF_8).length)) {
+            writeSample(writer);
+        }
+        assertEquals(EXPECTED, folder.readOutput());
+    }
+
+    @Test
+    public void toMappedFile_overestimatedSize() throws IOException {
+        Path file = folder.getOutput();
+        try (HCWriter writer = HCWriter.toMappedFile(file, 1 << 20)) {
+            writeSample(writer);
+        }
+        assertEquals(EXPECTED, folder.readOutput());
+    }
+
+    @Test
+    public void toMappedFile_underestimatedSize() throws IOException {
+        Path file = folder.getOutput();
+        StringBuilder expected = new StringBuilder();
+        try (HCWriter writer = HCWriter.toMappedFile(file, 10)) {
+            for (int i = 0; i < 10000; i++) {
+                writeSample(writer);
+                expected.append(EXPECTED);
+            }
+        }
+        assertEquals(expected.toString(), folder.readOutput());
+    }
+
+    @Test
+    public void inMemory_directBufferGrowsAsDirect() {
+        HCWriter.MemoryWriter writer = HCWriter.inMemory(ByteBuffer.allocateDirect(64));
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            writeSample(writer);
+            expected.append(EXPECTED);
+        }
+        ByteBuffer bytes = writer.getBytes();
+        assertTrue(bytes.isDirect());
+        byte[] content = new byte[bytes.remaining()];
+        bytes.get(content);
+        assertEquals(expected.toString(), new String(content, StandardCharsets.UTF_8));
+
+        ByteBuffer taken = writer.takeBuffer();
+        assertTrue(taken.isDirect());
+        assertEquals(0, taken.position());
+        assertEquals(taken.capacity(), taken.limit());
+    }
+
+    @Test
+    public void accept_writerContract() throws IOException {
+        Path input = folder.writeInput("");
+        AbstractWriterFileSolver solver = new AbstractWriterFileSolver() {
+            @Override
+            protected void solve(String inputFilename, HCWriter writer) {
+                writer.writeInt(3).newLine().writeInt(1).writeSeparator().writeInt(2).newLine();
+            }
+        };
+        solver.accept(input.toString());
+        assertEquals("3\n1 2\n", folder.readOutput());
+    }
+
+    @Test
+    public void accept_linesContract() throws IOException {
+        Path input = folder.writeInput("");
+        AbstractFileSolver solver = new AbstractFileSolver() {
+            @Override
+            protected List<String> solve(String inputFilename) {
+                return Arrays.asList("2", "a b");
+            }
+        };
+        solver.accept(input.toString());
+        assertEquals("2\na b\n", folder.readOutput());
+    }
+
+    @Test
+    public void accept_linesContractCallsWriteOutputFile() throws IOException {
+        Path input = folder.writeInput("");
+        AbstractFileSolver solver = new AbstractFileSolver() {
+            @Override
+            protected List<String> solve(String inputFilename) {
+                return Arrays.asList("2", "a b");
+            }
+
+            @Override
+            protected void writeOutputFile(String outputFilename, Iterable<? extends CharSequence> lines)
+                    throws IOException {
+                Files.write(Paths.get(outputFilename), "custom".getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        solver.setOutputStage(OutputStage.asynchronous());
+        solver.accept(input.toString());
+        solver.flush();
+        assertEquals("custom", folder.readOutput());
+    }
+
+    @Test
+    public void accept_failureKeepsPreviousOutput() throws IOException {
+        Path input = folder.writeInput("");
+        Path output = folder.getOutput();
+        Files.write(output, "previous".getBytes(StandardCharsets.UTF_8));
+        AbstractFileSolver solver = new AbstractFileSolver() {
+            @Override
+            protected List<String> solve(String inputFilename) {
+                throw new IllegalStateException("no solution");
+            }
+        };
+        try {
+            solver.accept(input.toString());
+            fail("the solver exception should have been propagated");
+        } catch (IllegalStateException e) {
+            assertTrue(Files.exists(output));
+            assertEquals("previous", folder.readOutput());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class OutputStageTest {
+
+    @Rule
+    public ProblemFolder folder = new ProblemFolder();
+
+    private void assertOnlyFiles(File dir, String... expectedNames) {
+        String[] names = dir.list();
+        assertTrue(names != null);
+        Arrays.sort(names);
+        assertArrayEquals(expectedNames, names);
+    }
+
+    @Test
+    public void synchronous() throws IOException {
+        Path output = folder.getRoot().toPath().resolve("outputs/problem.out");
+        try (OutputStage stage = OutputStage.synchronous()) {
+            stage.write(output.toString(), w -> w.writeInt(42).newLine());
+            assertEquals("42\n", ProblemFolder.read(output));
+        }
+        assertOnlyFiles(output.getParent().toFile(), "problem.out");
+    }
+
+    @Test
+    public void asynchronous() throws IOException {
+        Path output1 = folder.getRoot().toPath().resolve("outputs/problem1.out");
+        Path output2 = folder.getRoot().toPath().resolve("outputs/problem2.out");
+        try (OutputStage stage = OutputStage.asynchronous()) {
+            stage.write(output1.toString(), w -> w.writeString("first").newLine());
+            stage.write(output2.toString(), w -> {
+                for (int i = 0; i < 100000; i++) {
+                    w.writeInt(i).newLine();
+                }
+            });
+            stage.flush();
+            assertEquals("first\n", ProblemFolder.read(output1));
+            assertEquals(588890, Files.size(output2));
+        }
+        assertOnlyFiles(output1.getParent().toFile(), "problem1.out", "problem2.out");
+    }
+
+    @Test
+    public void asynchronous_solverFailureThrownDirectly() throws IOException {
+        Path output = folder.getOutput();
+        try (OutputStage stage = OutputStage.asynchronous()) {
+            stage.write(output.toString(), w -> {
+                throw new IllegalStateException("no solution");
+            });
+            fail("the solver exception should have been thrown");
+        } catch (IllegalStateException e) {
+            assertEquals("no solution", e.getMessage());
+        }
+        assertOnlyFiles(folder.getRoot());
+    }
+
+    @Test
+    public void asynchronous_writeFailureReportedOnFlush() throws IOException {
+        File outputDir = folder.newFolder("problem.out");
+        assertTrue(new File(outputDir, "blocker").createNewFile());
+        OutputStage stage = OutputStage.asynchronous();
+        stage.write(outputDir.getPath(), w -> w.writeInt(42));
+        try {
+            stage.close();
+            fail("the write failure should have been reported");
+        } catch (IOException e) {
+            assertTrue(e.getCause() instanceof SolverException);
+        }
+        assertOnlyFiles(folder.getRoot(), "problem.out");
+    }
+
+    @Test
+    public void failureKeepsPreviousOutput() throws IOException {
+        Path output = folder.getOutput();
+        Files.write(output, "previous".getBytes(StandardCharsets.UTF_8));
+        try (OutputStage stage = OutputStage.synchronous()) {
+            stage.write(output.toString(), w -> {
+                w.writeString("partial").newLine();
+                throw new IllegalStateException("crash while writing");
+            });
+            fail("the solver exception should have been thrown");
+        } catch (IllegalStateException e) {
+            assertEquals("previous", folder.readOutput());
+        }
+        assertOnlyFiles(folder.getRoot(), "problem.out");
+    }
+
+    @Test
+    public void synchronous_solverIOExceptionNotWrapped() throws IOException {
+        UncheckedIOException solverFailure = new UncheckedIOException(new IOException("cannot read the input"));
+        try (OutputStage stage = OutputStage.synchronous()) {
+            stage.write(folder.getOutput().toString(), w -> {
+                throw solverFailure;
+            });
+            fail("the solver exception should have been thrown");
+        } catch (UncheckedIOException e) {
+            assertSame(solverFailure, e);
+        }
+        assertOnlyFiles(folder.getRoot());
+    }
+}
@@ -0,0 +1,102 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+import org.hildan.hashcode.utils.parser.context.Context;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ParallelSerializerTest {
+
+    private static final BiConsumer<int[], HCWriter> FORMATTER =
+            (pair, w) -> w.writeInt(pair[0]).writeSeparator().writeInt(pair[1]).newLine();
+
+    @Rule
+    public ProblemFolder folder = new ProblemFolder();
+
+    private static List<int[]> createItems(int n) {
+        List<int[]> items = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            items.add(new int[] {i, -i * 7});
+        }
+        return items;
+    }
+
+    private static String formatSequentially(List<int[]> items) {
+        StringBuilder sb = new StringBuilder();
+        for (int[] pair : items) {
+            sb.append(pair[0]).append(' ').append(pair[1]).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private String writeInParallel(List<int[]> items, ForkJoinPool pool) throws IOException {
+        Path file = folder.getOutput();
+        try (HCWriter writer = HCWriter.toFile(file)) {
+            writer.writeInt(items.size()).newLine();
+            writer.writeAllInParallel(items, FORMATTER, pool);
+            writer.writeString("end").newLine();
+        }
+        return folder.readOutput();
+    }
+
+    @Test
+    public void writeAllInParallel_preservesOrder() throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int n : Arrays.asList(0, 1, 1000, 1025, 100000, 333333)) {
+                List<int[]> items = createItems(n);
+                assertEquals(n + "\n" + formatSequentially(items) + "end\n", writeInParallel(items, pool));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void writeAllInParallel_memoryWriter() {
+        List<int[]> items = createItems(50000);
+        HCWriter.MemoryWriter writer = HCWriter.inMemory(16);
+        writer.writeAllInParallel(items, FORMATTER);
+        assertEquals(formatSequentially(items), StandardCharsets.UTF_8.decode(writer.getBytes()).toString());
+    }
+
+    @Test
+    public void writeAllInParallel_formatterFailure() throws IOException {
+        List<int[]> items = createItems(100000);
+        Path file = folder.getOutput();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try (HCWriter writer = HCWriter.toFile(file)) {
+            writer.writeAllInParallel(items, (pair, w) -> {
+                if (pair[0] == 77777) {
+                    throw new IllegalStateException("cannot format");
+                }
+                FORMATTER.accept(pair, w);
+            }, pool);
+            fail("the formatter exception should have been propagated");
+        } catch (IllegalStateException e) {
+            assertEquals("cannot format", e.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void withParallelFormatting() throws IOException {
+        Path input = folder.writeInput("30000");
+        HCWriterSolver<Integer> solver = HCWriterSolver.withParallelFormatting(Context::readInt,
+                ParallelSerializerTest::createItems, FORMATTER);
+        solver.accept(input.toString());
+        assertEquals(formatSequentially(createItems(30000)), folder.readOutput());
+    }
+}
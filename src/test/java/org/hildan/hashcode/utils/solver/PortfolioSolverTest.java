@@ -0,0 +1,115 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.hildan.hashcode.utils.parser.HCParser;
+import org.hildan.hashcode.utils.parser.Parser;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PortfolioSolverTest {
+
+    private static final HCParser<int[]> PARSER = new HCParser<>(
+            Parser.integer.flatMapInt(n -> Parser.integer.repeatArray(n)));
+
+    @Rule
+    public ProblemFolder folder = new ProblemFolder();
+
+    @Before
+    public void setUp() throws IOException {
+        folder.writeInput("3\n5 1 9");
+    }
+
+    private static List<String> pick(int[] values, int index) {
+        return Collections.singletonList(String.valueOf(values[index]));
+    }
+
+    @Test
+    public void writesBestSolution() throws IOException {
+        List<Function<int[], ? extends List<String>>> strategies = Arrays.asList(
+                values -> pick(values, 0),
+                values -> pick(values, 1),
+                values -> pick(values, 2));
+        PortfolioSolver<int[], List<String>> solver = PortfolioSolver.ofLines(PARSER, strategies,
+                lines -> Long.parseLong(lines.get(0)));
+        solver.accept(folder.getInput().toString());
+        assertEquals("9\n", folder.readOutput());
+    }
+
+    @Test
+    public void firstStrategyWinsOnEqualScores() throws IOException {
+        List<Function<int[], ? extends List<String>>> strategies = Arrays.asList(
+                values -> pick(values, 1),
+                values -> pick(values, 0),
+                values -> pick(values, 2));
+        PortfolioSolver<int[], List<String>> solver = PortfolioSolver.ofLines(PARSER, strategies, lines -> 0);
+        solver.accept(folder.getInput().toString());
+        assertEquals("1\n", folder.readOutput());
+    }
+
+    @Test
+    public void runsStrategiesInParallel() throws IOException {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        Function<int[], Integer> strategy = values -> {
+            allStarted.countDown();
+            try {
+                // would time out if the strategies were run sequentially
+                assertTrue(allStarted.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            return values.length;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            PortfolioSolver<int[], Integer> solver = new PortfolioSolver<>(PARSER,
+                    Arrays.asList(strategy, strategy, strategy), n -> n, (n, w) -> w.writeInt(n).newLine());
+            solver.setExecutor(executor);
+            solver.accept(folder.getInput().toString());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals("3\n", folder.readOutput());
+    }
+
+    @Test
+    public void failingStrategyIsIgnored() throws IOException {
+        List<Function<int[], ? extends List<String>>> strategies = Arrays.asList(
+                values -> pick(values, 5),
+                values -> pick(values, 1));
+        PortfolioSolver<int[], List<String>> solver = PortfolioSolver.ofLines(PARSER, strategies, lines -> 0);
+        solver.accept(folder.getInput().toString());
+        assertEquals("1\n", folder.readOutput());
+    }
+
+    @Test
+    public void allStrategiesFailingFailsTheInput() throws IOException {
+        List<Function<int[], ? extends List<String>>> strategies = Arrays.asList(
+                values -> pick(values, 5),
+                values -> pick(values, 6));
+        PortfolioSolver<int[], List<String>> solver = PortfolioSolver.ofLines(PARSER, strategies, lines -> 0);
+        try {
+            solver.accept(folder.getInput().toString());
+            fail("the strategy exceptions should have been propagated");
+        } catch (SolverException e) {
+            assertTrue(e.getCause() instanceof ArrayIndexOutOfBoundsException);
+            assertEquals(1, e.getSuppressed().length);
+            assertFalse(Files.exists(folder.getOutput()));
+        }
+    }
+}
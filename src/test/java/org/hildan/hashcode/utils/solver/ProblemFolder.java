@@ -0,0 +1,35 @@
+package org.hildan.hashcode.utils.solver;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * A temporary folder for the tests of the solvers, where the input file of the problem is {@code problem.in}, and the
+ * corresponding output file is {@code problem.out}.
+ */
+class ProblemFolder extends TemporaryFolder {
+
+    Path getInput() {
+        return getRoot().toPath().resolve("problem.in");
+    }
+
+    Path getOutput() {
+        return getRoot().toPath().resolve("problem.out");
+    }
+
+    Path writeInput(String content) throws IOException {
+        return Files.write(getInput(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    String readOutput() throws IOException {
+        return read(getOutput());
+    }
+
+    static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}